@@ -2,16 +2,38 @@ package de.safti.specs;
 
 import de.safti.specs.annotations.InterfaceSpecImpl;
 import de.safti.specs.annotations.Spec;
+import de.safti.specs.batch.ColumnarBatch;
+import de.safti.specs.batch.ColumnarWriter;
+import de.safti.specs.batch.RecordBatch;
+import de.safti.specs.batch.RecordBatchWriter;
+import de.safti.specs.compress.BlockCompression;
+import de.safti.specs.compress.CompressionDictionary;
+import de.safti.specs.delta.DeltaCodec;
+import de.safti.specs.format.Format;
+import de.safti.specs.integrity.BlockChecksum;
 import de.safti.specs.io.BinaryData;
+import de.safti.specs.io.BinaryReader;
 import de.safti.specs.io.BinaryWriter;
+import de.safti.specs.json.JsonCodec;
+import de.safti.specs.json.JsonReader;
+import de.safti.specs.json.JsonWriter;
 import de.safti.specs.layout.ClassLayout;
 import de.safti.specs.layout.InterfaceLayout;
 import de.safti.specs.layout.SpecLayout;
 import de.safti.specs.layout.common.SpecField;
+import de.safti.specs.offheap.OffHeapArray;
+import de.safti.specs.patch.SpecPatcher;
+import de.safti.specs.stream.SpecDecoder;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.foreign.Arena;
 import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -38,6 +60,397 @@ public class SpecIO {
         return specLayout.create(data);
     }
 
+    /**
+     * Writes the spec and protects it using checksums, see {@link BlockChecksum}.
+     * To protect a stream of specs, the sealed specs can be written using {@link de.safti.specs.stream.Frames}.
+     *
+     * @param spec The spec to write.
+     * @param checksum The checksums to apply.
+     * @return The sealed data.
+     */
+    @Contract(pure = true)
+    public static BinaryData write(@NotNull Spec spec, @NotNull BlockChecksum checksum) {
+        return checksum.seal(write(spec));
+    }
+
+    /**
+     * Verifies the data before reading it.
+     *
+     * @param data Data written by {@link #write(Spec, BlockChecksum)}.
+     * @param clazz The spec class/interface of the data.
+     * @param checksum The checksums the data was written with.
+     * @return The created spec.
+     * @throws de.safti.specs.io.CorruptDataException If the data is corrupt.
+     */
+    @Contract(pure = true)
+    public static Spec read(BinaryData data, @NotNull Class<? extends Spec> clazz, @NotNull BlockChecksum checksum) {
+        return read(checksum.open(data), clazz);
+    }
+
+    /**
+     * Reads the data, allocating {@link OffHeapArray} fields in the given arena.
+     * The arrays stay valid until the arena is closed.
+     *
+     * @param data The data to read.
+     * @param clazz The spec class/interface of the data.
+     * @param arena The arena to allocate off heap arrays in.
+     * @return The created spec.
+     * @see OffHeapArray#decodeIn(Arena, java.util.function.Supplier)
+     */
+    public static Spec read(BinaryData data, @NotNull Class<? extends Spec> clazz, @NotNull Arena arena) {
+        return OffHeapArray.decodeIn(arena, () -> read(data, clazz));
+    }
+
+    /**
+     * Reads the data into an existing spec instead of creating a new one.
+     * Lists, sets and arrays already held by the target are cleared and refilled where possible.
+     *
+     * @param data The data to read.
+     * @param target The spec to populate.
+     * @return The given target.
+     * @see SpecLayout#readInto(BinaryData, Spec)
+     */
+    public static <T extends Spec> T readInto(BinaryData data, @NotNull T target) {
+        getLayout(target).readInto(data, target);
+        return target;
+    }
+
+    /**
+     * Reads only the given fields, skipping the others without decoding them.
+     * Fields that are not requested are set to the default value of their type, like {@link #generate(Class)} does.
+     *
+     * @param data The data to read.
+     * @param clazz The spec class/interface of the data.
+     * @param fieldNames The names of the fields to decode.
+     * @return The created spec.
+     * @see SpecLayout#create(BinaryData, String...)
+     */
+    @Contract(pure = true)
+    public static Spec read(BinaryData data, @NotNull Class<? extends Spec> clazz, String... fieldNames) {
+        SpecLayout specLayout = getLayout(clazz);
+        return specLayout.create(data, fieldNames);
+    }
+
+    /**
+     * Wraps the data in a read only view of the given spec interface, decoding every field on demand.
+     *
+     * @param data The encoded spec.
+     * @param clazz The spec interface of the data.
+     * @return A view backed by the given data.
+     * @throws IllegalArgumentException If the given spec is not an interface.
+     * @see InterfaceLayout#view(BinaryData, long, boolean)
+     */
+    @Contract(pure = true)
+    public static <T extends Spec> T view(BinaryData data, @NotNull Class<T> clazz) {
+        if(!(getLayout(clazz) instanceof InterfaceLayout layout)) throw new IllegalArgumentException("Views are only supported for interface specs, but got " + clazz.getCanonicalName());
+        return (T) layout.view(data);
+    }
+
+    /**
+     * Reads a single field of the data without creating a spec.
+     * If every field in front of the requested field has a fixed bit size, the field is read directly.
+     *
+     * @param data The data to read.
+     * @param clazz The spec class/interface of the data.
+     * @param fieldName The name of the field to read.
+     * @return The value of the field.
+     * @see SpecLayout#readField(BinaryData, String)
+     */
+    @Contract(pure = true)
+    public static Object readField(BinaryData data, @NotNull Class<? extends Spec> clazz, String fieldName) {
+        return getLayout(clazz).readField(data, fieldName);
+    }
+
+    /**
+     * Sets a single field of an encoded spec without decoding it.
+     *
+     * @param data The encoded spec.
+     * @param clazz The spec class/interface of the data.
+     * @param fieldName The name of the field to change.
+     * @param value The new value.
+     * @return The given data if the field could be overwritten in place, otherwise newly created data.
+     * @see SpecPatcher
+     */
+    public static BinaryData patch(BinaryData data, @NotNull Class<? extends Spec> clazz, String fieldName, @Nullable Object value) {
+        return new SpecPatcher(getLayout(clazz)).patch(data, fieldName, value);
+    }
+
+    /**
+     * Writes the spec in the given format.
+     *
+     * @param spec The spec to write.
+     * @param format The format to write in.
+     * @param writer The writer of the format.
+     * @see SpecLayout#codec(Format)
+     */
+    public static <W> void write(@NotNull Spec spec, @NotNull Format<W, ?> format, @NotNull W writer) {
+        getLayout(spec).codec(format).write(spec, writer);
+    }
+
+    /**
+     * Reads a spec in the given format.
+     *
+     * @param reader The reader of the format.
+     * @param format The format to read.
+     * @param clazz The spec class/interface of the data.
+     * @return The created spec.
+     * @see SpecLayout#codec(Format)
+     */
+    public static <R> Spec read(@NotNull R reader, @NotNull Format<?, R> format, @NotNull Class<? extends Spec> clazz) {
+        return getLayout(clazz).codec(format).read(reader);
+    }
+
+    /**
+     * Writes the spec as JSON object.
+     *
+     * @param spec The spec to write.
+     * @return The JSON string.
+     * @see JsonCodec
+     */
+    @Contract(pure = true)
+    public static String toJson(@NotNull Spec spec) {
+        JsonWriter writer = new JsonWriter();
+        JsonCodec.of(getLayout(spec)).write(spec, writer);
+        return writer.toString();
+    }
+
+    /**
+     * Writes the spec as UTF-8 encoded JSON object to the given stream.
+     *
+     * @param spec The spec to write.
+     * @param out The stream to write to. The stream is flushed, but not closed.
+     * @see JsonCodec
+     */
+    public static void writeJson(@NotNull Spec spec, @NotNull OutputStream out) {
+        JsonWriter writer = new JsonWriter(out);
+        JsonCodec.of(getLayout(spec)).write(spec, writer);
+        writer.flush();
+    }
+
+    /**
+     * Reads a spec from a UTF-8 encoded JSON object.
+     *
+     * @param json The JSON to read.
+     * @param clazz The spec class/interface of the data.
+     * @return The created spec.
+     * @see JsonCodec
+     */
+    @Contract(pure = true)
+    public static Spec readJson(byte @NotNull [] json, @NotNull Class<? extends Spec> clazz) {
+        return JsonCodec.of(getLayout(clazz)).read(new JsonReader(json));
+    }
+
+    /**
+     * @see #readJson(byte[], Class)
+     */
+    @Contract(pure = true)
+    public static Spec readJson(@NotNull String json, @NotNull Class<? extends Spec> clazz) {
+        return readJson(json.getBytes(StandardCharsets.UTF_8), clazz);
+    }
+
+    /**
+     * Reads a spec from a UTF-8 encoded JSON object. The stream is read until its end, but not closed.
+     *
+     * @see #readJson(byte[], Class)
+     */
+    public static Spec readJson(@NotNull InputStream in, @NotNull Class<? extends Spec> clazz) {
+        return JsonCodec.of(getLayout(clazz)).read(new JsonReader(in));
+    }
+
+    /**
+     * Converts an encoded spec to JSON without creating the spec.
+     * Produces the same JSON as {@code toJson(read(data, clazz))}.
+     *
+     * @param data The encoded spec.
+     * @param clazz The spec class/interface of the data.
+     * @return The JSON string.
+     * @see JsonCodec#transcode(BinaryReader, JsonWriter)
+     */
+    @Contract(pure = true)
+    public static String transcodeJson(BinaryData data, @NotNull Class<? extends Spec> clazz) {
+        JsonWriter writer = new JsonWriter();
+        transcodeJson(data, clazz, writer);
+        return writer.toString();
+    }
+
+    /**
+     * Converts an encoded spec to UTF-8 encoded JSON without creating the spec.
+     *
+     * @param data The encoded spec.
+     * @param clazz The spec class/interface of the data.
+     * @param out The stream to write to. The stream is flushed, but not closed.
+     * @see #transcodeJson(BinaryData, Class)
+     */
+    public static void transcodeJson(BinaryData data, @NotNull Class<? extends Spec> clazz, @NotNull OutputStream out) {
+        JsonWriter writer = new JsonWriter(out);
+        transcodeJson(data, clazz, writer);
+        writer.flush();
+    }
+
+    private static void transcodeJson(BinaryData data, Class<? extends Spec> clazz, JsonWriter writer) {
+        BinaryReader reader = new BinaryReader(data);
+        JsonCodec.of(getLayout(clazz)).transcode(reader, writer);
+        if(reader.hasMore()) throw new IllegalStateException("More data is found! It is likely that the wrong spec was provided for reading, or data corruption.");
+    }
+
+    /**
+     * Writes the given specs in a columnar format.
+     *
+     * @param specClass The spec class/interface of the given specs.
+     * @param specs The specs to write. All specs must be of the given spec class.
+     * @return The encoded batch.
+     * @see ColumnarWriter
+     */
+    @Contract(pure = true)
+    public static BinaryData writeColumnar(@NotNull Class<? extends Spec> specClass, @NotNull Collection<? extends Spec> specs) {
+        return new ColumnarWriter(getLayout(specClass))
+                .addAll(specs)
+                .toBinaryData();
+    }
+
+    /**
+     * Writes the given specs in a columnar format and compresses the result.
+     *
+     * @param specClass The spec class/interface of the given specs.
+     * @param specs The specs to write. All specs must be of the given spec class.
+     * @param compression The compression to apply.
+     * @return The compressed batch.
+     * @see #writeColumnar(Class, Collection)
+     * @see BlockCompression
+     */
+    @Contract(pure = true)
+    public static BinaryData writeColumnar(@NotNull Class<? extends Spec> specClass, @NotNull Collection<? extends Spec> specs, @NotNull BlockCompression compression) {
+        return compression.compress(writeColumnar(specClass, specs));
+    }
+
+    /**
+     * @param data Data written by {@link #writeColumnar(Class, Collection, BlockCompression)}.
+     * @param clazz The spec class/interface of the batch.
+     * @param compression The compression the batch was written with.
+     * @return A batch allowing to decode single columns or every spec.
+     */
+    @Contract(pure = true)
+    public static ColumnarBatch readColumnar(BinaryData data, @NotNull Class<? extends Spec> clazz, @NotNull BlockCompression compression) {
+        return readColumnar(compression.decompress(data), clazz);
+    }
+
+    /**
+     * Writes the given specs in a columnar format and protects the result using checksums.
+     * Compressed batches can be protected by sealing the result of {@link #writeColumnar(Class, Collection, BlockCompression)}.
+     *
+     * @param specClass The spec class/interface of the given specs.
+     * @param specs The specs to write. All specs must be of the given spec class.
+     * @param checksum The checksums to apply.
+     * @return The sealed batch.
+     * @see BlockChecksum
+     */
+    @Contract(pure = true)
+    public static BinaryData writeColumnar(@NotNull Class<? extends Spec> specClass, @NotNull Collection<? extends Spec> specs, @NotNull BlockChecksum checksum) {
+        return checksum.seal(writeColumnar(specClass, specs));
+    }
+
+    /**
+     * Verifies every block of the batch, in parallel if there are multiple, before reading it.
+     *
+     * @param data Data written by {@link #writeColumnar(Class, Collection, BlockChecksum)}.
+     * @param clazz The spec class/interface of the batch.
+     * @param checksum The checksums the batch was written with.
+     * @return A batch allowing to decode single columns or every spec.
+     * @throws de.safti.specs.io.CorruptDataException If the batch is corrupt.
+     */
+    @Contract(pure = true)
+    public static ColumnarBatch readColumnar(BinaryData data, @NotNull Class<? extends Spec> clazz, @NotNull BlockChecksum checksum) {
+        return readColumnar(checksum.open(data), clazz);
+    }
+
+    /**
+     * Trains a compression dictionary from the given sample specs.
+     *
+     * @param samples Specs similar to the ones that will be compressed.
+     * @param maxSize The maximum size of the dictionary in bytes.
+     * @return The trained dictionary.
+     * @see CompressionDictionary#train(Collection, int)
+     */
+    @Contract(pure = true)
+    public static CompressionDictionary trainDictionary(@NotNull Collection<? extends Spec> samples, int maxSize) {
+        return CompressionDictionary.train(samples.stream().map(SpecIO::write).toList(), maxSize);
+    }
+
+    /**
+     * @param data Data written by {@link #writeColumnar(Class, Collection)}.
+     * @param clazz The spec class/interface of the batch.
+     * @return A batch allowing to decode single columns or every spec.
+     * @see ColumnarBatch
+     */
+    @Contract(pure = true)
+    public static ColumnarBatch readColumnar(BinaryData data, @NotNull Class<? extends Spec> clazz) {
+        return new ColumnarBatch(data, getLayout(clazz));
+    }
+
+    /**
+     * Writes the given specs record by record, storing the given string fields using a dictionary shared by the batch.
+     *
+     * @param specClass The spec class/interface of the given specs.
+     * @param specs The specs to write. All specs must be of the given spec class.
+     * @param dictionaryFields The names of the string fields to store using a dictionary.
+     * @return The encoded batch.
+     * @see RecordBatchWriter
+     */
+    @Contract(pure = true)
+    public static BinaryData writeBatch(@NotNull Class<? extends Spec> specClass, @NotNull Collection<? extends Spec> specs, String... dictionaryFields) {
+        return new RecordBatchWriter(getLayout(specClass), dictionaryFields)
+                .addAll(specs)
+                .toBinaryData();
+    }
+
+    /**
+     * @param data Data written by {@link #writeBatch(Class, Collection, String...)}.
+     * @param clazz The spec class/interface of the batch.
+     * @return A batch allowing to decode every spec.
+     * @see RecordBatch
+     */
+    @Contract(pure = true)
+    public static RecordBatch readBatch(BinaryData data, @NotNull Class<? extends Spec> clazz) {
+        return new RecordBatch(data, getLayout(clazz));
+    }
+
+    /**
+     * Encodes only the fields that changed between two snapshots of the same spec.
+     *
+     * @param previous The previous snapshot, or null to encode every field.
+     * @param current The current snapshot.
+     * @return The encoded delta.
+     * @see DeltaCodec
+     */
+    @Contract(pure = true)
+    public static BinaryData writeDelta(@Nullable Spec previous, @NotNull Spec current) {
+        return new DeltaCodec(getLayout(current)).write(previous, current);
+    }
+
+    /**
+     * Applies a delta written by {@link #writeDelta(Spec, Spec)} onto the given spec.
+     *
+     * @param data The encoded delta.
+     * @param target The spec holding the previous snapshot. It is updated in place.
+     * @return The given target.
+     */
+    public static <T extends Spec> T readDelta(BinaryData data, @NotNull T target) {
+        return new DeltaCodec(getLayout(target)).apply(data, target);
+    }
+
+    /**
+     * Creates a processor that decodes framed specs from chunks of bytes, honoring the demand of its subscriber.
+     *
+     * @param clazz The spec class/interface to decode.
+     * @return A new decoder.
+     * @see SpecDecoder
+     * @see de.safti.specs.stream.SpecOutputStream
+     */
+    @Contract(pure = true)
+    public static <T extends Spec> SpecDecoder<T> decoder(@NotNull Class<T> clazz) {
+        return new SpecDecoder<>(clazz);
+    }
+
     /**
      * In the case of a class spec, an instance is created using reflection.
      * In the case of an interface, a class is generated at runtime (once per spec) and instantiated.
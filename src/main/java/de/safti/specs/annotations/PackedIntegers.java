@@ -0,0 +1,129 @@
+package de.safti.specs.annotations;
+
+import de.safti.specs.io.BinaryReader;
+import de.safti.specs.io.BinaryWriter;
+import de.safti.specs.io.CorruptDataException;
+
+/**
+ * Frame of reference encoding of integer sequences, used by {@link Structure.PackedList}.
+ * <p>
+ * The values are split into blocks. Every block stores its minimum, followed by the difference of every value to it
+ * using the least amount of bits possible. Optionally the deltas of the deltas are packed instead of the values,
+ * which are close to 0 for sorted or evenly spaced sequences like timestamps.
+ * <p>
+ * Layout:
+ * <pre>
+ * UVarInt count
+ * delta of delta only: the first value and the first delta as VarInt
+ * for every block: VarInt minimum, 7 bits width, width bits per value
+ * </pre>
+ */
+final class PackedIntegers {
+
+    private PackedIntegers() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated.");
+    }
+
+    static void write(BinaryWriter writer, long[] values, int blockSize, boolean deltaOfDelta) {
+        writer.writeUVarInt(values.length);
+
+        long[] packed = deltaOfDelta ? toDeltaOfDelta(values) : values;
+        int head = head(values.length, deltaOfDelta);
+        for (int i = 0; i < head; i++) {
+            writer.writeVarInt(packed[i]);
+        }
+
+        for (int start = head; start < packed.length; start += blockSize) {
+            int end = Math.min(packed.length, start + blockSize);
+
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (int i = start; i < end; i++) {
+                min = Math.min(min, packed[i]);
+                max = Math.max(max, packed[i]);
+            }
+
+            // the difference is treated as unsigned, so ranges larger than Long.MAX_VALUE still work
+            int width = 64 - Long.numberOfLeadingZeros(max - min);
+            writer.writeVarInt(min);
+            writer.writeUInt(width, 7);
+            if(width == 0) continue;
+
+            for (int i = start; i < end; i++) {
+                writer.writeBits(packed[i] - min, width);
+            }
+        }
+    }
+
+    static long[] read(BinaryReader reader, int blockSize, boolean deltaOfDelta) {
+        long[] values = new long[Math.toIntExact(reader.readUVarInt())];
+
+        int head = head(values.length, deltaOfDelta);
+        for (int i = 0; i < head; i++) {
+            values[i] = reader.readVarInt();
+        }
+
+        for (int start = head; start < values.length; start += blockSize) {
+            int end = Math.min(values.length, start + blockSize);
+            long min = reader.readVarInt();
+            int width = readWidth(reader);
+
+            for (int i = start; i < end; i++) {
+                values[i] = width == 0 ? min : min + reader.readBits(width);
+            }
+        }
+
+        if(deltaOfDelta) fromDeltaOfDelta(values);
+        return values;
+    }
+
+    static void skip(BinaryReader reader, int blockSize, boolean deltaOfDelta) {
+        int count = Math.toIntExact(reader.readUVarInt());
+
+        int head = head(count, deltaOfDelta);
+        for (int i = 0; i < head; i++) {
+            reader.readVarInt();
+        }
+
+        for (int start = head; start < count; start += blockSize) {
+            reader.readVarInt();
+            reader.skipBits((long) readWidth(reader) * (Math.min(count, start + blockSize) - start));
+        }
+    }
+
+    private static int readWidth(BinaryReader reader) {
+        int width = (int) reader.readUInt(7);
+        if(width > 64) throw new CorruptDataException("Invalid bit width " + width + " of packed integers.");
+        return width;
+    }
+
+    /**
+     * @return The amount of values stored as VarInt in front of the blocks.
+     */
+    private static int head(int count, boolean deltaOfDelta) {
+        return deltaOfDelta ? Math.min(count, 2) : 0;
+    }
+
+    // overflows cancel out when decoding, so wrapping arithmetic is fine here
+    private static long[] toDeltaOfDelta(long[] values) {
+        long[] result = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            if(i == 0) result[i] = values[0];
+            else if(i == 1) result[i] = values[1] - values[0];
+            else result[i] = values[i] - 2 * values[i - 1] + values[i - 2];
+        }
+        return result;
+    }
+
+    private static void fromDeltaOfDelta(long[] values) {
+        if(values.length < 2) return;
+
+        long delta = values[1];
+        values[1] = values[0] + delta;
+        for (int i = 2; i < values.length; i++) {
+            delta += values[i];
+            values[i] = values[i - 1] + delta;
+        }
+    }
+
+}
@@ -0,0 +1,102 @@
+package de.safti.specs.annotations;
+
+import de.safti.specs.io.BinaryReader;
+import de.safti.specs.io.BinaryWriter;
+import de.safti.specs.layout.common.PrimitiveDef;
+
+/**
+ * Reads and writes the elements of primitive arrays without boxing them and without going through {@link java.lang.reflect.Array}.
+ * Used by the array structures if both the component class and the element {@link de.safti.specs.layout.common.TypeDef} are primitive.
+ */
+final class PrimitiveArrays {
+
+    private PrimitiveArrays() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated.");
+    }
+
+    /**
+     * Fills the whole array, if it is a supported primitive array.
+     *
+     * @return false if nothing was read, because the array does not hold primitives matching the def.
+     */
+    static boolean read(Object array, PrimitiveDef def, BinaryReader reader) {
+        // decimals can only be stored in decimal arrays
+        if(array instanceof double[] doubles) {
+            for (int i = 0; i < doubles.length; i++) doubles[i] = def.toDouble(def.readLong(reader));
+            return true;
+        }
+        if(array instanceof float[] floats) {
+            for (int i = 0; i < floats.length; i++) floats[i] = (float) def.toDouble(def.readLong(reader));
+            return true;
+        }
+        if(def.isDecimal()) return false;
+
+        // range checks are only needed if the encoded values may not fit
+        long bits = def.fixedBitSize();
+        if(array instanceof long[] longs) {
+            for (int i = 0; i < longs.length; i++) longs[i] = def.readLong(reader);
+            return true;
+        }
+        if(array instanceof int[] ints) {
+            boolean fits = bits > 0 && bits <= 32;
+            for (int i = 0; i < ints.length; i++) {
+                long value = def.readLong(reader);
+                ints[i] = fits ? (int) value : Math.toIntExact(value);
+            }
+            return true;
+        }
+        if(array instanceof short[] shorts) {
+            boolean fits = bits > 0 && bits <= 16;
+            for (int i = 0; i < shorts.length; i++) {
+                long value = def.readLong(reader);
+                shorts[i] = fits ? (short) value : PrimitiveCollections.narrow(value, Short.MIN_VALUE, Short.MAX_VALUE, "short");
+            }
+            return true;
+        }
+        if(array instanceof byte[] bytes) {
+            boolean fits = bits > 0 && bits <= 8;
+            for (int i = 0; i < bytes.length; i++) {
+                long value = def.readLong(reader);
+                bytes[i] = fits ? (byte) value : (byte) PrimitiveCollections.narrow(value, Byte.MIN_VALUE, Byte.MAX_VALUE, "byte");
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Writes every element of the array, if it is a supported primitive array.
+     *
+     * @return false if nothing was written, because the array does not hold primitives matching the def.
+     */
+    static boolean write(Object array, PrimitiveDef def, BinaryWriter writer) {
+        if(array instanceof double[] doubles) {
+            for (double value : doubles) def.writeLong(writer, def.fromDouble(value));
+            return true;
+        }
+        if(array instanceof float[] floats) {
+            for (float value : floats) def.writeLong(writer, def.fromDouble(value));
+            return true;
+        }
+        if(def.isDecimal()) return false;
+
+        if(array instanceof long[] longs) {
+            for (long value : longs) def.writeLong(writer, value);
+            return true;
+        }
+        if(array instanceof int[] ints) {
+            for (int value : ints) def.writeLong(writer, value);
+            return true;
+        }
+        if(array instanceof short[] shorts) {
+            for (short value : shorts) def.writeLong(writer, value);
+            return true;
+        }
+        if(array instanceof byte[] bytes) {
+            for (byte value : bytes) def.writeLong(writer, value);
+            return true;
+        }
+        return false;
+    }
+
+}
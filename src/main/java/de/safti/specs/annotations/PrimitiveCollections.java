@@ -0,0 +1,107 @@
+package de.safti.specs.annotations;
+
+import de.safti.specs.io.BinaryReader;
+import de.safti.specs.io.BinaryWriter;
+import de.safti.specs.layout.common.PrimitiveDef;
+import it.unimi.dsi.fastutil.bytes.ByteCollection;
+import it.unimi.dsi.fastutil.bytes.ByteIterator;
+import it.unimi.dsi.fastutil.doubles.DoubleCollection;
+import it.unimi.dsi.fastutil.doubles.DoubleIterator;
+import it.unimi.dsi.fastutil.floats.FloatCollection;
+import it.unimi.dsi.fastutil.floats.FloatIterator;
+import it.unimi.dsi.fastutil.ints.IntCollection;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.longs.LongCollection;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.shorts.ShortCollection;
+import it.unimi.dsi.fastutil.shorts.ShortIterator;
+
+import java.util.Collection;
+
+/**
+ * Reads and writes the elements of FastUtil primitive collections without boxing them.
+ * Used by the list and set structures if both the collection and the element {@link de.safti.specs.layout.common.TypeDef} are primitive.
+ */
+final class PrimitiveCollections {
+
+    private PrimitiveCollections() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated.");
+    }
+
+    /**
+     * Reads the given amount of elements into the collection, if it is a supported primitive collection.
+     *
+     * @return false if nothing was read, because the collection does not hold primitives matching the def.
+     */
+    static boolean read(Collection<?> collection, PrimitiveDef def, BinaryReader reader, int count) {
+        // decimals can only be stored in decimal collections
+        if(collection instanceof DoubleCollection doubles) {
+            for (int i = 0; i < count; i++) doubles.add(def.toDouble(def.readLong(reader)));
+            return true;
+        }
+        if(collection instanceof FloatCollection floats) {
+            for (int i = 0; i < count; i++) floats.add((float) def.toDouble(def.readLong(reader)));
+            return true;
+        }
+        if(def.isDecimal()) return false;
+
+        if(collection instanceof IntCollection ints) {
+            for (int i = 0; i < count; i++) ints.add(Math.toIntExact(def.readLong(reader)));
+            return true;
+        }
+        if(collection instanceof LongCollection longs) {
+            for (int i = 0; i < count; i++) longs.add(def.readLong(reader));
+            return true;
+        }
+        if(collection instanceof ShortCollection shorts) {
+            for (int i = 0; i < count; i++) shorts.add(narrow(def.readLong(reader), Short.MIN_VALUE, Short.MAX_VALUE, "short"));
+            return true;
+        }
+        if(collection instanceof ByteCollection bytes) {
+            for (int i = 0; i < count; i++) bytes.add((byte) narrow(def.readLong(reader), Byte.MIN_VALUE, Byte.MAX_VALUE, "byte"));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Writes every element of the collection, if it is a supported primitive collection.
+     *
+     * @return false if nothing was written, because the collection does not hold primitives matching the def.
+     */
+    static boolean write(Collection<?> collection, PrimitiveDef def, BinaryWriter writer) {
+        if(collection instanceof DoubleCollection doubles) {
+            for (DoubleIterator it = doubles.iterator(); it.hasNext(); ) def.writeLong(writer, def.fromDouble(it.nextDouble()));
+            return true;
+        }
+        if(collection instanceof FloatCollection floats) {
+            for (FloatIterator it = floats.iterator(); it.hasNext(); ) def.writeLong(writer, def.fromDouble(it.nextFloat()));
+            return true;
+        }
+        if(def.isDecimal()) return false;
+
+        if(collection instanceof IntCollection ints) {
+            for (IntIterator it = ints.iterator(); it.hasNext(); ) def.writeLong(writer, it.nextInt());
+            return true;
+        }
+        if(collection instanceof LongCollection longs) {
+            for (LongIterator it = longs.iterator(); it.hasNext(); ) def.writeLong(writer, it.nextLong());
+            return true;
+        }
+        if(collection instanceof ShortCollection shorts) {
+            for (ShortIterator it = shorts.iterator(); it.hasNext(); ) def.writeLong(writer, it.nextShort());
+            return true;
+        }
+        if(collection instanceof ByteCollection bytes) {
+            for (ByteIterator it = bytes.iterator(); it.hasNext(); ) def.writeLong(writer, it.nextByte());
+            return true;
+        }
+        return false;
+    }
+
+    static short narrow(long value, short min, short max, String typeName) {
+        if(value < min || value > max) throw new ArithmeticException(typeName + " is too small to store " + value);
+        return (short) value;
+    }
+
+}
@@ -1,10 +1,19 @@
 package de.safti.specs.annotations;
 
+import it.unimi.dsi.fastutil.bytes.ByteOpenHashSet;
+import it.unimi.dsi.fastutil.chars.CharOpenHashSet;
+import it.unimi.dsi.fastutil.doubles.DoubleOpenHashSet;
+import it.unimi.dsi.fastutil.floats.FloatOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.shorts.ShortOpenHashSet;
+
 import javax.management.timer.TimerMBean;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
-// TODO: FastUtil and Unmodifiable support
+// TODO: Unmodifiable support
+@SuppressWarnings("unchecked")
 public enum SetType {
     HASH_SET(HashSet.class, HashSet::new, HashSet::new, false),
     LINKED_HASH_SET(LinkedHashSet.class, LinkedHashSet::new, LinkedHashSet::new, false),
@@ -13,7 +22,28 @@ public enum SetType {
         ConcurrentHashMap.KeySetView<Object, Boolean> set = ConcurrentHashMap.newKeySet();
         set.addAll(collection);
         return set;
-    }, ConcurrentHashMap::newKeySet,false)
+    }, ConcurrentHashMap::newKeySet,false),
+
+    /** FU = FastUtil. {@link ByteOpenHashSet}. */
+    FU_BYTE(ByteOpenHashSet.class, c -> new ByteOpenHashSet((Collection<? extends Byte>) c), ByteOpenHashSet::new, false),
+
+    /** FU = FastUtil. {@link ShortOpenHashSet}. */
+    FU_SHORT(ShortOpenHashSet.class, c -> new ShortOpenHashSet((Collection<? extends Short>) c), ShortOpenHashSet::new, false),
+
+    /** FU = FastUtil. {@link IntOpenHashSet}. */
+    FU_INT(IntOpenHashSet.class, c -> new IntOpenHashSet((Collection<? extends Integer>) c), IntOpenHashSet::new, false),
+
+    /** FU = FastUtil. {@link LongOpenHashSet}. */
+    FU_LONG(LongOpenHashSet.class, c -> new LongOpenHashSet((Collection<? extends Long>) c), LongOpenHashSet::new, false),
+
+    /** FU = FastUtil. {@link FloatOpenHashSet}. */
+    FU_FLOAT(FloatOpenHashSet.class, c -> new FloatOpenHashSet((Collection<? extends Float>) c), FloatOpenHashSet::new, false),
+
+    /** FU = FastUtil. {@link DoubleOpenHashSet}. */
+    FU_DOUBLE(DoubleOpenHashSet.class, c -> new DoubleOpenHashSet((Collection<? extends Double>) c), DoubleOpenHashSet::new, false),
+
+    /** FU = FastUtil. {@link CharOpenHashSet}. */
+    FU_CHAR(CharOpenHashSet.class, c -> new CharOpenHashSet((Collection<? extends Character>) c), CharOpenHashSet::new, false)
 
     ;
 
@@ -1,8 +1,10 @@
 package de.safti.specs.annotations;
 
 import de.safti.specs.SpecFormatException;
+import de.safti.specs.layout.common.PrimitiveDef;
 import de.safti.specs.layout.common.StructureDef;
 import de.safti.specs.layout.common.TypeDef;
+import de.safti.specs.offheap.OffHeapArray.Kind;
 import de.safti.specs.utils.GenericTypeResolver;
 import de.safti.specs.utils.Reflect;
 import org.jetbrains.annotations.NotNull;
@@ -69,6 +71,51 @@ public class Structure {
             return new StructureDefs.ListDynamicDef<>(type, Reflect.getClass(typeParameter), ann.value(), ann.autoFieldBitSize(), ann.useUnsigned(), ann.listType());
         });
 
+        STRUCTURES.put(PackedList.class, (rType, structureAnn, typeAnn, context) -> {
+            if(!(structureAnn instanceof PackedList ann))
+                throw new IllegalStateException(structureAnn.getClass().getCanonicalName());
+            if(!List.class.isAssignableFrom(Reflect.getClass(rType)))
+                throw new IllegalStateException("Expected SpecField type to be list, but got: " + rType + " at " + context);
+            if(ann.blockSize() < 1)
+                throw new SpecFormatException("Block size must be at least 1, but got " + ann.blockSize() + " at " + context);
+
+            java.lang.reflect.Type typeParameter = GenericTypeResolver.findGenericTypeArguments(rType, Collection.class)[0];
+            if(!(Type.getTypeDef(Reflect.getClass(typeParameter), typeAnn, context) instanceof PrimitiveDef primitive) || primitive.isDecimal())
+                throw new SpecFormatException("A PackedList requires an integer @Type annotation at " + context);
+
+            return new StructureDefs.PackedListDef<>(primitive, Reflect.getClass(typeParameter), ann.blockSize(), ann.deltaOfDelta(), ann.listType());
+        });
+
+        STRUCTURES.put(XorCompressed.class, (rType, structureAnn, typeAnn, context) -> {
+            if(!(structureAnn instanceof XorCompressed ann))
+                throw new IllegalStateException(structureAnn.getClass().getCanonicalName());
+
+            Class<?> rClass = Reflect.getClass(rType);
+            Class<?> elementClass;
+            if(rClass == double[].class || rClass == float[].class) elementClass = rClass.getComponentType();
+            else if(List.class.isAssignableFrom(rClass)) elementClass = Reflect.getClass(GenericTypeResolver.findGenericTypeArguments(rType, Collection.class)[0]);
+            else throw new SpecFormatException("Expected SpecField type to be a float or double array or list, but got: " + rType + " at " + context);
+
+            if(!(Type.getTypeDef(elementClass, typeAnn, context) instanceof PrimitiveDef primitive) || !primitive.isDecimal())
+                throw new SpecFormatException("XorCompressed requires a @Type.Float or @Type.Double annotation at " + context);
+
+            return new StructureDefs.XorCompressedDef(primitive, rClass.isArray() ? rClass : null, ann.listType());
+        });
+
+        STRUCTURES.put(RunLength.class, (rType, structureAnn, typeAnn, context) -> {
+            if(!(structureAnn instanceof RunLength ann))
+                throw new IllegalStateException(structureAnn.getClass().getCanonicalName());
+
+            Class<?> rClass = Reflect.getClass(rType);
+            Class<?> elementClass;
+            if(rClass.isArray()) elementClass = rClass.getComponentType();
+            else if(List.class.isAssignableFrom(rClass)) elementClass = Reflect.getClass(GenericTypeResolver.findGenericTypeArguments(rType, Collection.class)[0]);
+            else throw new SpecFormatException("Expected SpecField type to be an array or list, but got: " + rType + " at " + context);
+
+            TypeDef type = Type.getTypeDef(elementClass, typeAnn, context);
+            return new StructureDefs.RunLengthDef(type, rClass.isArray() ? elementClass : null, ann.listType());
+        });
+
 
         // SETS
         STRUCTURES.put(SetFixed.class, (rType, structureAnn, typeAnn, context) -> {
@@ -107,6 +154,39 @@ public class Structure {
         });
 
 
+        // OFF HEAP
+
+        STRUCTURES.put(OffHeapArray.class, (rType, structureAnn, typeAnn, context) -> {
+            if(!(structureAnn instanceof OffHeapArray ann))
+                throw new IllegalStateException(structureAnn.getClass().getCanonicalName());
+            if(Reflect.getClass(rType) != de.safti.specs.offheap.OffHeapArray.class)
+                throw new SpecFormatException("Expected SpecField type to be OffHeapArray, but got: " + rType + " at " + context);
+
+            Class<?> elementClass = typeAnn instanceof Type.Float ? float.class : typeAnn instanceof Type.Double ? double.class : long.class;
+            if(!(Type.getTypeDef(elementClass, typeAnn, context) instanceof PrimitiveDef primitive) || primitive instanceof TypeDefs.EnumTypeDef<?>)
+                throw new SpecFormatException("An OffHeapArray requires a numeric @Type annotation of at most 64 bits at " + context);
+
+            Kind kind;
+            if(primitive.isDecimal()) kind = elementClass == float.class ? Kind.FLOAT : Kind.DOUBLE;
+            else kind = Kind.integral(primitive.fixedBitSize());
+
+            return new StructureDefs.OffHeapArrayDef(primitive, kind, ann.value(), ann.bitCount(), ann.useUnsigned());
+        });
+
+        // ENUM SET
+
+        STRUCTURES.put(EnumSet.class, (rType, structureAnn, typeAnn, context) -> {
+            if(!(structureAnn instanceof EnumSet))
+                throw new IllegalStateException(structureAnn.getClass().getCanonicalName());
+            if(!(typeAnn instanceof Type.Enum enumAnn))
+                throw new SpecFormatException("An EnumSet requires a @Type.Enum annotation at " + context);
+            if(!Reflect.getClass(rType).isAssignableFrom(java.util.EnumSet.class))
+                throw new SpecFormatException("Expected SpecField setType to be EnumSet, but got: " + rType + " at " + context);
+
+            TypeDef type = Type.getTypeDef(enumAnn.value(), typeAnn, context);
+            return new StructureDefs.EnumSetDef<>(type, enumAnn.value());
+        });
+
         // MISC
 
         STRUCTURES.put(Optional.class, (rType, structureAnn, typeAnn, context) -> {
@@ -256,6 +336,77 @@ public class Structure {
 
     }
 
+    /**
+     * SpecFields annotated with this annotation are expected to be of type list of integers.
+     * The list is split into blocks, every block storing its minimum and the difference of every element to it
+     * using the least amount of bits possible (frame of reference). The length of the list is stored in front of it.
+     * An integer {@link Type}.* annotation must be present, its bit size is ignored.
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({ElementType.METHOD, ElementType.FIELD})
+    public @interface PackedList {
+
+        /**
+         * Smaller blocks adapt better to changing ranges, but store their minimum and width more often.
+         * Defaults to 128.
+         *
+         * @return The amount of elements sharing a minimum and bit width.
+         */
+        int blockSize() default 128;
+
+        /**
+         * Packs the differences between consecutive deltas instead of the elements.
+         * Shrinks sorted or evenly spaced lists, like timestamps or ids, to a few bits per element.
+         * Defaults to false.
+         *
+         * @return true if the deltas of the deltas should be packed.
+         */
+        boolean deltaOfDelta() default false;
+
+        /**
+         * @return The setType of list to instantiate.
+         */
+        ListType listType() default ListType.ARRAY;
+
+    }
+
+    /**
+     * SpecFields annotated with this annotation are expected to be of type {@code double[]}, {@code float[]} or a list of decimals.
+     * Every value is XORed with its predecessor and only the meaningful bits of the result are stored,
+     * which compresses slowly changing series like metrics well. The length is stored in front of the values.
+     * A {@link Type.Float} or {@link Type.Double} annotation must be present.
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({ElementType.METHOD, ElementType.FIELD})
+    public @interface XorCompressed {
+
+        /**
+         * Ignored for arrays.
+         *
+         * @return The setType of list to instantiate.
+         */
+        ListType listType() default ListType.ARRAY;
+
+    }
+
+    /**
+     * SpecFields annotated with this annotation are expected to be of type array or list.
+     * Consecutive equal elements are stored once, followed by the amount of repetitions (run length encoding),
+     * which shrinks sparse or repetitive data like grids or state vectors. The length is stored in front of the runs.
+     * A {@link Type}.* annotation must be present.
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({ElementType.METHOD, ElementType.FIELD})
+    public @interface RunLength {
+
+        /**
+         * Ignored for arrays.
+         *
+         * @return The setType of list to instantiate.
+         */
+        ListType listType() default ListType.ARRAY;
+
+    }
 
     /**
      * SpecFields annotated with this annotation are expected to be of setType list of fixed size.
@@ -320,6 +471,49 @@ public class Structure {
 
     }
 
+    /**
+     * SpecFields annotated with this annotation are expected to be of type {@link de.safti.specs.offheap.OffHeapArray}.
+     * The array is encoded like an {@link ArrayDynamic}, but decoded into off heap memory
+     * allocated in the arena bound by {@link de.safti.specs.offheap.OffHeapArray#decodeIn}.
+     * A numeric {@link Type}.* annotation must be present.
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({ElementType.METHOD, ElementType.FIELD})
+    public @interface OffHeapArray {
+
+        /**
+         * @return The field name of the length of the array, or {@code @auto} to auto generate one
+         */
+        String value();
+
+        /**
+         * Defaults to 32 bits, as off heap arrays are meant for large arrays.
+         *
+         * @return The bitcount to use when the {@link #value()} field is {@code @auto}.
+         */
+        int bitCount() default 32;
+
+        /**
+         * Only works if {@link #value()} is {@code @auto}
+         * Defaults to true
+         *
+         * @return true if the auto generated field should be unsigned
+         */
+        boolean useUnsigned() default true;
+
+    }
+
+    /**
+     * SpecFields annotated with this annotation are expected to be of setType {@link java.util.EnumSet}.
+     * The set is stored as bitmask, using one bit per enum constant.
+     * A {@link Type.Enum} annotation of the enum class must be present.
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({ElementType.METHOD, ElementType.FIELD})
+    public @interface EnumSet {
+
+    }
+
     /**
      * Marks a SpecField as optional. Optional SpecFields may have {@code null} supplied to them,
      * or be an {@link java.util.Optional}, {@link OptionalInt}, {@link OptionalDouble} or {@link OptionalLong}.
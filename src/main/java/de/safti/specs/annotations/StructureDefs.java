@@ -2,53 +2,158 @@ package de.safti.specs.annotations;
 
 import de.safti.specs.io.BinaryReader;
 import de.safti.specs.io.BinaryWriter;
+import de.safti.specs.io.CorruptDataException;
+import de.safti.specs.json.JsonReader;
+import de.safti.specs.json.JsonToken;
+import de.safti.specs.json.JsonWriter;
 import de.safti.specs.layout.SpecContext;
+import de.safti.specs.layout.common.PrimitiveDef;
 import de.safti.specs.layout.common.StructureDef;
 import de.safti.specs.layout.common.TypeDef;
+import de.safti.specs.offheap.OffHeapArray;
+import it.unimi.dsi.fastutil.bytes.ByteList;
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import it.unimi.dsi.fastutil.doubles.DoubleList;
+import it.unimi.dsi.fastutil.floats.FloatArrayList;
+import it.unimi.dsi.fastutil.floats.FloatList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.shorts.ShortList;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
 import java.lang.reflect.Array;
 import java.util.*;
 
 public interface StructureDefs {
 
-    record ArrayFixedDef(TypeDef inner, Class<?> componentClass, int[] dimensions) implements StructureDef {
+    final class ArrayFixedDef implements StructureDef {
+        private final TypeDef inner;
+        private final Class<?> componentClass;
+        private final int[] dimensions;
+
+        // the class of the (nested) arrays at every depth, followed by the component class,
+        // computed once so no array classes have to be looked up whilst reading
+        private final Class<?>[] arrayClasses;
+
+        public ArrayFixedDef(TypeDef inner, Class<?> componentClass, int[] dimensions) {
+            this.inner = inner;
+            this.componentClass = componentClass;
+            this.dimensions = dimensions.clone();
+            this.arrayClasses = arrayClasses(componentClass, dimensions.length);
+        }
+
+        public TypeDef inner() {
+            return inner;
+        }
+
+        public Class<?> componentClass() {
+            return componentClass;
+        }
+
+        public int[] dimensions() {
+            return dimensions.clone();
+        }
+
+        private static Class<?>[] arrayClasses(Class<?> componentClass, int depth) {
+            Class<?>[] classes = new Class<?>[depth + 1];
+            classes[depth] = componentClass;
+            for (int i = depth - 1; i >= 0; i--) {
+                classes[i] = classes[i + 1].arrayType();
+            }
+            return classes;
+        }
 
         @Override
         public Object read(BinaryReader reader, SpecContext context) {
             return readArray(reader, context, 0);
         }
 
-        private Object readArray(BinaryReader reader, SpecContext context, int depth) {
+        @Override
+        public Object readInto(BinaryReader reader, SpecContext context, @Nullable Object previous) {
+            if(previous == null || previous.getClass() != arrayClasses[0]) return read(reader, context);
+            return readArrayInto(reader, context, previous, 0);
+        }
+
+        private Object readArrayInto(BinaryReader reader, SpecContext context, Object array, int depth) {
             int length = dimensions[depth];
+            if(Array.getLength(array) != length) return readArray(reader, context, depth);
 
-            Class<?> elementType;
             if (depth == dimensions.length - 1) {
-                elementType = componentClass; // e.g. int.class or String.class
+                readRow(reader, context, array, true);
             } else {
-                // Build an array class of the base component with (remainingDepth) dims.
-                int remaining = dimensions.length - depth - 1;
-                elementType = Array.newInstance(componentClass, new int[remaining]).getClass();
+                // nested arrays are always Object[]
+                Object[] rows = (Object[]) array;
+                for (int i = 0; i < length; i++) {
+                    Object nested = rows[i];
+                    rows[i] = nested == null ? readArray(reader, context, depth + 1) : readArrayInto(reader, context, nested, depth + 1);
+                }
             }
 
-            Object array = Array.newInstance(elementType, length);
+            return array;
+        }
+
+        private Object readArray(BinaryReader reader, SpecContext context, int depth) {
+            int length = dimensions[depth];
+            Object array = Array.newInstance(arrayClasses[depth + 1], length);
 
             if (depth == dimensions.length - 1) {
-                for (int i = 0; i < length; i++) {
-                    Object value = inner.read(reader, context);
-                    Array.set(array, i, value);
-                }
+                readRow(reader, context, array, false);
             } else {
+                Object[] rows = (Object[]) array;
                 for (int i = 0; i < length; i++) {
-                    Object nested = readArray(reader, context, depth + 1);
-                    Array.set(array, i, nested);
+                    rows[i] = readArray(reader, context, depth + 1);
                 }
             }
 
             return array;
         }
 
+        /**
+         * Fills an innermost array. Primitive arrays are filled without boxing their elements.
+         */
+        private void readRow(BinaryReader reader, SpecContext context, Object row, boolean reuse) {
+            if(inner instanceof PrimitiveDef primitive && PrimitiveArrays.read(row, primitive, reader)) return;
+
+            if(row instanceof Object[] elements) {
+                for (int i = 0; i < elements.length; i++) {
+                    elements[i] = reuse ? inner.readInto(reader, context, elements[i]) : inner.read(reader, context);
+                }
+                return;
+            }
+
+            // primitive arrays not covered by PrimitiveArrays, e.g. boolean[]
+            int length = Array.getLength(row);
+            for (int i = 0; i < length; i++) {
+                Array.set(row, i, inner.read(reader, context));
+            }
+        }
+
+        @Override
+        public void skip(BinaryReader reader, SpecContext context) {
+            int count = 1;
+            for (int dimension : dimensions) {
+                count *= dimension;
+            }
+            skipElements(reader, context, inner, count);
+        }
+
+        @Override
+        public long fixedBitSize() {
+            long innerSize = inner.fixedBitSize();
+            if(innerSize < 0) return -1;
+
+            long size = innerSize;
+            for (int dimension : dimensions) {
+                size *= dimension;
+            }
+            return size;
+        }
+
         @Override
         public void write(BinaryWriter writer, Object o) {
             if (!o.getClass().isArray()) {
@@ -66,14 +171,16 @@ public interface StructureDefs {
 
             if (depth == dimensions.length - 1) {
                 // innermost array
+                if(inner instanceof PrimitiveDef primitive && PrimitiveArrays.write(array, primitive, writer)) return;
                 for (int i = 0; i < length; i++) {
                     Object element = Array.get(array, i);
                     inner.write(writer, element);
                 }
             } else {
                 // nested arrays
+                Object[] rows = (Object[]) array;
                 for (int i = 0; i < length; i++) {
-                    writeArray(writer, Array.get(array, i), depth + 1);
+                    writeArray(writer, rows[i], depth + 1);
                 }
             }
         }
@@ -82,6 +189,74 @@ public interface StructureDefs {
         public @NotNull Object createDefault() {
             return Array.newInstance(componentClass, dimensions);
         }
+
+        @Override
+        public void writeJson(JsonWriter writer, @Nullable Object o) {
+            writeJsonArray(writer, o, 0);
+        }
+
+        private void writeJsonArray(JsonWriter writer, Object array, int depth) {
+            if(depth == dimensions.length - 1) {
+                writeJsonElements(writer, array, inner);
+                return;
+            }
+
+            writer.beginArray();
+            for (Object nested : (Object[]) array) {
+                writeJsonArray(writer, nested, depth + 1);
+            }
+            writer.endArray();
+        }
+
+        @Override
+        public void transcodeJson(BinaryReader reader, SpecContext context, JsonWriter writer) {
+            transcodeJsonArray(reader, context, writer, 0);
+        }
+
+        private void transcodeJsonArray(BinaryReader reader, SpecContext context, JsonWriter writer, int depth) {
+            if(depth == dimensions.length - 1) {
+                transcodeJsonElements(reader, context, writer, inner, dimensions[depth]);
+                return;
+            }
+
+            writer.beginArray();
+            for (int i = 0; i < dimensions[depth]; i++) {
+                transcodeJsonArray(reader, context, writer, depth + 1);
+            }
+            writer.endArray();
+        }
+
+        @Override
+        public Object readJson(JsonReader reader, SpecContext context) {
+            return readJsonArray(reader, context, 0);
+        }
+
+        private Object readJsonArray(JsonReader reader, SpecContext context, int depth) {
+            int length = dimensions[depth];
+            Object array = Array.newInstance(arrayClasses[depth + 1], length);
+
+            reader.beginArray();
+            for (int i = 0; i < length; i++) {
+                if(!reader.hasNext()) throw new CorruptDataException("Expected " + length + " elements at depth " + depth + " but got " + i);
+                if(depth == dimensions.length - 1) readJsonElement(reader, context, array, i, inner);
+                else ((Object[]) array)[i] = readJsonArray(reader, context, depth + 1);
+            }
+            if(reader.hasNext()) throw new CorruptDataException("Expected " + length + " elements at depth " + depth + " but got more");
+            reader.endArray();
+
+            return array;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ArrayFixedDef other && inner.equals(other.inner)
+                    && componentClass == other.componentClass && Arrays.equals(dimensions, other.dimensions);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(inner, componentClass, Arrays.hashCode(dimensions));
+        }
     }
 
 
@@ -93,13 +268,39 @@ public interface StructureDefs {
         public Object read(BinaryReader reader, SpecContext context) {
             int length = readLength(reader, context);
             Object array = Array.newInstance(componentClass, length);
+            readElements(array, reader, context);
+            return array;
+        }
+
+        @Override
+        public Object readInto(BinaryReader reader, SpecContext context, @Nullable Object previous) {
+            int length = readLength(reader, context);
+
+            // arrays can only be reused if the length matches
+            Object array = previous != null && previous.getClass().getComponentType() == componentClass && Array.getLength(previous) == length
+                    ? previous
+                    : Array.newInstance(componentClass, length);
+            readElements(array, reader, context);
+            return array;
+        }
+
+        private void readElements(Object array, BinaryReader reader, SpecContext context) {
+            if(inner instanceof PrimitiveDef primitive && PrimitiveArrays.read(array, primitive, reader)) return;
 
-            // populate the array
+            int length = Array.getLength(array);
             for (int i = 0; i < length; i++) {
                 Array.set(array, i, inner.read(reader, context));
             }
+        }
 
-            return array;
+        @Override
+        public void skip(BinaryReader reader, SpecContext context) {
+            skipElements(reader, context, inner, readLength(reader, context));
+        }
+
+        @Override
+        public List<String> referencedFields() {
+            return withLengthField(lengthField, inner);
         }
 
         private int readLength(BinaryReader reader, SpecContext context) {
@@ -129,11 +330,43 @@ public interface StructureDefs {
             }
 
             // write elements
+            if(inner instanceof PrimitiveDef primitive && PrimitiveArrays.write(o, primitive, writer)) return;
             for (int i = 0; i < actualLength; i++) {
                 Object element = Array.get(o, i);
                 inner.write(writer, element);
             }
         }
+
+        @Override
+        public void writeJson(JsonWriter writer, @Nullable Object o) {
+            writeJsonElements(writer, o, inner);
+        }
+
+        @Override
+        public void transcodeJson(BinaryReader reader, SpecContext context, JsonWriter writer) {
+            transcodeJsonElements(reader, context, writer, inner, readLength(reader, context));
+        }
+
+        @Override
+        public Object readJson(JsonReader reader, SpecContext context) {
+            Object array = Array.newInstance(componentClass, 16);
+            int length = 0;
+
+            reader.beginArray();
+            while(reader.hasNext()) {
+                if(length == Array.getLength(array)) array = resize(array, length * 2);
+                readJsonElement(reader, context, array, length++, inner);
+            }
+            reader.endArray();
+
+            return length == Array.getLength(array) ? array : resize(array, length);
+        }
+
+        private Object resize(Object array, int length) {
+            Object resized = Array.newInstance(componentClass, length);
+            System.arraycopy(array, 0, resized, 0, Math.min(length, Array.getLength(array)));
+            return resized;
+        }
     }
 
     record ListFixedDef<T>(TypeDef inner, Class<T> componentClass, int length, ListType type) implements StructureDef {
@@ -142,23 +375,59 @@ public interface StructureDefs {
         public Object read(BinaryReader reader, SpecContext context) {
             List<T> result = type.create(length);
 
-            for (int i = 0; i < length; i++) {
-                result.add((T) inner.read(reader, context));
-            }
+            readElements(result, inner, reader, context, length);
+
+            return result;
+        }
+
+        @Override
+        public Object readInto(BinaryReader reader, SpecContext context, @Nullable Object previous) {
+            if(!isReusable(previous, type.getListClass(), type.isUnmodifiable())) return read(reader, context);
+
+            List<T> result = (List<T>) previous;
+            result.clear();
+            readElements(result, inner, reader, context, length);
 
             return result;
         }
 
+        @Override
+        public void skip(BinaryReader reader, SpecContext context) {
+            skipElements(reader, context, inner, length);
+        }
+
+        @Override
+        public long fixedBitSize() {
+            long innerSize = inner.fixedBitSize();
+            return innerSize < 0 ? -1 : innerSize * length;
+        }
+
         @Override
         public void write(BinaryWriter writer, Object o) {
             List<?> list = (List<?>) o;
             if(list == null) throw new IllegalArgumentException("List is null");
             if(list.size() != length) throw new IllegalArgumentException("Expected list size " + length + " but got " + list.size());
 
-            for (Object element : list) {
-                inner.write(writer, element);
-            }
+            writeElements(list, inner, writer);
+
+        }
+
+        @Override
+        public void writeJson(JsonWriter writer, @Nullable Object o) {
+            writeJsonElements(writer, (Collection<?>) o, inner);
+        }
 
+        @Override
+        public void transcodeJson(BinaryReader reader, SpecContext context, JsonWriter writer) {
+            transcodeJsonElements(reader, context, writer, inner, length);
+        }
+
+        @Override
+        public Object readJson(JsonReader reader, SpecContext context) {
+            // unmodifiable lists cannot be filled, so they are copied instead
+            List<T> result = type.isUnmodifiable() ? new ArrayList<>() : type.create();
+            readJsonElements(reader, context, result, inner);
+            return type.isUnmodifiable() ? type.copy(result) : result;
         }
     }
 
@@ -174,9 +443,19 @@ public interface StructureDefs {
             List<T> result = type.create(length);
 
             // read elements
-            for (int i = 0; i < length; i++) {
-                result.add((T) inner.read(reader, context));
-            }
+            readElements(result, inner, reader, context, length);
+
+            return result;
+        }
+
+        @Override
+        public Object readInto(BinaryReader reader, SpecContext context, @Nullable Object previous) {
+            if(!isReusable(previous, type.getListClass(), type.isUnmodifiable())) return read(reader, context);
+
+            int length = readLength(reader, context);
+            List<T> result = (List<T>) previous;
+            result.clear();
+            readElements(result, inner, reader, context, length);
 
             return result;
         }
@@ -191,9 +470,7 @@ public interface StructureDefs {
             }
 
             // write elements
-            for (Object element : list) {
-                inner.write(writer, element);
-            }
+            writeElements(list, inner, writer);
 
         }
 
@@ -204,6 +481,34 @@ public interface StructureDefs {
             return (int) o;
         }
 
+        @Override
+        public void skip(BinaryReader reader, SpecContext context) {
+            skipElements(reader, context, inner, readLength(reader, context));
+        }
+
+        @Override
+        public List<String> referencedFields() {
+            return withLengthField(lengthField, inner);
+        }
+
+
+        @Override
+        public void writeJson(JsonWriter writer, @Nullable Object o) {
+            writeJsonElements(writer, (Collection<?>) o, inner);
+        }
+
+        @Override
+        public void transcodeJson(BinaryReader reader, SpecContext context, JsonWriter writer) {
+            transcodeJsonElements(reader, context, writer, inner, readLength(reader, context));
+        }
+
+        @Override
+        public Object readJson(JsonReader reader, SpecContext context) {
+            // unmodifiable lists cannot be filled, so they are copied instead
+            List<T> result = type.isUnmodifiable() ? new ArrayList<>() : type.create();
+            readJsonElements(reader, context, result, inner);
+            return type.isUnmodifiable() ? type.copy(result) : result;
+        }
     }
 
     record SetFixedDef<T>(TypeDef inner, Class<T> componentClass,
@@ -213,22 +518,58 @@ public interface StructureDefs {
         @Override
         public Object read(BinaryReader reader, SpecContext context) {
             Set<T> set = setType.create(length);
-            for (int i = 0; i < length; i++) {
-                set.add((T) inner.read(reader, context));
-            }
+            readElements(set, inner, reader, context, length);
 
             return set;
         }
 
+        @Override
+        public Object readInto(BinaryReader reader, SpecContext context, @Nullable Object previous) {
+            if(!isReusable(previous, setType.getSetClass(), setType.isUnmodifiable())) return read(reader, context);
+
+            Set<T> set = (Set<T>) previous;
+            set.clear();
+            readElements(set, inner, reader, context, length);
+
+            return set;
+        }
+
+        @Override
+        public void skip(BinaryReader reader, SpecContext context) {
+            skipElements(reader, context, inner, length);
+        }
+
+        @Override
+        public long fixedBitSize() {
+            long innerSize = inner.fixedBitSize();
+            return innerSize < 0 ? -1 : innerSize * length;
+        }
+
         @Override
         public void write(BinaryWriter writer, Object o) {
             Set<T> set = (Set<T>) o;
             if(set == null) throw new IllegalArgumentException("Set is null");
             if(set.size() != length) throw new IllegalArgumentException("Expected set size " + length + " but got " + set.size() + "!");
 
-            for (T element : set) {
-                inner.write(writer, element);
-            }
+            writeElements(set, inner, writer);
+        }
+
+        @Override
+        public void writeJson(JsonWriter writer, @Nullable Object o) {
+            writeJsonElements(writer, (Collection<?>) o, inner);
+        }
+
+        @Override
+        public void transcodeJson(BinaryReader reader, SpecContext context, JsonWriter writer) {
+            transcodeJsonElements(reader, context, writer, inner, length);
+        }
+
+        @Override
+        public Object readJson(JsonReader reader, SpecContext context) {
+            // unmodifiable sets cannot be filled, so they are copied instead
+            Set<T> result = setType.isUnmodifiable() ? new HashSet<>() : setType.create();
+            readJsonElements(reader, context, result, inner);
+            return setType.isUnmodifiable() ? setType.copy(result) : result;
         }
     }
 
@@ -243,15 +584,25 @@ public interface StructureDefs {
             Set<T> result = type.isUnmodifiable() ? new HashSet<>(length) : type.create(length);
 
             // read elements
-            for (int i = 0; i < length; i++) {
-                result.add((T) inner.read(reader, context));
-            }
+            readElements(result, inner, reader, context, length);
 
 
             if(type.isUnmodifiable()) result = type.copy(result);
             return result;
         }
 
+        @Override
+        public Object readInto(BinaryReader reader, SpecContext context, @Nullable Object previous) {
+            if(!isReusable(previous, type.getSetClass(), type.isUnmodifiable())) return read(reader, context);
+
+            int length = readLength(reader, context);
+            Set<T> result = (Set<T>) previous;
+            result.clear();
+            readElements(result, inner, reader, context, length);
+
+            return result;
+        }
+
         @Override
         public void write(BinaryWriter writer, Object o) {
             Set<?> list = (Set<?>) o;
@@ -262,9 +613,7 @@ public interface StructureDefs {
             }
 
             // write elements
-            for (Object element : list) {
-                inner.write(writer, element);
-            }
+            writeElements(list, inner, writer);
 
         }
 
@@ -275,6 +624,34 @@ public interface StructureDefs {
             return (int) o;
         }
 
+        @Override
+        public void skip(BinaryReader reader, SpecContext context) {
+            skipElements(reader, context, inner, readLength(reader, context));
+        }
+
+        @Override
+        public List<String> referencedFields() {
+            return withLengthField(lengthField, inner);
+        }
+
+
+        @Override
+        public void writeJson(JsonWriter writer, @Nullable Object o) {
+            writeJsonElements(writer, (Collection<?>) o, inner);
+        }
+
+        @Override
+        public void transcodeJson(BinaryReader reader, SpecContext context, JsonWriter writer) {
+            transcodeJsonElements(reader, context, writer, inner, readLength(reader, context));
+        }
+
+        @Override
+        public Object readJson(JsonReader reader, SpecContext context) {
+            // unmodifiable sets cannot be filled, so they are copied instead
+            Set<T> result = type.isUnmodifiable() ? new HashSet<>() : type.create();
+            readJsonElements(reader, context, result, inner);
+            return type.isUnmodifiable() ? type.copy(result) : result;
+        }
     }
 
     record OptionalDef<T>(TypeDef inner, Class<T> rType) implements StructureDef {
@@ -296,6 +673,16 @@ public interface StructureDefs {
             return createDefault();
         }
 
+        @Override
+        public void skip(BinaryReader reader, SpecContext context) {
+            if(!reader.readBoolean()) return;
+
+            // mirrors the primitive specific reads
+            if(rType == OptionalInt.class) reader.skipBits(32);
+            else if(rType == OptionalLong.class || rType == OptionalDouble.class) reader.skipBits(64);
+            else inner.skip(reader, context);
+        }
+
         @Override
         public void write(BinaryWriter writer, Object o) {
             // not quite sure how to apply DRY here
@@ -333,6 +720,878 @@ public interface StructureDefs {
             if(rType == OptionalDouble.class) return OptionalDouble.empty();
             return inner.createDefault();
         }
+
+        @Override
+        public void writeJson(JsonWriter writer, @Nullable Object o) {
+            switch (o) {
+                case Optional<?> opt when opt.isEmpty() -> writer.nullValue();
+                case OptionalInt opt when opt.isEmpty() -> writer.nullValue();
+                case OptionalLong opt when opt.isEmpty() -> writer.nullValue();
+                case OptionalDouble opt when opt.isEmpty() -> writer.nullValue();
+                case Optional<?> opt -> inner.writeJson(writer, opt.get());
+                case OptionalInt opt -> writer.value(opt.getAsInt());
+                case OptionalLong opt -> writer.value(opt.getAsLong());
+                case OptionalDouble opt -> writer.value(opt.getAsDouble());
+                case null -> writer.nullValue();
+                default -> inner.writeJson(writer, o);
+            }
+        }
+
+        @Override
+        public void transcodeJson(BinaryReader reader, SpecContext context, JsonWriter writer) {
+            if(!reader.readBoolean()) {
+                writer.nullValue();
+                return;
+            }
+
+            // mirrors the primitive specific reads
+            if(rType == OptionalInt.class) writer.value(reader.readInt());
+            else if(rType == OptionalLong.class) writer.value(reader.readLong());
+            else if(rType == OptionalDouble.class) writer.value(reader.readDouble());
+            else inner.transcodeJson(reader, context, writer);
+        }
+
+        @Override
+        public Object readJson(JsonReader reader, SpecContext context) {
+            if(reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                return createDefault();
+            }
+
+            if(rType == OptionalInt.class) return OptionalInt.of(Math.toIntExact(reader.nextLong()));
+            if(rType == OptionalLong.class) return OptionalLong.of(reader.nextLong());
+            if(rType == OptionalDouble.class) return OptionalDouble.of(reader.nextDouble());
+
+            if(rType == Optional.class) return Optional.of(inner.readJson(reader, context));
+            return inner.readJson(reader, context);
+        }
+    }
+
+    /**
+     * Decodes a numeric array into an {@link OffHeapArray} instead of a heap array.
+     * The encoding is the same as the one of {@link ArrayDynamicDef}.
+     * If the elements are byte aligned and their bit size matches the element size, the array is decoded using a single bulk copy.
+     */
+    record OffHeapArrayDef(PrimitiveDef inner, OffHeapArray.Kind kind,
+                           String lengthField, int bits,
+                           boolean unsigned) implements StructureDef {
+
+        @Override
+        public Object read(BinaryReader reader, SpecContext context) {
+            int length = readLength(reader, context);
+            OffHeapArray array = OffHeapArray.allocate(OffHeapArray.currentArena(), kind, length);
+
+            long byteLength = (long) length * kind.bytes();
+            long position = reader.getBitPosition();
+            if(isBulk() && position % 8 == 0 && position + byteLength * 8 <= reader.getBitLength()) {
+                MemorySegment.copy(reader.getData().array(), Math.toIntExact(position / 8), array.segment(), ValueLayout.JAVA_BYTE, 0, Math.toIntExact(byteLength));
+                reader.skipBits(byteLength * 8);
+                return array;
+            }
+
+            for (int i = 0; i < length; i++) {
+                long value = inner.readLong(reader);
+                if(inner.isDecimal()) array.setDouble(i, inner.toDouble(value));
+                else array.setLong(i, value);
+            }
+            return array;
+        }
+
+        @Override
+        public void write(BinaryWriter writer, Object o) {
+            if(!(o instanceof OffHeapArray array)) throw new IllegalArgumentException("Expected OffHeapArray but got " + (o == null ? null : o.getClass()));
+            if(array.kind() != kind) throw new IllegalArgumentException("Expected OffHeapArray of kind " + kind + " but got " + array.kind());
+
+            int length = Math.toIntExact(array.length());
+            if(lengthField.equals("@auto")) {
+                if(unsigned) {
+                    writer.writeUInt(length, bits);
+                } else {
+                    writer.writeInt(length, bits);
+                }
+            }
+
+            if(isBulk()) {
+                writer.writeBytes(array.segment(), 0, Math.toIntExact(array.segment().byteSize()));
+                return;
+            }
+
+            for (int i = 0; i < length; i++) {
+                inner.writeLong(writer, inner.isDecimal() ? inner.fromDouble(array.getDouble(i)) : array.getLong(i));
+            }
+        }
+
+        @Override
+        public void skip(BinaryReader reader, SpecContext context) {
+            skipElements(reader, context, inner, readLength(reader, context));
+        }
+
+        @Override
+        public List<String> referencedFields() {
+            return withLengthField(lengthField, inner);
+        }
+
+        @Override
+        public @NotNull Object createDefault() {
+            return OffHeapArray.empty(kind);
+        }
+
+        /**
+         * @return true if the encoded elements have the same layout as the elements in memory.
+         */
+        private boolean isBulk() {
+            return inner.fixedBitSize() == kind.bytes() * 8L;
+        }
+
+        private int readLength(BinaryReader reader, SpecContext context) {
+            if(lengthField.equals("@auto")) return Math.toIntExact(unsigned ? reader.readUInt(bits) : reader.readInt(bits));
+
+            Object o = context.getFieldValue(lengthField);
+            if(o == null) throw new IllegalStateException("Length field " + lengthField + " not found or not yet initialized.");
+            return (int) o;
+        }
+
+        @Override
+        public void writeJson(JsonWriter writer, @Nullable Object o) {
+            OffHeapArray array = (OffHeapArray) o;
+            writer.beginArray();
+            for (long i = 0; i < array.length(); i++) {
+                if(kind.isDecimal()) writer.value(array.getDouble(i));
+                else writer.value(array.getLong(i));
+            }
+            writer.endArray();
+        }
+
+        @Override
+        public void transcodeJson(BinaryReader reader, SpecContext context, JsonWriter writer) {
+            transcodeJsonElements(reader, context, writer, inner, readLength(reader, context));
+        }
+
+        @Override
+        public Object readJson(JsonReader reader, SpecContext context) {
+            // the length is unknown upfront, so the elements are collected on the heap first
+            long[] values = new long[16];
+            int length = 0;
+
+            reader.beginArray();
+            while(reader.hasNext()) {
+                if(length == values.length) values = Arrays.copyOf(values, length * 2);
+                values[length++] = kind.isDecimal() ? Double.doubleToRawLongBits(reader.nextDouble()) : reader.nextLong();
+            }
+            reader.endArray();
+
+            OffHeapArray array = OffHeapArray.allocate(OffHeapArray.currentArena(), kind, length);
+            for (int i = 0; i < length; i++) {
+                if(kind.isDecimal()) array.setDouble(i, Double.longBitsToDouble(values[i]));
+                else array.setLong(i, values[i]);
+            }
+            return array;
+        }
+    }
+
+    /**
+     * Stores a list of integers using frame of reference encoding, see {@link PackedIntegers}.
+     * The bit size of the inner type is not used, the values are packed using as few bits as their range requires.
+     * Elements of FastUtil long and int lists are read and written without boxing them.
+     */
+    record PackedListDef<T>(PrimitiveDef inner, Class<T> componentClass,
+                            int blockSize, boolean deltaOfDelta, ListType type) implements StructureDef {
+
+        @Override
+        public Object read(BinaryReader reader, SpecContext context) {
+            long[] values = PackedIntegers.read(reader, blockSize, deltaOfDelta);
+
+            // unmodifiable lists cannot be filled, so they are copied instead
+            List<T> result = type.isUnmodifiable() ? new ArrayList<>(values.length) : type.create(values.length);
+            addElements(result, values);
+            return type.isUnmodifiable() ? type.copy(result) : result;
+        }
+
+        @Override
+        public Object readInto(BinaryReader reader, SpecContext context, @Nullable Object previous) {
+            if(!isReusable(previous, type.getListClass(), type.isUnmodifiable())) return read(reader, context);
+
+            List<T> result = (List<T>) previous;
+            result.clear();
+            addElements(result, PackedIntegers.read(reader, blockSize, deltaOfDelta));
+            return result;
+        }
+
+        @Override
+        public void skip(BinaryReader reader, SpecContext context) {
+            PackedIntegers.skip(reader, blockSize, deltaOfDelta);
+        }
+
+        @Override
+        public void write(BinaryWriter writer, Object o) {
+            List<?> list = o == null ? List.of() : (List<?>) o;
+            PackedIntegers.write(writer, toLongs(list), blockSize, deltaOfDelta);
+        }
+
+        private long[] toLongs(List<?> list) {
+            long[] values = new long[list.size()];
+            switch (list) {
+                case LongList longs -> longs.getElements(0, values, 0, values.length);
+                case IntList ints -> {
+                    for (int i = 0; i < values.length; i++) values[i] = ints.getInt(i);
+                }
+                default -> {
+                    int i = 0;
+                    for (Object element : list) values[i++] = inner.toLong(element);
+                }
+            }
+            return values;
+        }
+
+        private void addElements(List<T> list, long[] values) {
+            switch (list) {
+                case LongList longs -> longs.addElements(longs.size(), values);
+                case IntList ints -> {
+                    for (long value : values) ints.add(Math.toIntExact(value));
+                }
+                default -> {
+                    for (long value : values) list.add((T) inner.fromLong(value));
+                }
+            }
+        }
+
+        @Override
+        public void writeJson(JsonWriter writer, @Nullable Object o) {
+            writeJsonElements(writer, o == null ? List.of() : (Collection<?>) o, inner);
+        }
+
+        @Override
+        public void transcodeJson(BinaryReader reader, SpecContext context, JsonWriter writer) {
+            writer.beginArray();
+            for (long value : PackedIntegers.read(reader, blockSize, deltaOfDelta)) {
+                inner.writeJson(writer, inner.fromLong(value));
+            }
+            writer.endArray();
+        }
+
+        @Override
+        public Object readJson(JsonReader reader, SpecContext context) {
+            // unmodifiable lists cannot be filled, so they are copied instead
+            List<T> result = type.isUnmodifiable() ? new ArrayList<>() : type.create();
+            readJsonElements(reader, context, result, inner);
+            return type.isUnmodifiable() ? type.copy(result) : result;
+        }
+    }
+
+    /**
+     * Stores a series of floats or doubles using XOR compression, see {@link XorDecimals}.
+     * Supports {@code double[]}, {@code float[]} and lists. Elements of FastUtil double and float lists are not boxed.
+     *
+     * @param arrayClass The class of the array, or null if the values are stored in a list of the given type.
+     */
+    record XorCompressedDef(PrimitiveDef inner, @Nullable Class<?> arrayClass, ListType type) implements StructureDef {
+
+        @Override
+        public Object read(BinaryReader reader, SpecContext context) {
+            return fromBits(XorDecimals.read(reader, width()));
+        }
+
+        @Override
+        public Object readInto(BinaryReader reader, SpecContext context, @Nullable Object previous) {
+            if(arrayClass != null || !isReusable(previous, type.getListClass(), type.isUnmodifiable())) return read(reader, context);
+
+            List<Object> result = (List<Object>) previous;
+            result.clear();
+            addElements(result, XorDecimals.read(reader, width()));
+            return result;
+        }
+
+        @Override
+        public void skip(BinaryReader reader, SpecContext context) {
+            XorDecimals.skip(reader, width());
+        }
+
+        @Override
+        public void write(BinaryWriter writer, Object o) {
+            XorDecimals.write(writer, toBits(o), width());
+        }
+
+        @Override
+        public @NotNull Object createDefault() {
+            if(arrayClass != null) return Array.newInstance(arrayClass.getComponentType(), 0);
+            return type.create();
+        }
+
+        private int width() {
+            return (int) inner.fixedBitSize();
+        }
+
+        private long[] toBits(@Nullable Object o) {
+            switch (o) {
+                case null -> {
+                    return new long[0];
+                }
+                case double[] doubles -> {
+                    long[] bits = new long[doubles.length];
+                    for (int i = 0; i < bits.length; i++) bits[i] = inner.fromDouble(doubles[i]);
+                    return bits;
+                }
+                case float[] floats -> {
+                    long[] bits = new long[floats.length];
+                    for (int i = 0; i < bits.length; i++) bits[i] = inner.fromDouble(floats[i]);
+                    return bits;
+                }
+                case DoubleList doubles -> {
+                    long[] bits = new long[doubles.size()];
+                    for (int i = 0; i < bits.length; i++) bits[i] = inner.fromDouble(doubles.getDouble(i));
+                    return bits;
+                }
+                case FloatList floats -> {
+                    long[] bits = new long[floats.size()];
+                    for (int i = 0; i < bits.length; i++) bits[i] = inner.fromDouble(floats.getFloat(i));
+                    return bits;
+                }
+                case Collection<?> collection -> {
+                    long[] bits = new long[collection.size()];
+                    int i = 0;
+                    for (Object element : collection) bits[i++] = inner.fromDouble(((Number) element).doubleValue());
+                    return bits;
+                }
+                default -> throw new IllegalArgumentException("Expected a float or double array or list, but got " + o.getClass());
+            }
+        }
+
+        private Object fromBits(long[] bits) {
+            if(arrayClass == double[].class) {
+                double[] doubles = new double[bits.length];
+                for (int i = 0; i < bits.length; i++) doubles[i] = inner.toDouble(bits[i]);
+                return doubles;
+            }
+            if(arrayClass == float[].class) {
+                float[] floats = new float[bits.length];
+                for (int i = 0; i < bits.length; i++) floats[i] = (float) inner.toDouble(bits[i]);
+                return floats;
+            }
+
+            // unmodifiable lists cannot be filled, so they are copied instead
+            List<Object> result = type.isUnmodifiable() ? new ArrayList<>(bits.length) : type.create(bits.length);
+            addElements(result, bits);
+            return type.isUnmodifiable() ? type.copy(result) : result;
+        }
+
+        private void addElements(List<?> list, long[] bits) {
+            switch (list) {
+                case DoubleList doubles -> {
+                    for (long value : bits) doubles.add(inner.toDouble(value));
+                }
+                case FloatList floats -> {
+                    for (long value : bits) floats.add((float) inner.toDouble(value));
+                }
+                default -> {
+                    List<Object> objects = (List<Object>) list;
+                    for (long value : bits) objects.add(inner.fromLong(value));
+                }
+            }
+        }
+
+        @Override
+        public void writeJson(JsonWriter writer, @Nullable Object o) {
+            writer.beginArray();
+            for (long value : toBits(o)) {
+                inner.writeJson(writer, inner.fromLong(value));
+            }
+            writer.endArray();
+        }
+
+        @Override
+        public void transcodeJson(BinaryReader reader, SpecContext context, JsonWriter writer) {
+            writer.beginArray();
+            for (long value : XorDecimals.read(reader, width())) {
+                inner.writeJson(writer, inner.fromLong(value));
+            }
+            writer.endArray();
+        }
+
+        @Override
+        public Object readJson(JsonReader reader, SpecContext context) {
+            DoubleArrayList values = new DoubleArrayList();
+            reader.beginArray();
+            while(reader.hasNext()) {
+                values.add(reader.nextDouble());
+            }
+            reader.endArray();
+
+            long[] bits = new long[values.size()];
+            for (int i = 0; i < bits.length; i++) bits[i] = inner.fromDouble(values.getDouble(i));
+            return fromBits(bits);
+        }
+    }
+
+    /**
+     * Stores an array or list as runs of equal elements. Every run is stored as its element, followed by its length as UVarInt.
+     * The total amount of elements is stored in front of the runs as UVarInt.
+     * Runs are filled using {@link Arrays#fill} for arrays and FastUtil array lists, so long runs decode without per element work.
+     *
+     * @param componentClass The component class of the array, or null if the elements are stored in a list of the given type.
+     */
+    record RunLengthDef(TypeDef inner, @Nullable Class<?> componentClass, ListType type) implements StructureDef {
+
+        @Override
+        public Object read(BinaryReader reader, SpecContext context) {
+            int count = Math.toIntExact(reader.readUVarInt());
+            if(componentClass != null) {
+                Object array = Array.newInstance(componentClass, count);
+                for (int position = 0; position < count; ) {
+                    Object value = inner.read(reader, context);
+                    int length = readRunLength(reader, position, count);
+                    fill(array, position, position + length, value);
+                    position += length;
+                }
+                return array;
+            }
+
+            // unmodifiable lists cannot be filled, so they are copied instead
+            List<Object> result = type.isUnmodifiable() ? new ArrayList<>(count) : type.create(count);
+            readRuns(reader, context, result, count);
+            return type.isUnmodifiable() ? type.copy(result) : result;
+        }
+
+        @Override
+        public Object readInto(BinaryReader reader, SpecContext context, @Nullable Object previous) {
+            if(componentClass != null || !isReusable(previous, type.getListClass(), type.isUnmodifiable())) return read(reader, context);
+
+            List<Object> result = (List<Object>) previous;
+            result.clear();
+            readRuns(reader, context, result, Math.toIntExact(reader.readUVarInt()));
+            return result;
+        }
+
+        private void readRuns(BinaryReader reader, SpecContext context, List<Object> list, int count) {
+            for (int position = 0; position < count; ) {
+                Object value = inner.read(reader, context);
+                int length = readRunLength(reader, position, count);
+                addRun(list, value, length);
+                position += length;
+            }
+        }
+
+        private static int readRunLength(BinaryReader reader, int position, int count) {
+            long length = reader.readUVarInt();
+            if(length == 0 || length > count - position) throw new CorruptDataException("Invalid run length %d at element %d of %d".formatted(length, position, count));
+            return (int) length;
+        }
+
+        @Override
+        public void skip(BinaryReader reader, SpecContext context) {
+            int count = Math.toIntExact(reader.readUVarInt());
+            for (int position = 0; position < count; ) {
+                inner.skip(reader, context);
+                position += readRunLength(reader, position, count);
+            }
+        }
+
+        @Override
+        public void write(BinaryWriter writer, Object o) {
+            Object array = toArray(o);
+            int count = Array.getLength(array);
+            writer.writeUVarInt(count);
+
+            for (int start = 0; start < count; ) {
+                int end = runEnd(array, start, count);
+                inner.write(writer, Array.get(array, start));
+                writer.writeUVarInt(end - start);
+                start = end;
+            }
+        }
+
+        @Override
+        public @NotNull Object createDefault() {
+            if(componentClass != null) return Array.newInstance(componentClass, 0);
+            return type.create();
+        }
+
+        /**
+         * @return An array holding the elements, primitive lists being converted to primitive arrays.
+         */
+        private static Object toArray(@Nullable Object o) {
+            return switch (o) {
+                case null -> new Object[0];
+                case IntList ints -> ints.toIntArray();
+                case LongList longs -> longs.toLongArray();
+                case DoubleList doubles -> doubles.toDoubleArray();
+                case FloatList floats -> floats.toFloatArray();
+                case ShortList shorts -> shorts.toShortArray();
+                case ByteList bytes -> bytes.toByteArray();
+                case Collection<?> collection -> collection.toArray();
+                default -> o;
+            };
+        }
+
+        /**
+         * @return The index after the last element equal to the element at start.
+         */
+        private static int runEnd(Object array, int start, int count) {
+            int end = start + 1;
+            switch (array) {
+                case int[] ints -> {
+                    while(end < count && ints[end] == ints[start]) end++;
+                }
+                case long[] longs -> {
+                    while(end < count && longs[end] == longs[start]) end++;
+                }
+                case double[] doubles -> {
+                    // compares the bits, so NaN and signed zeros are kept
+                    while(end < count && Double.doubleToRawLongBits(doubles[end]) == Double.doubleToRawLongBits(doubles[start])) end++;
+                }
+                case float[] floats -> {
+                    while(end < count && Float.floatToRawIntBits(floats[end]) == Float.floatToRawIntBits(floats[start])) end++;
+                }
+                case short[] shorts -> {
+                    while(end < count && shorts[end] == shorts[start]) end++;
+                }
+                case byte[] bytes -> {
+                    while(end < count && bytes[end] == bytes[start]) end++;
+                }
+                case Object[] objects -> {
+                    while(end < count && Objects.equals(objects[end], objects[start])) end++;
+                }
+                default -> {
+                    Object value = Array.get(array, start);
+                    while(end < count && Objects.equals(Array.get(array, end), value)) end++;
+                }
+            }
+            return end;
+        }
+
+        private static void fill(Object array, int from, int to, Object value) {
+            switch (array) {
+                case int[] ints -> Arrays.fill(ints, from, to, ((Number) value).intValue());
+                case long[] longs -> Arrays.fill(longs, from, to, ((Number) value).longValue());
+                case double[] doubles -> Arrays.fill(doubles, from, to, ((Number) value).doubleValue());
+                case float[] floats -> Arrays.fill(floats, from, to, ((Number) value).floatValue());
+                case short[] shorts -> Arrays.fill(shorts, from, to, ((Number) value).shortValue());
+                case byte[] bytes -> Arrays.fill(bytes, from, to, ((Number) value).byteValue());
+                case Object[] objects -> Arrays.fill(objects, from, to, value);
+                default -> {
+                    for (int i = from; i < to; i++) Array.set(array, i, value);
+                }
+            }
+        }
+
+        private static void addRun(List<?> list, Object value, int length) {
+            switch (list) {
+                case IntArrayList ints -> {
+                    int from = ints.size();
+                    ints.size(from + length);
+                    Arrays.fill(ints.elements(), from, from + length, ((Number) value).intValue());
+                }
+                case LongArrayList longs -> {
+                    int from = longs.size();
+                    longs.size(from + length);
+                    Arrays.fill(longs.elements(), from, from + length, ((Number) value).longValue());
+                }
+                case DoubleArrayList doubles -> {
+                    int from = doubles.size();
+                    doubles.size(from + length);
+                    Arrays.fill(doubles.elements(), from, from + length, ((Number) value).doubleValue());
+                }
+                case FloatArrayList floats -> {
+                    int from = floats.size();
+                    floats.size(from + length);
+                    Arrays.fill(floats.elements(), from, from + length, ((Number) value).floatValue());
+                }
+                default -> ((List<Object>) list).addAll(Collections.nCopies(length, value));
+            }
+        }
+
+        @Override
+        public void writeJson(JsonWriter writer, @Nullable Object o) {
+            writeJsonElements(writer, toArray(o), inner);
+        }
+
+        @Override
+        public void transcodeJson(BinaryReader reader, SpecContext context, JsonWriter writer) {
+            int count = Math.toIntExact(reader.readUVarInt());
+            writer.beginArray();
+            for (int position = 0; position < count; ) {
+                Object value = inner.read(reader, context);
+                int length = readRunLength(reader, position, count);
+                for (int i = 0; i < length; i++) {
+                    inner.writeJson(writer, value);
+                }
+                position += length;
+            }
+            writer.endArray();
+        }
+
+        @Override
+        public Object readJson(JsonReader reader, SpecContext context) {
+            List<Object> values = new ArrayList<>();
+            readJsonElements(reader, context, values, inner);
+            if(componentClass == null) {
+                if(type.isUnmodifiable()) return type.copy(values);
+
+                List<Object> result = type.create(values.size());
+                result.addAll(values);
+                return result;
+            }
+
+            Object array = Array.newInstance(componentClass, values.size());
+            for (int i = 0; i < values.size(); i++) {
+                fill(array, i, i + 1, values.get(i));
+            }
+            return array;
+        }
+    }
+
+    /**
+     * Stores a set of enum constants as bitmask, one bit per constant.
+     * The bit of a constant is determined by its ordinal.
+     */
+    final class EnumSetDef<E extends Enum<E>> implements StructureDef {
+        private final TypeDef inner;
+        private final Class<E> enumClass;
+
+        // cached, as Class#getEnumConstants copies the constants on every call
+        private final E[] constants;
+
+        @SuppressWarnings("unchecked")
+        public EnumSetDef(TypeDef inner, Class<? extends Enum<?>> enumClass) {
+            this.inner = inner;
+            // the class of an enum is always a Class<E extends Enum<E>>
+            this.enumClass = (Class<E>) enumClass;
+            this.constants = this.enumClass.getEnumConstants();
+        }
+
+        public TypeDef inner() {
+            return inner;
+        }
+
+        public Class<E> enumClass() {
+            return enumClass;
+        }
+
+        @Override
+        public Object read(BinaryReader reader, SpecContext context) {
+            return readInto(reader, context, null);
+        }
+
+        @Override
+        public Object readInto(BinaryReader reader, SpecContext context, @Nullable Object previous) {
+            EnumSet<E> set;
+            if(previous instanceof EnumSet<?> previousSet) {
+                set = (EnumSet<E>) previousSet;
+                set.clear();
+            } else {
+                set = EnumSet.noneOf(enumClass);
+            }
+
+            // 64 constants per chunk
+            for (int base = 0; base < constants.length; base += 64) {
+                long mask = reader.readBits(Math.min(64, constants.length - base));
+                while(mask != 0) {
+                    set.add(constants[base + Long.numberOfTrailingZeros(mask)]);
+                    mask &= mask - 1;
+                }
+            }
+
+            return set;
+        }
+
+        @Override
+        public void write(BinaryWriter writer, Object o) {
+            Set<?> set = o == null ? Set.of() : (Set<?>) o;
+
+            for (int base = 0; base < constants.length; base += 64) {
+                long mask = 0;
+                for (Object element : set) {
+                    int ordinal = ((Enum<?>) element).ordinal();
+                    if(ordinal >= base && ordinal < base + 64) mask |= 1L << (ordinal - base);
+                }
+                writer.writeBits(mask, Math.min(64, constants.length - base));
+            }
+        }
+
+        @Override
+        public void skip(BinaryReader reader, SpecContext context) {
+            reader.skipBits(constants.length);
+        }
+
+        @Override
+        public long fixedBitSize() {
+            return constants.length;
+        }
+
+        @Override
+        public @NotNull Object createDefault() {
+            return EnumSet.noneOf(enumClass);
+        }
+
+        @Override
+        public void writeJson(JsonWriter writer, @Nullable Object o) {
+            writeJsonElements(writer, o == null ? Set.of() : (Collection<?>) o, inner);
+        }
+
+        @Override
+        public void transcodeJson(BinaryReader reader, SpecContext context, JsonWriter writer) {
+            writer.beginArray();
+            for (int base = 0; base < constants.length; base += 64) {
+                long mask = reader.readBits(Math.min(64, constants.length - base));
+                while(mask != 0) {
+                    inner.writeJson(writer, constants[base + Long.numberOfTrailingZeros(mask)]);
+                    mask &= mask - 1;
+                }
+            }
+            writer.endArray();
+        }
+
+        @Override
+        public Object readJson(JsonReader reader, SpecContext context) {
+            EnumSet<E> set = EnumSet.noneOf(enumClass);
+            readJsonElements(reader, context, set, inner);
+            return set;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof EnumSetDef<?> other && inner.equals(other.inner) && enumClass == other.enumClass;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(inner, enumClass);
+        }
+    }
+
+    /**
+     * Reads the given amount of elements into the collection.
+     * Primitive elements are added to FastUtil primitive collections without boxing them.
+     */
+    private static <T> void readElements(Collection<T> collection, TypeDef inner, BinaryReader reader, SpecContext context, int count) {
+        if(inner instanceof PrimitiveDef primitive && PrimitiveCollections.read(collection, primitive, reader, count)) return;
+
+        for (int i = 0; i < count; i++) {
+            collection.add((T) inner.read(reader, context));
+        }
+    }
+
+    private static void writeElements(Collection<?> collection, TypeDef inner, BinaryWriter writer) {
+        if(inner instanceof PrimitiveDef primitive && PrimitiveCollections.write(collection, primitive, writer)) return;
+
+        for (Object element : collection) {
+            inner.write(writer, element);
+        }
+    }
+
+    /**
+     * @return true if the previous value is a modifiable container of the expected class.
+     */
+    private static boolean isReusable(@Nullable Object previous, Class<?> containerClass, boolean unmodifiable) {
+        return previous != null && !unmodifiable && previous.getClass() == containerClass;
+    }
+
+    /**
+     * Skips the given amount of elements. Elements of a fixed size are skipped all at once.
+     */
+    private static void skipElements(BinaryReader reader, SpecContext context, TypeDef inner, int count) {
+        long size = inner.fixedBitSize();
+        if(size >= 0) {
+            reader.skipBits(size * count);
+            return;
+        }
+
+        for (int i = 0; i < count; i++) {
+            inner.skip(reader, context);
+        }
+    }
+
+    private static List<String> withLengthField(String lengthField, TypeDef inner) {
+        if(lengthField.equals("@auto")) return inner.referencedFields();
+
+        List<String> fields = new ArrayList<>(inner.referencedFields());
+        fields.add(lengthField);
+        return fields;
+    }
+
+
+    // --- JSON ---
+
+    private static void writeJsonElements(JsonWriter writer, Collection<?> collection, TypeDef inner) {
+        writer.beginArray();
+        for (Object element : collection) {
+            inner.writeJson(writer, element);
+        }
+        writer.endArray();
+    }
+
+    /**
+     * Writes an array. Primitive arrays are written without boxing their elements.
+     */
+    private static void writeJsonElements(JsonWriter writer, Object array, TypeDef inner) {
+        writer.beginArray();
+        switch (array) {
+            case Object[] objects -> {
+                for (Object element : objects) inner.writeJson(writer, element);
+            }
+            case double[] doubles -> {
+                for (double value : doubles) writer.value(value);
+            }
+            case float[] floats -> {
+                for (float value : floats) writer.value(value);
+            }
+            case long[] longs -> {
+                for (long value : longs) writer.value(value);
+            }
+            case int[] ints -> {
+                for (int value : ints) writer.value(value);
+            }
+            case short[] shorts -> {
+                for (short value : shorts) writer.value(value);
+            }
+            case byte[] bytes -> {
+                for (byte value : bytes) writer.value(value);
+            }
+            default -> {
+                int length = Array.getLength(array);
+                for (int i = 0; i < length; i++) inner.writeJson(writer, Array.get(array, i));
+            }
+        }
+        writer.endArray();
+    }
+
+    private static void transcodeJsonElements(BinaryReader reader, SpecContext context, JsonWriter writer, TypeDef inner, int count) {
+        writer.beginArray();
+        for (int i = 0; i < count; i++) {
+            inner.transcodeJson(reader, context, writer);
+        }
+        writer.endArray();
+    }
+
+    private static <T> void readJsonElements(JsonReader reader, SpecContext context, Collection<T> collection, TypeDef inner) {
+        reader.beginArray();
+        while(reader.hasNext()) {
+            collection.add((T) readJsonValue(reader, context, inner));
+        }
+        reader.endArray();
+    }
+
+    /**
+     * Reads a single element into the given array. Elements of primitive arrays are read without boxing them.
+     */
+    private static void readJsonElement(JsonReader reader, SpecContext context, Object array, int index, TypeDef inner) {
+        switch (array) {
+            case Object[] objects -> objects[index] = readJsonValue(reader, context, inner);
+            case double[] doubles -> doubles[index] = reader.nextDouble();
+            case float[] floats -> floats[index] = (float) reader.nextDouble();
+            case long[] longs -> longs[index] = reader.nextLong();
+            case int[] ints -> ints[index] = Math.toIntExact(reader.nextLong());
+            case short[] shorts -> shorts[index] = PrimitiveCollections.narrow(reader.nextLong(), Short.MIN_VALUE, Short.MAX_VALUE, "short");
+            case byte[] bytes -> bytes[index] = (byte) PrimitiveCollections.narrow(reader.nextLong(), Byte.MIN_VALUE, Byte.MAX_VALUE, "byte");
+            default -> Array.set(array, index, readJsonValue(reader, context, inner));
+        }
+    }
+
+    private static @Nullable Object readJsonValue(JsonReader reader, SpecContext context, TypeDef inner) {
+        if(reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return inner.createDefault();
+        }
+        return inner.readJson(reader, context);
     }
 
 }
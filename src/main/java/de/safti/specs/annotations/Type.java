@@ -3,6 +3,8 @@ package de.safti.specs.annotations;
 import de.safti.specs.SpecFormatException;
 import de.safti.specs.layout.common.TypeDef;
 import de.safti.specs.io.BinaryReader;
+import de.safti.specs.io.HuffmanCode;
+import de.safti.specs.utils.StringCache;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -10,6 +12,7 @@ import javax.swing.text.AbstractDocument;
 import java.lang.annotation.*;
 import java.lang.classfile.attribute.StackMapFrameInfo;
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.BiFunction;
@@ -28,7 +31,17 @@ public final class Type {
             if(!(annotation instanceof Int ann)) throw new IllegalArgumentException(annotation.getClass().getCanonicalName());
             if(!Number.class.isAssignableFrom(rType) && rType != int.class && rType != byte.class && rType != short.class && rType != long.class) throw new SpecFormatException("Expected return setType to extend Number, but got: " + rType.getCanonicalName());
 
-            return new TypeDefs.IntDef(ann.value(), rType);
+            if(ann.value() > 63) {
+                if(ann.frequencies().length > 0) throw new SpecFormatException("Frequencies are only supported for integers of up to 63 bits.");
+                return new TypeDefs.BigIntDef(ann.value(), rType);
+            }
+            if(ann.frequencies().length == 0) return new TypeDefs.IntDef(ann.value(), rType);
+
+            // the last symbol escapes values outside of the given frequencies
+            if(ann.frequencies().length > 1 << Math.min(ann.value() - 1, 12)) throw new SpecFormatException("Too many frequencies for an integer of " + ann.value() + " bits.");
+            long[] frequencies = Arrays.copyOf(weights(ann.frequencies()), ann.frequencies().length + 1);
+            frequencies[frequencies.length - 1] = 1;
+            return new TypeDefs.IntDef(ann.value(), rType, HuffmanCode.fromFrequencies(frequencies));
         });
         TYPES.put(VarInt.class, (rType, annotation) -> {
             if(!(annotation instanceof VarInt)) throw new IllegalArgumentException(annotation.getClass().getCanonicalName());
@@ -42,6 +55,12 @@ public final class Type {
 
             return new TypeDefs.UVarIntDef(rType);
         });
+        TYPES.put(ZigZagVarInt.class, (rType, annotation) -> {
+            if(!(annotation instanceof ZigZagVarInt)) throw new IllegalArgumentException(annotation.getClass().getCanonicalName());
+            if(!Number.class.isAssignableFrom(rType) && rType != int.class && rType != byte.class && rType != short.class && rType != long.class) throw new SpecFormatException("Expected return setType to extend Number, but got: " + rType.getCanonicalName());
+
+            return new TypeDefs.ZigZagVarIntDef(rType);
+        });
 
 
         // --- Decimals ---
@@ -62,23 +81,27 @@ public final class Type {
         TYPES.put(StringTerminated.class, (rType, annotation) -> {
             if(!(annotation instanceof StringTerminated ann)) throw new IllegalArgumentException(annotation.getClass().getCanonicalName());
             if(rType != String.class) throw new SpecFormatException("Return setType is not a String!");
-            return new TypeDefs.StringTerminatedDef(ann.terminator());
+            return new TypeDefs.StringTerminatedDef(ann.terminator(), stringCache(ann.cacheSize()));
         });
         TYPES.put(StringDynamic.class, (rType, annotation) -> {
             if(!(annotation instanceof StringDynamic ann)) throw new IllegalArgumentException(annotation.getClass().getCanonicalName());
-            return new TypeDefs.StringDynamicDef(ann.value(), ann.autoFieldBitSize(), ann.useUnsigned());
+            return new TypeDefs.StringDynamicDef(ann.value(), ann.autoFieldBitSize(), ann.useUnsigned(), stringCache(ann.cacheSize()));
         });
         TYPES.put(StringFixed.class, (rType, annotation) -> {
             if(!(annotation instanceof StringFixed ann)) throw new IllegalArgumentException(annotation.getClass().getCanonicalName());
             final int length = ann.value();
-            return new TypeDefs.StringFixedDef(length, ann.slicing(), ann.autoResize(), ann.cutPadding());
+            return new TypeDefs.StringFixedDef(length, ann.slicing(), ann.autoResize(), ann.cutPadding(), stringCache(ann.cacheSize()));
         });
 
 
         // Enums
         TYPES.put(Enum.class, (rType, annotation) -> {
             if(!(annotation instanceof Enum ann)) throw new IllegalArgumentException(annotation.getClass().getCanonicalName());
-            return new TypeDefs.EnumTypeDef<>(ann.value(), ann.bits());
+            if(ann.frequencies().length == 0) return new TypeDefs.EnumTypeDef<>(ann.value(), ann.bits());
+
+            int constants = ann.value().getEnumConstants().length;
+            if(ann.frequencies().length != constants) throw new SpecFormatException("Expected %d frequencies for enum %s, but got %d".formatted(constants, ann.value().getSimpleName(), ann.frequencies().length));
+            return new TypeDefs.EnumTypeDef<>(ann.value(), ann.bits(), HuffmanCode.fromFrequencies(weights(ann.frequencies())));
         });
 
     }
@@ -100,6 +123,24 @@ public final class Type {
         }
     }
 
+    /**
+     * Converts annotated frequencies to weights of a Huffman code.
+     * Values with a frequency of 0 still get a (long) code, so they remain writable.
+     */
+    private static long[] weights(int[] frequencies) {
+        long[] weights = new long[frequencies.length];
+        for (int i = 0; i < frequencies.length; i++) {
+            if(frequencies[i] < 0) throw new SpecFormatException("Frequencies cannot be negative!");
+            weights[i] = Math.max(1, frequencies[i]);
+        }
+        return weights;
+    }
+
+    private static @Nullable StringCache stringCache(int size) {
+        if(size < 0) throw new SpecFormatException("Cache size cannot be negative!");
+        return size == 0 ? null : new StringCache(size);
+    }
+
     public static boolean isType(Annotation annotation) {
         return TYPES.containsKey(annotation.annotationType());
     }
@@ -120,6 +161,15 @@ public final class Type {
          * @return The bit size (1-32) of the signed integer.
          */
         int value();
+
+        /**
+         * Enables Huffman coding of the values {@code 0} to {@code frequencies().length - 1},
+         * frequent values being stored using fewer bits. Other values are escaped and stored using {@link #value()} bits.
+         * The frequencies may be relative and are usually obtained by counting the values of a sample.
+         *
+         * @return The expected frequency of every small value, or an empty array to store every value using {@link #value()} bits.
+         */
+        int[] frequencies() default {};
     }
 
     /**
@@ -143,6 +193,17 @@ public final class Type {
 
     }
 
+    /**
+     * ZigZag encoded VarInts, as used by protobuf for sint32 and sint64.
+     * The sign is stored in the least significant bit, followed by the absolute value ({@code 0, -1, 1, -2, 2, ...}),
+     * which is then written as unsigned LEB128 VarInt.
+     *
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface ZigZagVarInt {
+
+    }
+
     /**
      * Marks a field as a 32-bit single-precision floating-point number (float).
      * Corresponds to {@link BinaryReader#readFloat()}.
@@ -172,6 +233,12 @@ public final class Type {
          * @return The single-byte terminator character to stop reading at.
          */
         char terminator() default '\0';
+
+        /**
+         * @return The size of the cache deduplicating read strings. 0 disables caching.
+         * @see StringCache
+         */
+        int cacheSize() default 0;
     }
 
     @Retention(RetentionPolicy.RUNTIME)
@@ -211,6 +278,12 @@ public final class Type {
          */
         boolean useUnsigned() default true;
 
+        /**
+         * @return The size of the cache deduplicating read strings. 0 disables caching.
+         * @see StringCache
+         */
+        int cacheSize() default 0;
+
     }
 
     /**
@@ -251,6 +324,12 @@ public final class Type {
          * @see #autoResize() allowing shorter strings
          */
         boolean slicing() default false;
+
+        /**
+         * @return The size of the cache deduplicating read strings. 0 disables caching.
+         * @see StringCache
+         */
+        int cacheSize() default 0;
     }
 
 
@@ -272,6 +351,14 @@ public final class Type {
          * @return The bit size of the enum. If {@link #ENUM_BITS_AUTO} is used, the smallest possible bit size will be used.
          */
         int bits() default ENUM_BITS_AUTO;
+
+        /**
+         * Enables Huffman coding of the ordinals, frequent constants being stored using fewer bits.
+         * The frequencies may be relative and are usually obtained by counting the constants of a sample.
+         *
+         * @return The expected frequency of every constant in ordinal order, or an empty array to store every ordinal using {@link #bits()} bits.
+         */
+        int[] frequencies() default {};
     }
 
 
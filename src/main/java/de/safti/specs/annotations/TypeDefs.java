@@ -3,60 +3,171 @@ package de.safti.specs.annotations;
 import de.safti.specs.SpecFormatException;
 import de.safti.specs.io.BinaryReader;
 import de.safti.specs.io.BinaryWriter;
+import de.safti.specs.io.CorruptDataException;
+import de.safti.specs.io.HuffmanCode;
+import de.safti.specs.json.JsonReader;
+import de.safti.specs.json.JsonWriter;
 import de.safti.specs.layout.SpecContext;
+import de.safti.specs.layout.common.PrimitiveDef;
 import de.safti.specs.layout.common.TypeDef;
-import org.jetbrains.annotations.NotNull;
+import de.safti.specs.utils.StringCache;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.ByteArrayOutputStream;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
 
 interface TypeDefs {
 
     /**
-     * Handles signed integers of a specific bit width
+     * Handles signed integers of a specific bit width (up to 63 bits)
      * read object is a {@link Number}.
+     * <p>
+     * If a Huffman code is given, the values {@code 0} to {@code n - 1} are stored using their code,
+     * every other value is stored as the escape symbol {@code n} followed by the value using {@code bits} bits.
      */
-    class IntDef implements TypeDef {
+    class IntDef implements PrimitiveDef {
         private final int bits;
         private final Class<?> numberClass;
+        private final @Nullable HuffmanCode code;
 
         IntDef(int bits, Class<?> numberClass) {
+            this(bits, numberClass, null);
+        }
+
+        IntDef(int bits, Class<?> numberClass, @Nullable HuffmanCode code) {
             this.bits = bits;
             this.numberClass = numberClass;
+            this.code = code;
         }
 
         @Override
         public Object read(BinaryReader reader, SpecContext context) {
-            if(bits > 63) {
-                if(numberClass != BigInteger.class) throw new ArithmeticException(numberClass.getCanonicalName() + " too small to number!");
-                return reader.readBigInteger(bits);
-            }
+            return intAsType(numberClass, readLong(reader));
+        }
+
+        @Override
+        public void skip(BinaryReader reader, SpecContext context) {
+            if(code == null) reader.skipBits(bits);
+            else readLong(reader);
+        }
 
-            return intAsType(numberClass, reader.readSignedBits(bits));
+        @Override
+        public long fixedBitSize() {
+            return code == null ? bits : -1;
         }
 
         @Override
         public void write(BinaryWriter writer, Object o) {
-            if(o == null) o = 0;
-
-            switch (numberClass.getName()) {
-                case "byte", "java.lang.Byte" -> writer.writeByte((byte) o, bits);
-                case "short", "java.lang.Short" -> writer.writeShort((short) o, bits);
-                case "int", "java.lang.Integer" -> writer.writeInt((int) o, bits);
-                case "long", "java.lang.Long" -> writer.writeLong((long) o, bits);
-                case "java.math.BigInteger" -> writer.writeBigInteger((BigInteger) o, bits);
-                default -> throw new SpecFormatException(
-                        "Unknown integer class: " + numberClass + ". Supported types: byte, short, int, long, BigInteger."
-                );
+            if(code == null) writeNumber(writer, numberClass, o, bits);
+            else writeLong(writer, toLong(o));
+        }
+
+        @Override
+        public long readLong(BinaryReader reader) {
+            if(code == null) return reader.readSignedBits(bits);
+
+            int symbol = code.read(reader);
+            return symbol == escape() ? reader.readSignedBits(bits) : symbol;
+        }
+
+        @Override
+        public void writeLong(BinaryWriter writer, long value) {
+            if(code == null) {
+                writer.writeLong(value, bits);
+                return;
             }
+
+            if(value >= 0 && value < escape()) {
+                code.write(writer, (int) value);
+                return;
+            }
+            code.write(writer, escape());
+            writer.writeLong(value, bits);
+        }
+
+        private int escape() {
+            return code.symbolCount() - 1;
+        }
+
+        @Override
+        public long toLong(Object o) {
+            return o == null ? 0 : ((Number) o).longValue();
+        }
+
+        @Override
+        public Object fromLong(long value) {
+            return intAsType(numberClass, value);
+        }
+    }
+
+    /**
+     * Handles signed integers wider than 63 bits.
+     * read object is a {@link BigInteger}.
+     */
+    class BigIntDef implements TypeDef {
+        private final int bits;
+        private final Class<?> numberClass;
+
+        BigIntDef(int bits, Class<?> numberClass) {
+            this.bits = bits;
+            this.numberClass = numberClass;
+        }
+
+        @Override
+        public Object read(BinaryReader reader, SpecContext context) {
+            if(numberClass != BigInteger.class) throw new ArithmeticException(numberClass.getCanonicalName() + " too small to number!");
+            return reader.readBigInteger(bits);
+        }
+
+        @Override
+        public void skip(BinaryReader reader, SpecContext context) {
+            reader.skipBits(bits);
+        }
+
+        @Override
+        public long fixedBitSize() {
+            return bits;
+        }
+
+        @Override
+        public void write(BinaryWriter writer, Object o) {
+            writeNumber(writer, numberClass, o, bits);
+        }
+
+        @Override
+        public void writeJson(JsonWriter writer, @Nullable Object o) {
+            writer.value(o == null ? BigInteger.ZERO : (BigInteger) o);
+        }
+
+        @Override
+        public Object readJson(JsonReader reader, SpecContext context) {
+            if(numberClass != BigInteger.class) throw new ArithmeticException(numberClass.getCanonicalName() + " too small to number!");
+            return reader.nextBigInteger();
+        }
+    }
+
+    private static void writeNumber(BinaryWriter writer, Class<?> numberClass, Object o, int bits) {
+        if(o == null) o = 0;
+
+        switch (numberClass.getName()) {
+            case "byte", "java.lang.Byte" -> writer.writeByte((byte) o, bits);
+            case "short", "java.lang.Short" -> writer.writeShort((short) o, bits);
+            case "int", "java.lang.Integer" -> writer.writeInt((int) o, bits);
+            case "long", "java.lang.Long" -> writer.writeLong((long) o, bits);
+            case "java.math.BigInteger" -> writer.writeBigInteger((BigInteger) o, bits);
+            default -> throw new SpecFormatException(
+                    "Unknown integer class: " + numberClass + ". Supported types: byte, short, int, long, BigInteger."
+            );
         }
     }
 
     /**
      * Handles signed VarInts of LEB128 standard
      */
-    class VarIntDef implements TypeDef {
+    class VarIntDef implements PrimitiveDef {
         private final Class<?> rType;
 
         public VarIntDef(Class<?> rType) {
@@ -70,22 +181,93 @@ interface TypeDefs {
             return intAsType(rType, value);
         }
 
+        @Override
+        public void skip(BinaryReader reader, SpecContext context) {
+            reader.readVarInt();
+        }
+
         @Override
         public void write(BinaryWriter writer, Object o) {
-            long value = (long) o;
+            long value = toLong(o);
+            writer.writeVarInt(value);
+        }
+
+        @Override
+        public long readLong(BinaryReader reader) {
+            return reader.readVarInt();
+        }
+
+        @Override
+        public void writeLong(BinaryWriter writer, long value) {
             writer.writeVarInt(value);
         }
 
+        @Override
+        public long toLong(Object o) {
+            return o == null ? 0 : ((Number) o).longValue();
+        }
+
+        @Override
+        public Object fromLong(long value) {
+            return intAsType(rType, value);
+        }
+
         private Object throwTypeTooSmall(long value) {
             throw new ArithmeticException(rType.getCanonicalName() + " is too small to store varint (" + value + ")");
         }
 
     }
 
+    /**
+     * Handles ZigZag encoded VarInts, as used by protobuf for sint32 and sint64.
+     */
+    class ZigZagVarIntDef implements PrimitiveDef {
+        private final Class<?> rType;
+
+        public ZigZagVarIntDef(Class<?> rType) {
+            this.rType = rType;
+        }
+
+        @Override
+        public Object read(BinaryReader reader, SpecContext context) {
+            return intAsType(rType, reader.readZigZagVarInt());
+        }
+
+        @Override
+        public void skip(BinaryReader reader, SpecContext context) {
+            reader.readUVarInt();
+        }
+
+        @Override
+        public void write(BinaryWriter writer, Object o) {
+            writer.writeZigZagVarInt(toLong(o));
+        }
+
+        @Override
+        public long readLong(BinaryReader reader) {
+            return reader.readZigZagVarInt();
+        }
+
+        @Override
+        public void writeLong(BinaryWriter writer, long value) {
+            writer.writeZigZagVarInt(value);
+        }
+
+        @Override
+        public long toLong(Object o) {
+            return o == null ? 0 : ((Number) o).longValue();
+        }
+
+        @Override
+        public Object fromLong(long value) {
+            return intAsType(rType, value);
+        }
+    }
+
     /**
      * Handles unsigned VarInts of LEB128 standard
      */
-    class UVarIntDef implements TypeDef {
+    class UVarIntDef implements PrimitiveDef {
         private final Class<?> rType;
 
         public UVarIntDef(Class<?> rType) {
@@ -99,13 +281,52 @@ interface TypeDefs {
             return intAsType(rType, value);
         }
 
+        @Override
+        public void skip(BinaryReader reader, SpecContext context) {
+            reader.readUVarInt();
+        }
+
         @Override
         public void write(BinaryWriter writer, Object o) {
-            writer.writeUVarInt((long) o);
+            writer.writeUVarInt(toLong(o));
+        }
+
+        @Override
+        public long readLong(BinaryReader reader) {
+            return reader.readUVarInt();
+        }
+
+        @Override
+        public void writeLong(BinaryWriter writer, long value) {
+            writer.writeUVarInt(value);
+        }
+
+        @Override
+        public long toLong(Object o) {
+            return o == null ? 0 : ((Number) o).longValue();
+        }
+
+        @Override
+        public Object fromLong(long value) {
+            return intAsType(rType, value);
         }
 
 
 
+        @Override
+        public void writeJson(JsonWriter writer, @Nullable Object o) {
+            writer.unsignedValue(toLong(o));
+        }
+
+        @Override
+        public void transcodeJson(BinaryReader reader, SpecContext context, JsonWriter writer) {
+            writer.unsignedValue(readLong(reader));
+        }
+
+        @Override
+        public Object readJson(JsonReader reader, SpecContext context) {
+            return fromLong(reader.nextUnsignedLong());
+        }
     }
 
     private static Object intAsType(Class<?> rType, long value) {
@@ -122,11 +343,50 @@ interface TypeDefs {
         throw new ArithmeticException(typeName + " is too small to store varint (" + value + ")");
     }
 
+    /**
+     * Reads a string of the given byte length.
+     * If the reader is byte aligned, the string is decoded directly from the underlying array.
+     *
+     * @param cutPadding If trailing {@code \0} chars should be removed.
+     * @param cache The cache to deduplicate the string with, or null.
+     */
+    private static String readString(BinaryReader reader, int length, boolean cutPadding, @Nullable StringCache cache) {
+        long position = reader.getBitPosition();
+
+        byte[] bytes;
+        int offset;
+        if((position & 7) == 0) {
+            reader.skipBits(length * 8L);
+            bytes = reader.getData().array();
+            offset = (int) (position >>> 3);
+        } else {
+            bytes = new byte[length];
+            offset = 0;
+            for (int i = 0; i < length; i++) {
+                bytes[i] = reader.readByte();
+            }
+        }
+
+        if(cutPadding) {
+            // remove trailing \0 chars (padded chars)
+            while (length > 0 && bytes[offset + length - 1] == 0) {
+                length--;
+            }
+        }
+
+        return decodeString(bytes, offset, length, cache);
+    }
+
+    private static String decodeString(byte[] bytes, int offset, int length, @Nullable StringCache cache) {
+        if(cache != null) return cache.get(bytes, offset, length);
+        return new String(bytes, offset, length, StandardCharsets.UTF_8);
+    }
+
     /**
      * Handles standard 32-bit single-precision floats.
      * Popped object is a {@link Float}.
      */
-    class FloatDef implements TypeDef {
+    class FloatDef implements PrimitiveDef {
         static final FloatDef INSTANCE = new FloatDef();
 
         private FloatDef() {
@@ -137,17 +397,73 @@ interface TypeDefs {
             return reader.readFloat();
         }
 
+        @Override
+        public void skip(BinaryReader reader, SpecContext context) {
+            reader.skipBits(32);
+        }
+
+        @Override
+        public long fixedBitSize() {
+            return 32;
+        }
+
         @Override
         public void write(BinaryWriter writer, Object o) {
             writer.writeFloat((float) o);
         }
+
+        @Override
+        public long readLong(BinaryReader reader) {
+            return reader.readBits(32);
+        }
+
+        @Override
+        public void writeLong(BinaryWriter writer, long value) {
+            writer.writeBits(value, 32);
+        }
+
+        @Override
+        public long toLong(Object o) {
+            return o == null ? 0 : Float.floatToRawIntBits((float) o) & 0xFFFFFFFFL;
+        }
+
+        @Override
+        public Object fromLong(long value) {
+            return Float.intBitsToFloat((int) value);
+        }
+
+        @Override
+        public double toDouble(long value) {
+            return Float.intBitsToFloat((int) value);
+        }
+
+        @Override
+        public long fromDouble(double value) {
+            return Float.floatToRawIntBits((float) value) & 0xFFFFFFFFL;
+        }
+
+        @Override
+        public boolean isDecimal() {
+            return true;
+        }
+
+        @Override
+        public void writeJson(JsonWriter writer, @Nullable Object o) {
+            // written as float, so the shortest representation of the float is used
+            writer.value(o == null ? 0f : ((Number) o).floatValue());
+        }
+
+        @Override
+        public void transcodeJson(BinaryReader reader, SpecContext context, JsonWriter writer) {
+            writer.value(Float.intBitsToFloat((int) readLong(reader)));
+        }
     }
 
     /**
      * Handles standard 64-bit double-precision doubles.
      * Popped object is a {@link Double}.
      */
-    class DoubleDef implements TypeDef {
+    class DoubleDef implements PrimitiveDef {
         static final DoubleDef INSTANCE = new DoubleDef();
 
         private DoubleDef() {
@@ -158,10 +474,55 @@ interface TypeDefs {
             return reader.readDouble();
         }
 
+        @Override
+        public void skip(BinaryReader reader, SpecContext context) {
+            reader.skipBits(64);
+        }
+
+        @Override
+        public long fixedBitSize() {
+            return 64;
+        }
+
         @Override
         public void write(BinaryWriter writer, Object o) {
             writer.writeDouble((Double) o);
         }
+
+        @Override
+        public long readLong(BinaryReader reader) {
+            return reader.readBits(64);
+        }
+
+        @Override
+        public void writeLong(BinaryWriter writer, long value) {
+            writer.writeBits(value, 64);
+        }
+
+        @Override
+        public long toLong(Object o) {
+            return o == null ? 0 : Double.doubleToRawLongBits((double) o);
+        }
+
+        @Override
+        public Object fromLong(long value) {
+            return Double.longBitsToDouble(value);
+        }
+
+        @Override
+        public double toDouble(long value) {
+            return Double.longBitsToDouble(value);
+        }
+
+        @Override
+        public long fromDouble(double value) {
+            return Double.doubleToRawLongBits(value);
+        }
+
+        @Override
+        public boolean isDecimal() {
+            return true;
+        }
     }
 
     /**
@@ -170,35 +531,70 @@ interface TypeDefs {
      */
     class StringTerminatedDef implements TypeDef {
         private final byte terminator;
+        private final @Nullable StringCache cache;
 
-        StringTerminatedDef(char terminator) {
+        StringTerminatedDef(char terminator, @Nullable StringCache cache) {
             if (terminator > 127) throw new IllegalArgumentException("Terminator must be ASCII.");
             this.terminator = (byte) terminator;
+            this.cache = cache;
         }
 
         @Override
         public Object read(BinaryReader reader, SpecContext context) {
+            long position = reader.getBitPosition();
+            if((position & 7) == 0) {
+                // scan the array directly
+                byte[] array = reader.getData().array();
+                int start = (int) (position >>> 3);
+                int end = start + (int) ((reader.getBitLength() - position) >>> 3);
+
+                int length = 0;
+                while(start + length < end && array[start + length] != terminator) {
+                    length++;
+                }
+
+                // consume the terminator as well, if present
+                reader.skipBits((start + length < end ? length + 1 : length) * 8L);
+                return decodeString(array, start, length, cache);
+            }
+
             ByteArrayOutputStream baos = new ByteArrayOutputStream();
             while(reader.hasMore()) {
                 byte b = reader.readByte();
                 if(b == terminator) break;
                 baos.write(b);
             }
+            if(cache != null) return cache.get(baos.toByteArray(), 0, baos.size());
             return baos.toString(StandardCharsets.UTF_8);
         }
 
+        @Override
+        public void skip(BinaryReader reader, SpecContext context) {
+            while(reader.hasMore()) {
+                if(reader.readByte() == terminator) break;
+            }
+        }
+
         @Override
         public void write(BinaryWriter writer, Object o) {
             String s = (String) o;
-            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
-            for (byte b : bytes) {
-                if(b == terminator) throw new IllegalArgumentException(
-                        "String contains the terminator byte; cannot write."
-                );
-                writer.writeByte(b);
-            }
+            // the terminator is ASCII, so it can only be encoded by the very same char
+            if(s.indexOf(terminator) >= 0) throw new IllegalArgumentException(
+                    "String contains the terminator byte; cannot write."
+            );
+            writer.writeUtf8(s);
             writer.writeByte(terminator);
         }
+
+        @Override
+        public void writeJson(JsonWriter writer, @Nullable Object o) {
+            writer.value((String) o);
+        }
+
+        @Override
+        public Object readJson(JsonReader reader, SpecContext context) {
+            return reader.nextString();
+        }
     }
 
     /**
@@ -209,24 +605,31 @@ interface TypeDefs {
         private final String fieldName;
         private final int autoBitSize;
         private final boolean useUnsigned;
+        private final @Nullable StringCache cache;
 
-        StringDynamicDef(String fieldName, int autoBitSize, boolean useUnsigned) {
+        StringDynamicDef(String fieldName, int autoBitSize, boolean useUnsigned, @Nullable StringCache cache) {
             if(autoBitSize < 0) throw new IllegalArgumentException("Auto bit size cannot be negative.");
 
             this.fieldName = fieldName;
             this.autoBitSize = autoBitSize;
             this.useUnsigned = useUnsigned;
+            this.cache = cache;
         }
 
         @Override
         public Object read(BinaryReader reader, SpecContext context) {
             int length = getStringLength(reader, context);
+            return readString(reader, length, false, cache);
+        }
 
-            byte[] bytes = new byte[length];
-            for (int i = 0; i < length; i++) {
-                bytes[i] = reader.readByte();
-            }
-            return new String(bytes, StandardCharsets.UTF_8);
+        @Override
+        public void skip(BinaryReader reader, SpecContext context) {
+            reader.skipBits(getStringLength(reader, context) * 8L);
+        }
+
+        @Override
+        public List<String> referencedFields() {
+            return fieldName.equals("@auto") ? List.of() : List.of(fieldName);
         }
 
         private int getStringLength(BinaryReader reader, SpecContext context) {
@@ -243,24 +646,34 @@ interface TypeDefs {
         @Override
         public void write(BinaryWriter writer, Object o) {
             String s = (String) o;
-
-            // write dimensions if we're using @auto
-            if(fieldName.equals("@auto")) {
-                if(useUnsigned) writer.writeUInt(s.length(), autoBitSize);
-                else writer.writeInt(s.length(), autoBitSize);
-
-                long maxLength = useUnsigned ?
-                        (1L << autoBitSize) - 1 : // unsigned calculation: (2^bits) - 1
-                        (1L << (autoBitSize - 1)) - 1; // signed calculation: 2^(bits-1) - 1
-                // if autoBitSize > 64 maxLength will have overflown; We expect that the string is not longer than Long.MAX_VALUE
-                if(autoBitSize < 64 && s.length() > maxLength) throw new ArithmeticException("String longer than dimensions field bit count can represent. Length: %s, bit size: %s (Max number: %s)".formatted(s.length(), autoBitSize, s.length()));
+            if(!fieldName.equals("@auto")) {
+                writer.writeUtf8(s);
+                return;
             }
 
-            // write bytes
-            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
-            for (byte b : bytes) {
-                writer.writeByte(b);
-            }
+            // the UTF-8 length is only known once the string is encoded,
+            // so the length is written as placeholder and filled in afterwards
+            long lengthPosition = writer.getBitLength();
+            writer.writeBits(0, autoBitSize);
+            int length = writer.writeUtf8(s);
+
+            long maxLength = useUnsigned ?
+                    (1L << autoBitSize) - 1 : // unsigned calculation: (2^bits) - 1
+                    (1L << (autoBitSize - 1)) - 1; // signed calculation: 2^(bits-1) - 1
+            // if autoBitSize > 64 maxLength will have overflown; We expect that the string is not longer than Long.MAX_VALUE
+            if(autoBitSize < 64 && length > maxLength) throw new ArithmeticException("String longer than dimensions field bit count can represent. Length: %s, bit size: %s (Max number: %s)".formatted(length, autoBitSize, maxLength));
+
+            writer.overwriteBits(lengthPosition, length, autoBitSize);
+        }
+
+        @Override
+        public void writeJson(JsonWriter writer, @Nullable Object o) {
+            writer.value((String) o);
+        }
+
+        @Override
+        public Object readJson(JsonReader reader, SpecContext context) {
+            return reader.nextString();
         }
     }
 
@@ -273,75 +686,106 @@ interface TypeDefs {
         private final boolean slice;
         private final boolean autoResize;
         private final boolean cutPadding;
+        private final @Nullable StringCache cache;
 
-        StringFixedDef(int fixedLength, boolean slice, boolean autoResize, boolean cutPadding) {
+        StringFixedDef(int fixedLength, boolean slice, boolean autoResize, boolean cutPadding, @Nullable StringCache cache) {
             this.fixedLength = fixedLength;
             this.slice = slice;
             this.autoResize = autoResize;
             this.cutPadding = cutPadding;
+            this.cache = cache;
         }
 
         @Override
         public Object read(BinaryReader reader, SpecContext context) {
-            byte[] bytes = new byte[this.fixedLength];
-            for (int i = 0; i < this.fixedLength; i++) {
-                bytes[i] = reader.readByte();
-            }
-
-            int len = this.fixedLength;
+            return readString(reader, fixedLength, cutPadding, cache);
+        }
 
-            if (cutPadding) {
-                // remove trailing \0 chars (padded chars)
-                while (len > 0 && bytes[len - 1] == 0) {
-                    len--;
-                }
-            }
+        @Override
+        public void skip(BinaryReader reader, SpecContext context) {
+            reader.skipBits(fixedLength * 8L);
+        }
 
-            return new String(bytes, 0, len, StandardCharsets.UTF_8);
+        @Override
+        public long fixedBitSize() {
+            return fixedLength * 8L;
         }
 
         @Override
         public void write(BinaryWriter writer, Object o) {
-            String s = normalizeStringLength((String) o);
+            String s = (String) o;
+            if(s.length() > fixedLength && !slice) throw new IllegalArgumentException("The given string is larger than the fixed size! Enable slicing to automatically cut the string, or provide a string of dimensions " + fixedLength);
+            if(s.length() < fixedLength && !autoResize) throw new IllegalArgumentException("The given string is smaller than the fixed size! Enable auto resize to automatically pad the string with \\0 chars, or provide a string of dimensions " + fixedLength);
 
-            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            // at most fixedLength chars are written, the rest is padded with \0
+            int written = writer.writeUtf8(s, Math.min(s.length(), fixedLength), fixedLength);
+            writer.writeZeroBytes(fixedLength - written);
+        }
 
-            // write bytes
-            for (int i = 0; i < bytes.length && i < this.fixedLength; i++) {
-                writer.writeByte(bytes[i]);
-            }
+        @Override
+        public void writeJson(JsonWriter writer, @Nullable Object o) {
+            writer.value((String) o);
         }
 
-        private @NotNull String normalizeStringLength(String o) {
-            String s = o;
-            if(s.length() > fixedLength) {
-                if(!slice) throw new IllegalArgumentException("The given string is larger than the fixed size! Enable slicing to automatically cut the string, or provide a string of dimensions " + fixedLength);
-                s = s.substring(0, fixedLength);
-            }
-            if(s.length() < fixedLength) {
-                if(!autoResize) throw new IllegalArgumentException("The given string is smaller than the fixed size! Enable auto resize to automatically pad the string with \\0 chars, or provide a string of dimensions " + fixedLength);
-                s = s + "\0".repeat(fixedLength - s.length());
-            }
-            return s;
+        @Override
+        public Object readJson(JsonReader reader, SpecContext context) {
+            return reader.nextString();
         }
     }
 
-    record EnumTypeDef<E extends Enum<E>>(Class<? extends Enum<?>> enumClass, int bits) implements TypeDef {
+    /**
+     * Handles enums by their ordinal.
+     * The enum constants are cached, as {@link Class#getEnumConstants()} copies them on every call.
+     * If a Huffman code is given, ordinals are stored using their code instead of {@code bits} bits.
+     */
+    final class EnumTypeDef<E extends Enum<E>> implements PrimitiveDef {
+        private final Class<? extends Enum<?>> enumClass;
+        private final int bits;
+        private final Enum<?>[] constants;
+        private final @Nullable HuffmanCode code;
 
         public EnumTypeDef(Class<? extends Enum<?>> enumClass, int bits) {
+            this(enumClass, bits, null);
+        }
+
+        public EnumTypeDef(Class<? extends Enum<?>> enumClass, int bits, @Nullable HuffmanCode code) {
             this.enumClass = enumClass;
-            this.bits = bits == -1 ? minBits() : bits;
-            if(minBits() < bits) throw new IllegalArgumentException("Cannot store all combinations of enum constants! Given bit count %d is too low to store all constants. Must be a minimum of %d".formatted(bits, minBits()));
+            this.constants = enumClass.getEnumConstants();
+            this.code = code;
+
+            int minBits = minBits(constants.length);
+            this.bits = bits == Type.ENUM_BITS_AUTO ? minBits : bits;
+            if(this.bits < minBits) throw new IllegalArgumentException("Cannot store all combinations of enum constants! Given bit count %d is too low to store all constants. Must be a minimum of %d".formatted(bits, minBits));
+            if(code != null && code.symbolCount() != constants.length) throw new IllegalArgumentException("Huffman code has %d symbols, but enum has %d constants".formatted(code.symbolCount(), constants.length));
         }
 
-        private int minBits() {
-            return 32 - Integer.numberOfLeadingZeros(enumClass.getEnumConstants().length);
+        public Class<? extends Enum<?>> enumClass() {
+            return enumClass;
+        }
+
+        public int bits() {
+            return bits;
+        }
+
+        private static int minBits(int constantCount) {
+            return 32 - Integer.numberOfLeadingZeros(constantCount);
         }
 
         @Override
         public Object read(BinaryReader reader, SpecContext context) {
-            int ordinal = Math.toIntExact(reader.readUInt(bits));
-            return enumClass.getEnumConstants()[ordinal];
+            int ordinal = Math.toIntExact(readLong(reader));
+            return constants[ordinal];
+        }
+
+        @Override
+        public void skip(BinaryReader reader, SpecContext context) {
+            if(code == null) reader.skipBits(bits);
+            else code.read(reader);
+        }
+
+        @Override
+        public long fixedBitSize() {
+            return code == null ? bits : -1;
         }
 
         @Override
@@ -349,7 +793,57 @@ interface TypeDefs {
             if(!(o instanceof Enum<?> enumConstant)) throw new IllegalArgumentException("Expected enum but got " + o.getClass());
             if(o.getClass() != enumClass) throw new IllegalArgumentException("Enum mismatch! Expected %s but got %s".formatted(enumConstant, o.getClass()));
 
-            writer.writeUInt(enumConstant.ordinal(), bits);
+            writeLong(writer, enumConstant.ordinal());
+        }
+
+        @Override
+        public long readLong(BinaryReader reader) {
+            return code == null ? reader.readUInt(bits) : code.read(reader);
+        }
+
+        @Override
+        public void writeLong(BinaryWriter writer, long value) {
+            if(code == null) writer.writeUInt(value, bits);
+            else code.write(writer, Math.toIntExact(value));
+        }
+
+        @Override
+        public long toLong(Object o) {
+            return o == null ? 0 : ((Enum<?>) o).ordinal();
+        }
+
+        @Override
+        public Object fromLong(long value) {
+            return constants[Math.toIntExact(value)];
+        }
+
+        @Override
+        public void writeJson(JsonWriter writer, @Nullable Object o) {
+            writer.value(o == null ? null : ((Enum<?>) o).name());
+        }
+
+        @Override
+        public void transcodeJson(BinaryReader reader, SpecContext context, JsonWriter writer) {
+            writer.value(constants[Math.toIntExact(readLong(reader))].name());
+        }
+
+        @Override
+        public Object readJson(JsonReader reader, SpecContext context) {
+            String name = reader.nextString();
+            for (Enum<?> constant : constants) {
+                if(constant.name().equals(name)) return constant;
+            }
+            throw new CorruptDataException("Unknown constant " + name + " of enum " + enumClass.getCanonicalName());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof EnumTypeDef<?> other && enumClass == other.enumClass && bits == other.bits && Objects.equals(code, other.code);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(enumClass, bits, code);
         }
     }
 
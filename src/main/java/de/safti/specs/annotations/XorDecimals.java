@@ -0,0 +1,122 @@
+package de.safti.specs.annotations;
+
+import de.safti.specs.io.BinaryReader;
+import de.safti.specs.io.BinaryWriter;
+import de.safti.specs.io.CorruptDataException;
+
+/**
+ * XOR compression of floats and doubles (as described by Facebook's Gorilla paper), used by {@link Structure.XorCompressed}.
+ * <p>
+ * Every value is XORed with its predecessor. Slowly changing values share their sign, exponent and
+ * most significant mantissa bits, so only a short run of meaningful bits in the middle of the XOR remains.
+ * <p>
+ * Layout:
+ * <pre>
+ * UVarInt count
+ * the first value using all of its bits
+ * for every other value:
+ *   '0'                                   equal to its predecessor
+ *   '10' meaningful bits                  the meaningful bits fit into the window of the previous value
+ *   '11' 5 bits leading zeros, 6 bits length, meaningful bits
+ * </pre>
+ */
+final class XorDecimals {
+    private static final int MAX_LEADING_ZEROS = 31;
+
+    private XorDecimals() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated.");
+    }
+
+    /**
+     * @param bits The raw bits of every value.
+     * @param width The amount of bits of a value, 32 for floats and 64 for doubles.
+     */
+    static void write(BinaryWriter writer, long[] bits, int width) {
+        writer.writeUVarInt(bits.length);
+        if(bits.length == 0) return;
+
+        writer.writeBits(bits[0], width);
+        int previousLeading = -1;
+        int previousTrailing = 0;
+        for (int i = 1; i < bits.length; i++) {
+            long xor = bits[i] ^ bits[i - 1];
+            if(xor == 0) {
+                writer.writeBoolean(false);
+                continue;
+            }
+
+            int leading = Math.min(MAX_LEADING_ZEROS, Long.numberOfLeadingZeros(xor) - (64 - width));
+            int trailing = Long.numberOfTrailingZeros(xor);
+
+            if(previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+                // reuse the window of the previous value
+                writer.writeBits(0b10, 2);
+                writer.writeBits(xor >>> previousTrailing, width - previousLeading - previousTrailing);
+                continue;
+            }
+
+            // a length of 64 does not fit into 6 bits, so it is stored as 0
+            int length = width - leading - trailing;
+            writer.writeBits(0b11, 2);
+            writer.writeUInt(leading, 5);
+            writer.writeUInt(length & 63, 6);
+            writer.writeBits(xor >>> trailing, length);
+
+            previousLeading = leading;
+            previousTrailing = trailing;
+        }
+    }
+
+    /**
+     * @return The raw bits of every value.
+     */
+    static long[] read(BinaryReader reader, int width) {
+        long[] bits = new long[Math.toIntExact(reader.readUVarInt())];
+        if(bits.length == 0) return bits;
+
+        bits[0] = reader.readBits(width);
+        int leading = 0;
+        int trailing = 0;
+        boolean window = false;
+        for (int i = 1; i < bits.length; i++) {
+            if(!reader.readBoolean()) {
+                bits[i] = bits[i - 1];
+                continue;
+            }
+
+            if(reader.readBoolean()) {
+                leading = (int) reader.readUInt(5);
+                int length = (int) reader.readUInt(6);
+                if(length == 0) length = 64;
+                if(leading + length > width) throw new CorruptDataException("Invalid XOR window of %d leading zeros and %d meaningful bits for values of %d bits.".formatted(leading, length, width));
+
+                trailing = width - leading - length;
+                window = true;
+            } else if(!window) {
+                throw new CorruptDataException("XOR compressed value " + i + " refers to a window that does not exist.");
+            }
+
+            bits[i] = bits[i - 1] ^ (reader.readBits(width - leading - trailing) << trailing);
+        }
+        return bits;
+    }
+
+    static void skip(BinaryReader reader, int width) {
+        int count = Math.toIntExact(reader.readUVarInt());
+        if(count == 0) return;
+
+        reader.skipBits(width);
+        int length = 0;
+        for (int i = 1; i < count; i++) {
+            if(!reader.readBoolean()) continue;
+
+            if(reader.readBoolean()) {
+                reader.skipBits(5);
+                length = (int) reader.readUInt(6);
+                if(length == 0) length = 64;
+            }
+            reader.skipBits(length);
+        }
+    }
+
+}
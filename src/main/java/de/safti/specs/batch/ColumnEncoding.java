@@ -0,0 +1,69 @@
+package de.safti.specs.batch;
+
+import de.safti.specs.annotations.StructureDefs;
+import de.safti.specs.layout.common.PrimitiveDef;
+import de.safti.specs.layout.common.TypeDef;
+
+/**
+ * The encodings a column of a {@link ColumnarBatch} may be stored in.
+ * The encoding is chosen per column when writing and stored in front of the column data.
+ */
+enum ColumnEncoding {
+
+    /**
+     * Every value is written using {@link TypeDef#write(de.safti.specs.io.BinaryWriter, Object)}.
+     */
+    RAW,
+
+    /**
+     * Integers (and enum ordinals) are stored as the minimum of the column,
+     * followed by the difference of every value to it using the least amount of bits possible.
+     */
+    PACKED,
+
+    /**
+     * Every distinct string is stored once, the values are stored as indices into that dictionary.
+     * Only used for strings without fixed size, as those are written unchanged.
+     */
+    DICTIONARY,
+
+    /**
+     * A bitmap for the presence of every value, followed by a column of the present values.
+     */
+    OPTIONAL,
+
+    /**
+     * Integers (and enum ordinals) of a small range are stored as the minimum of the column,
+     * followed by a Huffman code built from the column and the code of the difference of every value to the minimum.
+     * Chosen instead of {@link #PACKED} when it is smaller, which is the case for skewed columns like states or event types.
+     */
+    HUFFMAN;
+
+    /**
+     * The amount of bits used to store the encoding of a column.
+     */
+    static final int BITS = 4;
+
+    private static final ColumnEncoding[] VALUES = values();
+
+    static ColumnEncoding byId(int id) {
+        if(id >= VALUES.length) throw new IllegalStateException("Unknown column encoding " + id);
+        return VALUES[id];
+    }
+
+    static ColumnEncoding choose(TypeDef def, Object[] values) {
+        if(def instanceof StructureDefs.OptionalDef<?>) return OPTIONAL;
+        if(def instanceof PrimitiveDef primitive && !primitive.isDecimal()) return PACKED;
+        // fixed size strings are sliced or padded by their def, so they keep the row encoding to stay consistent with it
+        if(def.fixedBitSize() < 0 && values.length > 0 && allStrings(values)) return DICTIONARY;
+        return RAW;
+    }
+
+    private static boolean allStrings(Object[] values) {
+        for (Object value : values) {
+            if(!(value instanceof String)) return false;
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,198 @@
+package de.safti.specs.batch;
+
+import de.safti.specs.SpecIO;
+import de.safti.specs.annotations.Spec;
+import de.safti.specs.io.BinaryData;
+import de.safti.specs.io.BinaryReader;
+import de.safti.specs.io.CorruptDataException;
+import de.safti.specs.layout.SpecContext;
+import de.safti.specs.layout.SpecLayout;
+import de.safti.specs.layout.common.PrimitiveDef;
+import de.safti.specs.layout.common.SpecField;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads data written by a {@link ColumnarWriter}.
+ * Columns are located using the header, so a single column can be decoded without touching the others.
+ * <p>
+ * Columns whose {@link de.safti.specs.layout.common.TypeDef} depends on other fields (for example a string with an external length field)
+ * can only be decoded using {@link #toSpecs()}, as the other fields are not available when decoding a single column.
+ *
+ * @see ColumnarWriter
+ */
+public class ColumnarBatch {
+    private final SpecLayout layout;
+    private final BinaryData data;
+    private final int size;
+    private final long[] columnOffsets;
+
+    public ColumnarBatch(@NotNull BinaryData data, @NotNull SpecLayout layout) {
+        this.layout = layout;
+        this.data = data;
+
+        BinaryReader reader = new BinaryReader(data);
+        this.size = Math.toIntExact(reader.readUVarInt());
+
+        int columnCount = Math.toIntExact(reader.readUVarInt());
+        if(columnCount != layout.getFields().length) throw new CorruptDataException("Expected %d columns but found %d. It is likely that the wrong spec was provided for reading.".formatted(layout.getFields().length, columnCount));
+
+        long[] lengths = new long[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            lengths[i] = reader.readUVarInt();
+        }
+
+        // the columns follow the header directly
+        this.columnOffsets = new long[columnCount];
+        long offset = reader.getBitPosition();
+        for (int i = 0; i < columnCount; i++) {
+            columnOffsets[i] = offset;
+            offset += lengths[i];
+        }
+
+        if(offset != data.bitLength()) throw new CorruptDataException("Column lengths do not match the data length. Expected %d bits but got %d.".formatted(offset, data.bitLength()));
+    }
+
+    public ColumnarBatch(@NotNull BinaryData data, @NotNull Class<? extends Spec> specClass) {
+        this(data, SpecIO.getLayout(specClass));
+    }
+
+    /**
+     * @return The amount of records in this batch.
+     */
+    public int size() {
+        return size;
+    }
+
+    public SpecLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Decodes a single column into the values that would be stored in the specs.
+     *
+     * @param fieldName The name of the field.
+     * @return The values of every record.
+     */
+    public Object[] readColumn(String fieldName) {
+        int index = indexOf(fieldName);
+        SpecContext[] contexts = new SpecContext[size];
+        Arrays.fill(contexts, new SpecContext(layout.createInstance(), layout));
+
+        return Columns.readObjects(readerAt(index), layout.getFields()[index].type(), contexts);
+    }
+
+    /**
+     * Decodes a column of integers or enums (as ordinals) without boxing.
+     * Absent optional values are returned as 0.
+     *
+     * @param fieldName The name of the field.
+     * @return The values of every record.
+     * @throws IllegalStateException If the column does not hold primitive values.
+     */
+    public long[] readLongColumn(String fieldName) {
+        int index = indexOf(fieldName);
+        SpecField field = layout.getFields()[index];
+        if(Columns.primitive(field.type()).isDecimal()) throw new IllegalStateException("Field " + fieldName + " is a decimal field. Use readDoubleColumn instead.");
+
+        return Columns.readLongs(readerAt(index), field.type(), size);
+    }
+
+    /**
+     * @see #readLongColumn(String)
+     */
+    public int[] readIntColumn(String fieldName) {
+        long[] longs = readLongColumn(fieldName);
+        int[] ints = new int[longs.length];
+        for (int i = 0; i < longs.length; i++) {
+            ints[i] = Math.toIntExact(longs[i]);
+        }
+        return ints;
+    }
+
+    /**
+     * Decodes a column of numbers without boxing.
+     * Absent optional values are returned as 0.
+     *
+     * @param fieldName The name of the field.
+     * @return The values of every record.
+     * @throws IllegalStateException If the column does not hold primitive values.
+     */
+    public double[] readDoubleColumn(String fieldName) {
+        int index = indexOf(fieldName);
+        SpecField field = layout.getFields()[index];
+        PrimitiveDef primitive = Columns.primitive(field.type());
+
+        long[] longs = Columns.readLongs(readerAt(index), field.type(), size);
+        double[] doubles = new double[longs.length];
+        for (int i = 0; i < longs.length; i++) {
+            doubles[i] = primitive.toDouble(longs[i]);
+        }
+        return doubles;
+    }
+
+    public String[] readStringColumn(String fieldName) {
+        return Arrays.copyOf(readColumn(fieldName), size, String[].class);
+    }
+
+    /**
+     * @param fieldName The name of the field.
+     * @return For every record, if a value is present. Non-optional fields always have every value present.
+     */
+    public boolean[] readPresence(String fieldName) {
+        int index = indexOf(fieldName);
+        return Columns.readPresence(readerAt(index), layout.getFields()[index].type(), size);
+    }
+
+    /**
+     * Decodes every column and materializes the specs of this batch.
+     *
+     * @return A list of every spec in this batch, in the order they were written.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Spec> List<T> toSpecs() {
+        List<T> specs = new ArrayList<>(size);
+        SpecContext[] contexts = new SpecContext[size];
+        for (int i = 0; i < size; i++) {
+            Spec spec = layout.createInstance();
+            specs.add((T) spec);
+            contexts[i] = new SpecContext(spec, layout);
+        }
+
+        // columns are decoded in field order, so fields depending on earlier fields can be resolved
+        SpecField[] fields = layout.getFields();
+        for (int i = 0; i < fields.length; i++) {
+            SpecField field = fields[i];
+            Object[] values;
+            try {
+                values = Columns.readObjects(readerAt(i), field.type(), contexts);
+            } catch (Exception e) {
+                throw new RuntimeException("Exception whilst decoding column " + field.name(), e);
+            }
+
+            for (int j = 0; j < size; j++) {
+                field.set(specs.get(j), values[j]);
+            }
+        }
+
+        return specs;
+    }
+
+    private BinaryReader readerAt(int column) {
+        BinaryReader reader = new BinaryReader(data);
+        reader.seek(columnOffsets[column]);
+        return reader;
+    }
+
+    private int indexOf(String fieldName) {
+        SpecField[] fields = layout.getFields();
+        for (int i = 0; i < fields.length; i++) {
+            if(fields[i].name().equals(fieldName)) return i;
+        }
+        throw new IllegalArgumentException("Field " + fieldName + " not found in spec " + layout.getSpecClass().getCanonicalName());
+    }
+
+}
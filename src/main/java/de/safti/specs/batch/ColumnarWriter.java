@@ -0,0 +1,107 @@
+package de.safti.specs.batch;
+
+import de.safti.specs.SpecIO;
+import de.safti.specs.annotations.Spec;
+import de.safti.specs.io.BinaryData;
+import de.safti.specs.io.BinaryWriter;
+import de.safti.specs.layout.SpecLayout;
+import de.safti.specs.layout.common.SpecField;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Writes specs of the same layout in a columnar (struct of arrays) format.
+ * All values of the first field are written, then all values of the second field and so on.
+ * Every column is encoded depending on its {@link de.safti.specs.layout.common.TypeDef},
+ * see {@link ColumnEncoding} for the available encodings.
+ * <p>
+ * Layout of the written data:
+ * <pre>
+ * UVarInt record count
+ * UVarInt column count
+ * UVarInt bit length of every column
+ * column data
+ * </pre>
+ *
+ * @see ColumnarBatch
+ */
+public class ColumnarWriter {
+    private final SpecLayout layout;
+    private final List<Spec> specs = new ArrayList<>();
+
+    public ColumnarWriter(@NotNull SpecLayout layout) {
+        this.layout = layout;
+    }
+
+    public ColumnarWriter(@NotNull Class<? extends Spec> specClass) {
+        this(SpecIO.getLayout(specClass));
+    }
+
+    /**
+     * Adds a spec to the batch.
+     *
+     * @param spec The spec to add. Must be of the layout of this writer.
+     * @return this
+     */
+    public ColumnarWriter add(@NotNull Spec spec) {
+        if(SpecIO.getLayout(spec) != layout) throw new IllegalArgumentException("Spec " + spec.getClass().getCanonicalName() + " does not match the layout of spec " + layout.getSpecClass().getCanonicalName());
+        specs.add(spec);
+        return this;
+    }
+
+    public ColumnarWriter addAll(@NotNull Collection<? extends Spec> specs) {
+        for (Spec spec : specs) {
+            add(spec);
+        }
+        return this;
+    }
+
+    public int size() {
+        return specs.size();
+    }
+
+    public BinaryData toBinaryData() {
+        SpecField[] fields = layout.getFields();
+
+        // encode every column on its own, so the lengths can be written upfront
+        BinaryData[] columns = new BinaryData[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            SpecField field = fields[i];
+            Object[] values = new Object[specs.size()];
+            for (int j = 0; j < values.length; j++) {
+                try {
+                    values[j] = field.getter().invoke(specs.get(j));
+                } catch (Throwable e) {
+                    throw new RuntimeException("Failed to read field " + field.name(), e);
+                }
+            }
+
+            BinaryWriter columnWriter = new BinaryWriter();
+            try {
+                Columns.write(columnWriter, field.type(), values);
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to write column " + field.name(), e);
+            }
+            columns[i] = columnWriter.toBinaryData();
+        }
+
+        // header
+        BinaryWriter writer = new BinaryWriter();
+        writer.writeUVarInt(specs.size());
+        writer.writeUVarInt(columns.length);
+        for (BinaryData column : columns) {
+            writer.writeUVarInt(column.bitLength());
+        }
+
+        // columns
+        for (BinaryData column : columns) {
+            writer.writeData(column);
+        }
+
+        return writer.toBinaryData();
+    }
+
+}
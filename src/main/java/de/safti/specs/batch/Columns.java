@@ -0,0 +1,343 @@
+package de.safti.specs.batch;
+
+import de.safti.specs.annotations.StructureDefs.OptionalDef;
+import de.safti.specs.io.BinaryReader;
+import de.safti.specs.io.BinaryWriter;
+import de.safti.specs.io.HuffmanCode;
+import de.safti.specs.layout.SpecContext;
+import de.safti.specs.layout.common.PrimitiveDef;
+import de.safti.specs.layout.common.TypeDef;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Encodes and decodes single columns of a {@link ColumnarBatch}.
+ *
+ * @see ColumnEncoding
+ */
+final class Columns {
+
+    private Columns() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated.");
+    }
+
+    // --- writing ---
+
+    static void write(BinaryWriter writer, TypeDef def, Object[] values) {
+        ColumnEncoding encoding = ColumnEncoding.choose(def, values);
+
+        // integer columns decide between packing and huffman coding themselves
+        if(encoding == ColumnEncoding.PACKED) {
+            writeIntegers(writer, (PrimitiveDef) def, values);
+            return;
+        }
+        writer.writeUInt(encoding.ordinal(), ColumnEncoding.BITS);
+
+        switch (encoding) {
+            case RAW -> {
+                for (Object value : values) {
+                    def.write(writer, value);
+                }
+            }
+            case DICTIONARY -> writeDictionary(writer, def, values);
+            case OPTIONAL -> writeOptional(writer, (OptionalDef<?>) def, values);
+        }
+    }
+
+    private static void writeIntegers(BinaryWriter writer, PrimitiveDef def, Object[] values) {
+        long[] longs = new long[values.length];
+        long min = values.length == 0 ? 0 : Long.MAX_VALUE;
+        long max = values.length == 0 ? 0 : Long.MIN_VALUE;
+        for (int i = 0; i < values.length; i++) {
+            long value = def.toLong(values[i]);
+            longs[i] = value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        // the difference is treated as unsigned, so ranges larger than Long.MAX_VALUE still work
+        int width = 64 - Long.numberOfLeadingZeros(max - min);
+        HuffmanCode code = width == 0 || width > HUFFMAN_MAX_WIDTH ? null : huffmanCode(longs, min, max, width);
+        if(code == null) {
+            writer.writeUInt(ColumnEncoding.PACKED.ordinal(), ColumnEncoding.BITS);
+            writePacked(writer, longs, min, width);
+            return;
+        }
+
+        writer.writeUInt(ColumnEncoding.HUFFMAN.ordinal(), ColumnEncoding.BITS);
+        writer.writeVarInt(min);
+        code.writeTable(writer);
+        for (long value : longs) {
+            code.write(writer, (int) (value - min));
+        }
+    }
+
+    private static void writePacked(BinaryWriter writer, long[] longs, long min, int width) {
+        writer.writeVarInt(min);
+        writer.writeUInt(width, 7);
+        if(width == 0) return;
+
+        for (long value : longs) {
+            writer.writeBits(value - min, width);
+        }
+    }
+
+    /**
+     * @return A Huffman code for the differences to the minimum, or null if packing them is at least as small.
+     */
+    private static @Nullable HuffmanCode huffmanCode(long[] longs, long min, long max, int width) {
+        long[] frequencies = new long[(int) (max - min + 1)];
+        for (long value : longs) {
+            frequencies[(int) (value - min)]++;
+        }
+
+        HuffmanCode code = HuffmanCode.fromFrequencies(frequencies);
+        long huffmanBits = code.tableBits() + code.bitCost(frequencies);
+        return huffmanBits < (long) longs.length * width ? code : null;
+    }
+
+    private static void writeDictionary(BinaryWriter writer, TypeDef def, Object[] values) {
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> entries = new ArrayList<>();
+        int[] indices = new int[values.length];
+        BinaryWriter validation = new BinaryWriter();
+
+        for (int i = 0; i < values.length; i++) {
+            String value = (String) values[i];
+            Integer id = ids.get(value);
+            if(id == null) {
+                // every entry is written by its def once, so strings rejected by the row encoding are rejected here as well
+                def.write(validation, value);
+                id = entries.size();
+                ids.put(value, id);
+                entries.add(value);
+            }
+            indices[i] = id;
+        }
+
+        writeDictionary(writer, entries);
+
+        // indices
+        int width = indexWidth(entries.size());
+        if(width == 0) return;
+        for (int index : indices) {
+            writer.writeUInt(index, width);
+        }
+    }
+
+    /**
+     * Writes the entries of a dictionary, readable using {@link #readDictionary(BinaryReader)}.
+     */
+    static void writeDictionary(BinaryWriter writer, List<String> entries) {
+        writer.writeUVarInt(entries.size());
+        for (String entry : entries) {
+            byte[] bytes = entry.getBytes(StandardCharsets.UTF_8);
+            writer.writeUVarInt(bytes.length);
+            writer.writeBytes(bytes, 0, bytes.length);
+        }
+    }
+
+    private static void writeOptional(BinaryWriter writer, OptionalDef<?> def, Object[] values) {
+        List<Object> present = new ArrayList<>();
+        for (Object value : values) {
+            Object unwrapped = unwrap(value);
+            writer.writeBoolean(unwrapped != null);
+            if(unwrapped != null) present.add(unwrapped);
+        }
+
+        write(writer, def.inner(), present.toArray());
+    }
+
+    private static @Nullable Object unwrap(Object value) {
+        if(value instanceof Optional<?> opt) return opt.orElse(null);
+        if(value instanceof OptionalInt opt) return opt.isPresent() ? opt.getAsInt() : null;
+        if(value instanceof OptionalLong opt) return opt.isPresent() ? opt.getAsLong() : null;
+        if(value instanceof OptionalDouble opt) return opt.isPresent() ? opt.getAsDouble() : null;
+        return value;
+    }
+
+    private static Object wrap(OptionalDef<?> def, Object value) {
+        Class<?> rType = def.rType();
+        if(rType == Optional.class) return Optional.of(value);
+        if(rType == OptionalInt.class) return OptionalInt.of(((Number) value).intValue());
+        if(rType == OptionalLong.class) return OptionalLong.of(((Number) value).longValue());
+        if(rType == OptionalDouble.class) return OptionalDouble.of(((Number) value).doubleValue());
+        return value;
+    }
+
+    /**
+     * Columns spanning more than 2^8 values are always packed, keeping the code tables small.
+     */
+    private static final int HUFFMAN_MAX_WIDTH = 8;
+
+    static int indexWidth(int dictionarySize) {
+        return dictionarySize <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(dictionarySize - 1);
+    }
+
+    // --- reading ---
+
+    /**
+     * Decodes a column into boxed values, as they would be stored in a spec.
+     *
+     * @param contexts The context of every value, used by {@link ColumnEncoding#RAW} columns.
+     */
+    static Object[] readObjects(BinaryReader reader, TypeDef def, SpecContext[] contexts) {
+        int count = contexts.length;
+        Object[] values = new Object[count];
+        ColumnEncoding encoding = ColumnEncoding.byId((int) reader.readUInt(ColumnEncoding.BITS));
+
+        switch (encoding) {
+            case RAW -> {
+                for (int i = 0; i < count; i++) {
+                    values[i] = def.read(reader, contexts[i]);
+                }
+            }
+            case PACKED, HUFFMAN -> {
+                PrimitiveDef primitive = primitive(def);
+                long[] longs = encoding == ColumnEncoding.PACKED ? readPacked(reader, count) : readHuffman(reader, count);
+                for (int i = 0; i < count; i++) {
+                    values[i] = primitive.fromLong(longs[i]);
+                }
+            }
+            case DICTIONARY -> {
+                String[] dictionary = readDictionary(reader);
+                int width = indexWidth(dictionary.length);
+                for (int i = 0; i < count; i++) {
+                    values[i] = dictionary[width == 0 ? 0 : (int) reader.readUInt(width)];
+                }
+            }
+            case OPTIONAL -> {
+                OptionalDef<?> optional = (OptionalDef<?>) def;
+                boolean[] presence = readPresence(reader, count);
+
+                List<SpecContext> presentContexts = new ArrayList<>();
+                for (int i = 0; i < count; i++) {
+                    if(presence[i]) presentContexts.add(contexts[i]);
+                }
+                Object[] present = readObjects(reader, optional.inner(), presentContexts.toArray(SpecContext[]::new));
+
+                int next = 0;
+                for (int i = 0; i < count; i++) {
+                    values[i] = presence[i] ? wrap(optional, present[next++]) : optional.createDefault();
+                }
+            }
+        }
+
+        return values;
+    }
+
+    /**
+     * Decodes a column of integers, decimals (raw bits) or enums (ordinals) without boxing.
+     * Absent optional values are returned as 0.
+     */
+    static long[] readLongs(BinaryReader reader, TypeDef def, int count) {
+        ColumnEncoding encoding = ColumnEncoding.byId((int) reader.readUInt(ColumnEncoding.BITS));
+
+        switch (encoding) {
+            case PACKED -> {
+                return readPacked(reader, count);
+            }
+            case HUFFMAN -> {
+                return readHuffman(reader, count);
+            }
+            case RAW -> {
+                PrimitiveDef primitive = primitive(def);
+                long[] longs = new long[count];
+                for (int i = 0; i < count; i++) {
+                    longs[i] = primitive.readLong(reader);
+                }
+                return longs;
+            }
+            case OPTIONAL -> {
+                boolean[] presence = readPresence(reader, count);
+                int presentCount = 0;
+                for (boolean present : presence) {
+                    if(present) presentCount++;
+                }
+
+                long[] present = readLongs(reader, ((OptionalDef<?>) def).inner(), presentCount);
+                long[] longs = new long[count];
+                int next = 0;
+                for (int i = 0; i < count; i++) {
+                    if(presence[i]) longs[i] = present[next++];
+                }
+                return longs;
+            }
+            default -> throw new IllegalStateException("Column of encoding " + encoding + " cannot be read as primitive values.");
+        }
+    }
+
+    /**
+     * Reads the presence bitmap of a column. Non-optional columns have every value present.
+     */
+    static boolean[] readPresence(BinaryReader reader, TypeDef def, int count) {
+        ColumnEncoding encoding = ColumnEncoding.byId((int) reader.readUInt(ColumnEncoding.BITS));
+        if(encoding != ColumnEncoding.OPTIONAL) {
+            boolean[] presence = new boolean[count];
+            Arrays.fill(presence, true);
+            return presence;
+        }
+
+        return readPresence(reader, count);
+    }
+
+    private static boolean[] readPresence(BinaryReader reader, int count) {
+        boolean[] presence = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            presence[i] = reader.readBoolean();
+        }
+        return presence;
+    }
+
+    private static long[] readPacked(BinaryReader reader, int count) {
+        long min = reader.readVarInt();
+        int width = (int) reader.readUInt(7);
+
+        long[] longs = new long[count];
+        if(width == 0) {
+            Arrays.fill(longs, min);
+            return longs;
+        }
+
+        for (int i = 0; i < count; i++) {
+            longs[i] = min + reader.readBits(width);
+        }
+        return longs;
+    }
+
+    private static long[] readHuffman(BinaryReader reader, int count) {
+        long min = reader.readVarInt();
+        HuffmanCode code = HuffmanCode.readTable(reader);
+
+        long[] longs = new long[count];
+        for (int i = 0; i < count; i++) {
+            longs[i] = min + code.read(reader);
+        }
+        return longs;
+    }
+
+    static String[] readDictionary(BinaryReader reader) {
+        String[] dictionary = new String[Math.toIntExact(reader.readUVarInt())];
+        for (int i = 0; i < dictionary.length; i++) {
+            byte[] bytes = new byte[Math.toIntExact(reader.readUVarInt())];
+            for (int j = 0; j < bytes.length; j++) {
+                bytes[j] = reader.readByte();
+            }
+            dictionary[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return dictionary;
+    }
+
+    /**
+     * @return The innermost primitive def, unwrapping optionals.
+     * @throws IllegalStateException If the def does not hold primitive values.
+     */
+    static PrimitiveDef primitive(TypeDef def) {
+        if(def instanceof OptionalDef<?> optional) return primitive(optional.inner());
+        if(def instanceof PrimitiveDef primitive) return primitive;
+        throw new IllegalStateException(def.getClass().getSimpleName() + " does not hold primitive values.");
+    }
+
+}
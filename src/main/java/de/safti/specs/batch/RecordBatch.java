@@ -0,0 +1,116 @@
+package de.safti.specs.batch;
+
+import de.safti.specs.SpecIO;
+import de.safti.specs.annotations.Spec;
+import de.safti.specs.io.BinaryData;
+import de.safti.specs.io.BinaryReader;
+import de.safti.specs.io.CorruptDataException;
+import de.safti.specs.layout.SpecContext;
+import de.safti.specs.layout.SpecLayout;
+import de.safti.specs.layout.common.SpecField;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads data written by a {@link RecordBatchWriter}.
+ * The dictionaries are decoded once when the batch is opened,
+ * every record referencing an entry shares the very same {@link String} instance.
+ *
+ * @see RecordBatchWriter
+ */
+public class RecordBatch {
+    private final SpecLayout layout;
+    private final BinaryData data;
+    private final int size;
+    // indexed by field, null for fields that are not stored using a dictionary
+    private final String[][] dictionaries;
+    private final long recordsOffset;
+
+    public RecordBatch(@NotNull BinaryData data, @NotNull SpecLayout layout) {
+        this.layout = layout;
+        this.data = data;
+
+        BinaryReader reader = new BinaryReader(data);
+        this.size = Math.toIntExact(reader.readUVarInt());
+
+        SpecField[] fields = layout.getFields();
+        this.dictionaries = new String[fields.length][];
+        int dictionaryCount = Math.toIntExact(reader.readUVarInt());
+        for (int i = 0; i < dictionaryCount; i++) {
+            long field = reader.readUVarInt();
+            if(field >= fields.length) throw new CorruptDataException("Dictionary of field %d found, but spec %s only has %d fields. It is likely that the wrong spec was provided for reading.".formatted(field, layout.getSpecClass().getCanonicalName(), fields.length));
+
+            dictionaries[(int) field] = Columns.readDictionary(reader);
+        }
+
+        this.recordsOffset = reader.getBitPosition();
+    }
+
+    public RecordBatch(@NotNull BinaryData data, @NotNull Class<? extends Spec> specClass) {
+        this(data, SpecIO.getLayout(specClass));
+    }
+
+    /**
+     * @return The amount of records in this batch.
+     */
+    public int size() {
+        return size;
+    }
+
+    public SpecLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * @param fieldName The name of the field.
+     * @return The distinct values of the field, or null if the field is not stored using a dictionary.
+     */
+    public @Nullable String[] getDictionary(String fieldName) {
+        SpecField[] fields = layout.getFields();
+        for (int i = 0; i < fields.length; i++) {
+            if(fields[i].name().equals(fieldName)) return dictionaries[i] == null ? null : dictionaries[i].clone();
+        }
+        throw new IllegalArgumentException("Field " + fieldName + " not found in spec " + layout.getSpecClass().getCanonicalName());
+    }
+
+    /**
+     * Decodes every record of this batch.
+     *
+     * @return A list of every spec in this batch, in the order they were written.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Spec> List<T> toSpecs() {
+        List<T> specs = new ArrayList<>(size);
+        SpecField[] fields = layout.getFields();
+
+        BinaryReader reader = new BinaryReader(data);
+        reader.seek(recordsOffset);
+        for (int i = 0; i < size; i++) {
+            Spec spec = layout.createInstance();
+            SpecContext context = new SpecContext(spec, layout);
+
+            for (int j = 0; j < fields.length; j++) {
+                SpecField field = fields[j];
+                try {
+                    field.set(spec, dictionaries[j] == null ? field.type().read(reader, context) : entry(j, reader.readUVarInt()));
+                } catch (Throwable e) {
+                    throw new RuntimeException("Exception whilst populating field " + field.name() + " of record " + i, e);
+                }
+            }
+            specs.add((T) spec);
+        }
+
+        if(reader.hasMore()) throw new IllegalStateException("More data is found! It is likely that the wrong spec was provided for reading, or data corruption.");
+        return specs;
+    }
+
+    private String entry(int field, long index) {
+        String[] dictionary = dictionaries[field];
+        if(index >= dictionary.length) throw new CorruptDataException("Dictionary index %d out of bounds for field %s with %d entries".formatted(index, layout.getFields()[field].name(), dictionary.length));
+        return dictionary[(int) index];
+    }
+
+}
@@ -0,0 +1,152 @@
+package de.safti.specs.batch;
+
+import de.safti.specs.SpecIO;
+import de.safti.specs.annotations.Spec;
+import de.safti.specs.io.BinaryData;
+import de.safti.specs.io.BinaryWriter;
+import de.safti.specs.layout.SpecLayout;
+import de.safti.specs.layout.common.SpecField;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Writes specs of the same layout record by record, like {@link SpecIO#write(Spec)} would,
+ * but stores the selected string fields using a dictionary shared by the whole batch.
+ * Every distinct string is written once, the records only hold its index in the dictionary.
+ * <p>
+ * Layout of the written data:
+ * <pre>
+ * UVarInt record count
+ * UVarInt dictionary count
+ * for every dictionary: UVarInt field index, UVarInt entry count, every entry as UVarInt byte length and UTF-8 bytes
+ * records, the fields of a dictionary being stored as UVarInt index
+ * </pre>
+ *
+ * @see RecordBatch
+ * @see ColumnarWriter
+ */
+public class RecordBatchWriter {
+    private final SpecLayout layout;
+    private final int[] dictionaryFields;
+    private final List<Spec> specs = new ArrayList<>();
+
+    /**
+     * @param layout The layout of the specs to write.
+     * @param dictionaryFields The names of the string fields to store using a dictionary.
+     */
+    public RecordBatchWriter(@NotNull SpecLayout layout, String... dictionaryFields) {
+        this.layout = layout;
+        this.dictionaryFields = new int[dictionaryFields.length];
+
+        SpecField[] fields = layout.getFields();
+        outer:
+        for (int i = 0; i < dictionaryFields.length; i++) {
+            for (int j = 0; j < fields.length; j++) {
+                if(!fields[j].name().equals(dictionaryFields[i])) continue;
+
+                this.dictionaryFields[i] = j;
+                continue outer;
+            }
+            throw new IllegalArgumentException("Field " + dictionaryFields[i] + " not found in spec " + layout.getSpecClass().getCanonicalName());
+        }
+    }
+
+    public RecordBatchWriter(@NotNull Class<? extends Spec> specClass, String... dictionaryFields) {
+        this(SpecIO.getLayout(specClass), dictionaryFields);
+    }
+
+    /**
+     * Adds a spec to the batch.
+     *
+     * @param spec The spec to add. Must be of the layout of this writer.
+     * @return this
+     */
+    public RecordBatchWriter add(@NotNull Spec spec) {
+        if(SpecIO.getLayout(spec) != layout) throw new IllegalArgumentException("Spec " + spec.getClass().getCanonicalName() + " does not match the layout of spec " + layout.getSpecClass().getCanonicalName());
+        specs.add(spec);
+        return this;
+    }
+
+    public RecordBatchWriter addAll(@NotNull Collection<? extends Spec> specs) {
+        for (Spec spec : specs) {
+            add(spec);
+        }
+        return this;
+    }
+
+    public int size() {
+        return specs.size();
+    }
+
+    public BinaryData toBinaryData() {
+        SpecField[] fields = layout.getFields();
+
+        // the dictionary of every field is built first, as it is written in front of the records
+        int[][] indices = new int[fields.length][];
+        List<List<String>> dictionaries = new ArrayList<>();
+        for (int fieldIndex : dictionaryFields) {
+            SpecField field = fields[fieldIndex];
+            Object2IntOpenHashMap<String> ids = new Object2IntOpenHashMap<>();
+            ids.defaultReturnValue(-1);
+            List<String> entries = new ArrayList<>();
+
+            int[] fieldIndices = new int[specs.size()];
+            for (int i = 0; i < fieldIndices.length; i++) {
+                if(!(get(field, specs.get(i)) instanceof String value)) throw new IllegalArgumentException("Field " + field.name() + " does not hold a string. Only non-null strings can be stored using a dictionary.");
+
+                int id = ids.getInt(value);
+                if(id == -1) {
+                    id = entries.size();
+                    ids.put(value, id);
+                    entries.add(value);
+                }
+                fieldIndices[i] = id;
+            }
+
+            indices[fieldIndex] = fieldIndices;
+            dictionaries.add(entries);
+        }
+
+        // header
+        BinaryWriter writer = new BinaryWriter();
+        writer.writeUVarInt(specs.size());
+        writer.writeUVarInt(dictionaryFields.length);
+        for (int i = 0; i < dictionaryFields.length; i++) {
+            writer.writeUVarInt(dictionaryFields[i]);
+            Columns.writeDictionary(writer, dictionaries.get(i));
+        }
+
+        // records
+        for (int i = 0; i < specs.size(); i++) {
+            Spec spec = specs.get(i);
+            for (int j = 0; j < fields.length; j++) {
+                if(indices[j] != null) {
+                    writer.writeUVarInt(indices[j][i]);
+                    continue;
+                }
+
+                SpecField field = fields[j];
+                try {
+                    field.type().write(writer, get(field, spec));
+                } catch (Exception e) {
+                    throw new RuntimeException("Failed to write field " + field.name(), e);
+                }
+            }
+        }
+
+        return writer.toBinaryData();
+    }
+
+    private static Object get(SpecField field, Spec spec) {
+        try {
+            return field.getter().invoke(spec);
+        } catch (Throwable e) {
+            throw new RuntimeException("Failed to read field " + field.name(), e);
+        }
+    }
+
+}
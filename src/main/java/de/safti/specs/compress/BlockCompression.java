@@ -0,0 +1,91 @@
+package de.safti.specs.compress;
+
+import de.safti.specs.io.BinaryData;
+import de.safti.specs.io.BinaryWriter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Compresses encoded data in fixed size blocks. Every block is compressed on its own,
+ * so blocks can be decompressed independently, in parallel or on demand, see {@link CompressedBlocks}.
+ * <p>
+ * Layout of the compressed data:
+ * <pre>
+ * UVarInt compression
+ * UVarInt dictionary id, 0 if no dictionary is used
+ * UVarInt block size in bytes
+ * UVarInt bit length of the uncompressed data
+ * UVarInt block count
+ * UVarInt compressed byte length of every block
+ * blocks
+ * </pre>
+ *
+ * @param compression The algorithm every block is compressed with.
+ * @param blockSize The amount of uncompressed bytes per block.
+ * @param dictionary The preset dictionary, or null.
+ */
+public record BlockCompression(@NotNull Compression compression, int blockSize, @Nullable CompressionDictionary dictionary) {
+    public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+    public BlockCompression {
+        if(blockSize <= 0) throw new IllegalArgumentException("Block size must be positive, but got " + blockSize);
+    }
+
+    public BlockCompression(@NotNull Compression compression) {
+        this(compression, DEFAULT_BLOCK_SIZE, null);
+    }
+
+    public BlockCompression withDictionary(@Nullable CompressionDictionary dictionary) {
+        return new BlockCompression(compression, blockSize, dictionary);
+    }
+
+    public BlockCompression withBlockSize(int blockSize) {
+        return new BlockCompression(compression, blockSize, dictionary);
+    }
+
+    public BinaryData compress(@NotNull BinaryData data) {
+        byte[] bytes = data.array();
+        int blockCount = (bytes.length + blockSize - 1) / blockSize;
+
+        byte[][] blocks = new byte[blockCount][];
+        for (int i = 0; i < blockCount; i++) {
+            int offset = i * blockSize;
+            blocks[i] = compression.compress(bytes, offset, Math.min(blockSize, bytes.length - offset), dictionary);
+        }
+
+        BinaryWriter writer = new BinaryWriter();
+        writer.writeUVarInt(compression.ordinal());
+        writer.writeUVarInt(dictionary == null ? 0 : dictionary.id());
+        writer.writeUVarInt(blockSize);
+        writer.writeUVarInt(data.bitLength());
+        writer.writeUVarInt(blockCount);
+        for (byte[] block : blocks) {
+            writer.writeUVarInt(block.length);
+        }
+        for (byte[] block : blocks) {
+            writer.writeBytes(block, 0, block.length);
+        }
+
+        return writer.toBinaryData();
+    }
+
+    /**
+     * Decompresses all blocks, in parallel if there are multiple.
+     *
+     * @param data Data written by {@link #compress(BinaryData)}.
+     * @return The uncompressed data.
+     * @see CompressedBlocks#decompress()
+     */
+    public BinaryData decompress(@NotNull BinaryData data) {
+        return open(data).decompress();
+    }
+
+    /**
+     * @param data Data written by {@link #compress(BinaryData)}.
+     * @return The blocks of the data, allowing to decompress single blocks.
+     */
+    public CompressedBlocks open(@NotNull BinaryData data) {
+        return new CompressedBlocks(data, dictionary);
+    }
+
+}
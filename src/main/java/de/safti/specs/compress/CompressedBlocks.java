@@ -0,0 +1,134 @@
+package de.safti.specs.compress;
+
+import de.safti.specs.io.BinaryData;
+import de.safti.specs.io.BinaryReader;
+import de.safti.specs.io.CorruptDataException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.stream.IntStream;
+
+/**
+ * Reads data written by {@link BlockCompression#compress(BinaryData)}.
+ * The blocks are located using the header, so a single block can be decompressed without touching the others.
+ *
+ * @see BlockCompression
+ */
+public class CompressedBlocks {
+    private final byte[] bytes;
+    private final @Nullable CompressionDictionary dictionary;
+
+    private final Compression compression;
+    private final int blockSize;
+    private final long bitLength;
+    private final int byteLength;
+    private final int[] blockOffsets;
+    private final int[] blockLengths;
+
+    public CompressedBlocks(@NotNull BinaryData data, @Nullable CompressionDictionary dictionary) {
+        this.bytes = data.array();
+        this.dictionary = dictionary;
+
+        BinaryReader reader = new BinaryReader(data);
+        this.compression = Compression.byId(Math.toIntExact(reader.readUVarInt()));
+
+        long dictionaryId = reader.readUVarInt();
+        if(dictionaryId != 0 && dictionary == null) throw new IllegalArgumentException("The data was compressed using a dictionary, but none was provided.");
+        if(dictionaryId == 0 && dictionary != null) throw new IllegalArgumentException("The data was compressed without a dictionary, but one was provided.");
+        if(dictionary != null && dictionaryId != dictionary.id()) throw new IllegalArgumentException("The data was compressed using a different dictionary.");
+
+        this.blockSize = Math.toIntExact(reader.readUVarInt());
+        this.bitLength = reader.readUVarInt();
+        this.byteLength = Math.toIntExact((bitLength + 7) / 8);
+
+        int blockCount = Math.toIntExact(reader.readUVarInt());
+        if(blockSize <= 0 || blockCount != (byteLength + blockSize - 1) / blockSize) throw new CorruptDataException("Block count " + blockCount + " does not match the data length " + byteLength);
+
+        this.blockLengths = new int[blockCount];
+        for (int i = 0; i < blockCount; i++) {
+            blockLengths[i] = Math.toIntExact(reader.readUVarInt());
+        }
+
+        // the header consists of whole bytes, so the blocks are byte aligned
+        this.blockOffsets = new int[blockCount];
+        int offset = Math.toIntExact(reader.getBitPosition() / 8);
+        for (int i = 0; i < blockCount; i++) {
+            blockOffsets[i] = offset;
+            offset += blockLengths[i];
+        }
+        if(offset != bytes.length) throw new CorruptDataException("Block lengths do not match the data length. Expected %d bytes but got %d.".formatted(offset, bytes.length));
+    }
+
+    public int blockCount() {
+        return blockLengths.length;
+    }
+
+    public int blockSize() {
+        return blockSize;
+    }
+
+    public Compression compression() {
+        return compression;
+    }
+
+    /**
+     * @return The amount of bytes of the uncompressed data.
+     */
+    public int byteLength() {
+        return byteLength;
+    }
+
+    /**
+     * Decompresses a single block.
+     *
+     * @param index The index of the block.
+     * @return The uncompressed bytes of the block.
+     */
+    public byte[] block(int index) {
+        int originalLength = Math.min(blockSize, byteLength - index * blockSize);
+        return compression.decompress(bytes, blockOffsets[index], blockLengths[index], originalLength, dictionary);
+    }
+
+    /**
+     * Reads a range of the uncompressed data, decompressing only the blocks it overlaps.
+     *
+     * @param offset The index of the first byte to read.
+     * @param length The amount of bytes to read.
+     * @return The uncompressed bytes.
+     */
+    public byte[] read(int offset, int length) {
+        if(offset < 0 || length < 0 || offset + length > byteLength) throw new IndexOutOfBoundsException("Range " + offset + "+" + length + " out of bounds for length " + byteLength);
+
+        byte[] result = new byte[length];
+        int position = 0;
+        while(position < length) {
+            int index = (offset + position) / blockSize;
+            int start = (offset + position) - index * blockSize;
+            byte[] block = block(index);
+
+            int count = Math.min(block.length - start, length - position);
+            System.arraycopy(block, start, result, position, count);
+            position += count;
+        }
+        return result;
+    }
+
+    /**
+     * Decompresses all blocks, in parallel if there are multiple.
+     *
+     * @return The uncompressed data.
+     */
+    public BinaryData decompress() {
+        byte[] result = new byte[byteLength];
+
+        IntStream indices = IntStream.range(0, blockCount());
+        if(blockCount() > 1) indices = indices.parallel();
+        indices.forEach(i -> {
+            byte[] block = block(i);
+            System.arraycopy(block, 0, result, i * blockSize, block.length);
+        });
+
+        return new BinaryData(result, (int) (byteLength * 8L - bitLength));
+    }
+
+}
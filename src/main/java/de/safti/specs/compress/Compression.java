@@ -0,0 +1,132 @@
+package de.safti.specs.compress;
+
+import de.safti.specs.io.CorruptDataException;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * The algorithms a block of a {@link BlockCompression} may be compressed with.
+ * Every algorithm may use a {@link CompressionDictionary} to compress small blocks better.
+ */
+public enum Compression {
+
+    /**
+     * The bytes are stored as they are.
+     */
+    NONE {
+        @Override
+        public byte[] compress(byte[] bytes, int offset, int length, @Nullable CompressionDictionary dictionary) {
+            return Arrays.copyOfRange(bytes, offset, offset + length);
+        }
+
+        @Override
+        public byte[] decompress(byte[] bytes, int offset, int length, int originalLength, @Nullable CompressionDictionary dictionary) {
+            if(length != originalLength) throw new CorruptDataException("Expected " + originalLength + " bytes but got " + length);
+            return Arrays.copyOfRange(bytes, offset, offset + length);
+        }
+    },
+
+    /**
+     * The JDK {@link Deflater}. Compresses better than {@link #LZ}, but is considerably slower.
+     */
+    DEFLATE {
+        @Override
+        public byte[] compress(byte[] bytes, int offset, int length, @Nullable CompressionDictionary dictionary) {
+            Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+            try {
+                if(dictionary != null) deflater.setDictionary(dictionary.bytes());
+                deflater.setInput(bytes, offset, length);
+                deflater.finish();
+
+                byte[] out = new byte[Math.max(64, length / 2)];
+                int size = 0;
+                while(!deflater.finished()) {
+                    if(size == out.length) out = Arrays.copyOf(out, out.length * 2);
+                    size += deflater.deflate(out, size, out.length - size);
+                }
+                return Arrays.copyOf(out, size);
+            } finally {
+                deflater.end();
+            }
+        }
+
+        @Override
+        public byte[] decompress(byte[] bytes, int offset, int length, int originalLength, @Nullable CompressionDictionary dictionary) {
+            // raw deflate streams never request the dictionary, so it is always set upfront
+            Inflater inflater = new Inflater(true);
+            try {
+                if(dictionary != null) inflater.setDictionary(dictionary.bytes());
+                inflater.setInput(bytes, offset, length);
+
+                byte[] out = new byte[originalLength];
+                int size = 0;
+                while(size < originalLength) {
+                    int inflated = inflater.inflate(out, size, originalLength - size);
+                    if(inflated == 0 && (inflater.finished() || inflater.needsInput())) break;
+                    size += inflated;
+                }
+                if(size != originalLength) throw new CorruptDataException("Expected " + originalLength + " bytes but got " + size);
+                return out;
+            } catch (DataFormatException e) {
+                throw new CorruptDataException("Invalid deflate block: " + e.getMessage());
+            } finally {
+                inflater.end();
+            }
+        }
+    },
+
+    /**
+     * A fast LZ77 style codec without entropy coding, see {@link LzCodec}.
+     */
+    LZ {
+        @Override
+        public byte[] compress(byte[] bytes, int offset, int length, @Nullable CompressionDictionary dictionary) {
+            return LzCodec.compress(bytes, offset, length, dictionary == null ? LzCodec.NO_DICTIONARY : dictionary.bytes());
+        }
+
+        @Override
+        public byte[] decompress(byte[] bytes, int offset, int length, int originalLength, @Nullable CompressionDictionary dictionary) {
+            return LzCodec.decompress(bytes, offset, length, originalLength, dictionary == null ? LzCodec.NO_DICTIONARY : dictionary.bytes());
+        }
+    };
+
+    private static final Compression[] VALUES = values();
+
+    /**
+     * Compresses a single block.
+     *
+     * @param bytes The array holding the block.
+     * @param offset The index of the first byte of the block.
+     * @param length The amount of bytes of the block.
+     * @param dictionary The preset dictionary, or null.
+     * @return The compressed block.
+     */
+    public abstract byte[] compress(byte[] bytes, int offset, int length, @Nullable CompressionDictionary dictionary);
+
+    /**
+     * Decompresses a single block.
+     *
+     * @param bytes The array holding the compressed block.
+     * @param offset The index of the first byte of the compressed block.
+     * @param length The amount of bytes of the compressed block.
+     * @param originalLength The amount of bytes of the block before compression.
+     * @param dictionary The preset dictionary used to compress the block, or null.
+     * @return The decompressed block.
+     * @throws CorruptDataException If the block is malformed.
+     */
+    public abstract byte[] decompress(byte[] bytes, int offset, int length, int originalLength, @Nullable CompressionDictionary dictionary);
+
+    /**
+     * @param id The ordinal of the compression.
+     * @throws CorruptDataException If there is no compression with the given id.
+     */
+    public static Compression byId(int id) {
+        if(id < 0 || id >= VALUES.length) throw new CorruptDataException("Unknown compression " + id);
+        return VALUES[id];
+    }
+
+}
@@ -0,0 +1,105 @@
+package de.safti.specs.compress;
+
+import de.safti.specs.io.BinaryData;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * A preset dictionary shared by the writer and the reader of compressed data.
+ * Small blocks (for example single specs) hold too little data to find repetitions in,
+ * a dictionary holding the byte sequences common to most specs allows compressing them anyway.
+ * <p>
+ * The id of the dictionary is stored in the compressed data, so data cannot be decompressed with the wrong dictionary.
+ *
+ * @param bytes The content of the dictionary.
+ * @see #train(Collection, int)
+ */
+public record CompressionDictionary(byte @NotNull [] bytes) {
+
+    /**
+     * The amount of bytes of the sequences counted whilst training.
+     */
+    private static final int SEQUENCE_LENGTH = 8;
+
+    /**
+     * @return The CRC32 of the dictionary, never 0.
+     */
+    public long id() {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return Math.max(1, crc.getValue());
+    }
+
+    /**
+     * Trains a dictionary from sample data by collecting the byte sequences occurring in the most samples.
+     * The most common sequences are placed at the end of the dictionary, as close matches are cheaper to encode.
+     *
+     * @param samples Encoded specs similar to the ones that will be compressed.
+     * @param maxSize The maximum size of the dictionary in bytes.
+     * @return The trained dictionary.
+     */
+    public static CompressionDictionary train(@NotNull Collection<BinaryData> samples, int maxSize) {
+        // the amount of samples every sequence occurs in
+        Long2IntOpenHashMap counts = new Long2IntOpenHashMap();
+        for (BinaryData sample : samples) {
+            byte[] array = sample.array();
+            Long2IntOpenHashMap seen = new Long2IntOpenHashMap();
+            for (int i = 0; i + SEQUENCE_LENGTH <= array.length; i++) {
+                long sequence = readLong(array, i);
+                if(seen.put(sequence, 1) == 0) counts.addTo(sequence, 1);
+            }
+        }
+
+        List<Long2IntMap.Entry> common = new ArrayList<>();
+        for (Long2IntMap.Entry entry : counts.long2IntEntrySet()) {
+            if(entry.getIntValue() > 1) common.add(entry);
+        }
+        common.sort(Comparator.comparingInt(Long2IntMap.Entry::getIntValue).reversed());
+
+        int count = Math.min(common.size(), maxSize / SEQUENCE_LENGTH);
+        byte[] bytes = new byte[count * SEQUENCE_LENGTH];
+        for (int i = 0; i < count; i++) {
+            writeLong(bytes, (count - 1 - i) * SEQUENCE_LENGTH, common.get(i).getLongKey());
+        }
+        return new CompressionDictionary(bytes);
+    }
+
+    private static long readLong(byte[] bytes, int index) {
+        long value = 0;
+        for (int i = 0; i < SEQUENCE_LENGTH; i++) {
+            value = value << 8 | (bytes[index + i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static void writeLong(byte[] bytes, int index, long value) {
+        for (int i = SEQUENCE_LENGTH - 1; i >= 0; i--) {
+            bytes[index + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof CompressionDictionary other && Arrays.equals(bytes, other.bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bytes);
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return "CompressionDictionary[" + bytes.length + " bytes]";
+    }
+
+}
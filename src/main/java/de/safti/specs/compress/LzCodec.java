@@ -0,0 +1,185 @@
+package de.safti.specs.compress;
+
+import de.safti.specs.io.CorruptDataException;
+
+import java.util.Arrays;
+
+/**
+ * A byte oriented LZ77 codec, trading compression ratio for speed.
+ * Matches are found using a single hash table of 4 byte sequences, without chaining.
+ * <p>
+ * A compressed block consists of sequences:
+ * <pre>
+ * UVarInt literal length
+ * literals
+ * UVarInt match offset   (omitted in the last sequence)
+ * UVarInt match length-4 (omitted in the last sequence)
+ * </pre>
+ * The dictionary is treated as if it preceded the block, so matches may reference it.
+ */
+final class LzCodec {
+    static final byte[] NO_DICTIONARY = new byte[0];
+
+    private static final int MIN_MATCH = 4;
+    private static final int HASH_BITS = 14;
+
+    private LzCodec() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated.");
+    }
+
+    static byte[] compress(byte[] bytes, int offset, int length, byte[] dictionary) {
+        // the dictionary and the block are joined, so offsets into the dictionary work like any other offset
+        byte[] in = new byte[dictionary.length + length];
+        System.arraycopy(dictionary, 0, in, 0, dictionary.length);
+        System.arraycopy(bytes, offset, in, dictionary.length, length);
+
+        int start = dictionary.length;
+        int end = in.length;
+
+        int[] table = new int[1 << HASH_BITS];
+        Arrays.fill(table, -1);
+        for (int i = 0; i + MIN_MATCH <= start; i++) {
+            table[hash(in, i)] = i;
+        }
+
+        Output out = new Output(length / 2 + 16);
+        int anchor = start;
+        int i = start;
+        while(i + MIN_MATCH <= end) {
+            int h = hash(in, i);
+            int candidate = table[h];
+            table[h] = i;
+
+            if(candidate < 0 || readInt(in, candidate) != readInt(in, i)) {
+                i++;
+                continue;
+            }
+
+            int matchLength = MIN_MATCH;
+            while(i + matchLength < end && in[candidate + matchLength] == in[i + matchLength]) {
+                matchLength++;
+            }
+
+            out.writeUVarInt(i - anchor);
+            out.writeBytes(in, anchor, i - anchor);
+            out.writeUVarInt(i - candidate);
+            out.writeUVarInt(matchLength - MIN_MATCH);
+
+            i += matchLength;
+            anchor = i;
+        }
+
+        out.writeUVarInt(end - anchor);
+        out.writeBytes(in, anchor, end - anchor);
+        return out.toByteArray();
+    }
+
+    static byte[] decompress(byte[] bytes, int offset, int length, int originalLength, byte[] dictionary) {
+        byte[] out = new byte[dictionary.length + originalLength];
+        System.arraycopy(dictionary, 0, out, 0, dictionary.length);
+
+        Input in = new Input(bytes, offset, offset + length);
+        int position = dictionary.length;
+        while(true) {
+            int literals = in.readUVarInt();
+            if(literals > out.length - position) throw new CorruptDataException("Literals exceed the block length");
+            in.readBytes(out, position, literals);
+            position += literals;
+            if(position == out.length) break;
+
+            int matchOffset = in.readUVarInt();
+            int matchLength = in.readUVarInt() + MIN_MATCH;
+            if(matchOffset == 0 || matchOffset > position) throw new CorruptDataException("Invalid match offset " + matchOffset);
+            if(matchLength > out.length - position) throw new CorruptDataException("Match exceeds the block length");
+
+            // matches may overlap with the bytes they produce, so they are copied byte by byte
+            for (int i = 0; i < matchLength; i++) {
+                out[position + i] = out[position - matchOffset + i];
+            }
+            position += matchLength;
+        }
+        if(!in.isDone()) throw new CorruptDataException("Block contains trailing bytes");
+
+        return dictionary.length == 0 ? out : Arrays.copyOfRange(out, dictionary.length, out.length);
+    }
+
+    private static int hash(byte[] bytes, int index) {
+        return (readInt(bytes, index) * 0x9E3779B1) >>> (32 - HASH_BITS);
+    }
+
+    private static int readInt(byte[] bytes, int index) {
+        return (bytes[index] & 0xFF)
+                | (bytes[index + 1] & 0xFF) << 8
+                | (bytes[index + 2] & 0xFF) << 16
+                | (bytes[index + 3] & 0xFF) << 24;
+    }
+
+    private static final class Output {
+        private byte[] buffer;
+        private int size;
+
+        Output(int capacity) {
+            this.buffer = new byte[capacity];
+        }
+
+        void writeUVarInt(int value) {
+            ensureCapacity(5);
+            while((value & ~0x7F) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        void writeBytes(byte[] bytes, int offset, int length) {
+            ensureCapacity(length);
+            System.arraycopy(bytes, offset, buffer, size, length);
+            size += length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void ensureCapacity(int additional) {
+            if(size + additional > buffer.length) buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + additional));
+        }
+    }
+
+    private static final class Input {
+        private final byte[] bytes;
+        private final int end;
+        private int position;
+
+        Input(byte[] bytes, int position, int end) {
+            this.bytes = bytes;
+            this.position = position;
+            this.end = end;
+        }
+
+        int readUVarInt() {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                if(position >= end) throw new CorruptDataException("Block ended in the middle of a sequence");
+                byte b = bytes[position++];
+                value |= (b & 0x7F) << shift;
+                if(b >= 0) {
+                    if(value < 0) throw new CorruptDataException("Length exceeds the block length");
+                    return value;
+                }
+            }
+            throw new CorruptDataException("VarInt is too long");
+        }
+
+        void readBytes(byte[] out, int offset, int length) {
+            if(length > end - position) throw new CorruptDataException("Block ended in the middle of the literals");
+            System.arraycopy(bytes, position, out, offset, length);
+            position += length;
+        }
+
+        boolean isDone() {
+            return position == end;
+        }
+    }
+
+}
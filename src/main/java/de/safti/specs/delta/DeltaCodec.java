@@ -0,0 +1,176 @@
+package de.safti.specs.delta;
+
+import de.safti.specs.SpecIO;
+import de.safti.specs.annotations.Spec;
+import de.safti.specs.io.BinaryData;
+import de.safti.specs.io.BinaryReader;
+import de.safti.specs.io.BinaryWriter;
+import de.safti.specs.layout.SpecContext;
+import de.safti.specs.layout.SpecLayout;
+import de.safti.specs.layout.common.PrimitiveDef;
+import de.safti.specs.layout.common.SpecField;
+import de.safti.specs.layout.common.TypeDef;
+import de.safti.specs.utils.Checkers;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Encodes consecutive snapshots of the same spec as deltas.
+ * <p>
+ * A delta starts with a single bit telling if the delta is a keyframe.
+ * Keyframes hold every field, encoded the same way {@link SpecLayout#write(Spec, BinaryWriter)} does.
+ * Other deltas hold a bitmap of the changed fields over {@link SpecLayout#getFields()}, followed by the changed fields:
+ * <ul>
+ *     <li>integers and enums are written as the signed VarInt difference to the previous value</li>
+ *     <li>floats and doubles are written as the XOR of their bits with the previous value, stripped of leading and trailing zeros</li>
+ *     <li>every other field is written in full</li>
+ * </ul>
+ */
+public class DeltaCodec {
+    private final SpecLayout layout;
+
+    public DeltaCodec(@NotNull SpecLayout layout) {
+        this.layout = layout;
+    }
+
+    public DeltaCodec(@NotNull Class<? extends Spec> specClass) {
+        this(SpecIO.getLayout(specClass));
+    }
+
+    /**
+     * Encodes the changes from {@code previous} to {@code current}.
+     *
+     * @param previous The previous snapshot or null to write a keyframe.
+     * @param current The current snapshot.
+     * @return The encoded delta.
+     */
+    public BinaryData write(@Nullable Spec previous, @NotNull Spec current) {
+        BinaryWriter writer = new BinaryWriter();
+        write(previous, current, writer);
+        return writer.toBinaryData();
+    }
+
+    public void write(@Nullable Spec previous, @NotNull Spec current, BinaryWriter writer) {
+        writer.writeBoolean(previous == null);
+        if(previous == null) {
+            layout.write(current, writer);
+            return;
+        }
+
+        SpecField[] fields = layout.getFields();
+        Object[] previousValues = new Object[fields.length];
+        Object[] currentValues = new Object[fields.length];
+        boolean[] changed = new boolean[fields.length];
+
+        // bitmap of changed fields
+        for (int i = 0; i < fields.length; i++) {
+            previousValues[i] = get(fields[i], previous);
+            currentValues[i] = get(fields[i], current);
+            // primitives are compared by their encoded value, so the XOR of a changed decimal is never 0
+            changed[i] = fields[i].type() instanceof PrimitiveDef primitive
+                    ? primitive.toLong(previousValues[i]) != primitive.toLong(currentValues[i])
+                    : Checkers.unequal(previousValues[i], currentValues[i]);
+            writer.writeBoolean(changed[i]);
+        }
+
+        // changed values
+        for (int i = 0; i < fields.length; i++) {
+            if(!changed[i]) continue;
+
+            TypeDef type = fields[i].type();
+            try {
+                if(type instanceof PrimitiveDef primitive) {
+                    writeChange(writer, primitive, primitive.toLong(previousValues[i]), primitive.toLong(currentValues[i]));
+                } else {
+                    type.write(writer, currentValues[i]);
+                }
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to write field " + fields[i].name(), e);
+            }
+        }
+    }
+
+    /**
+     * Applies a delta onto the given target.
+     * Unless the delta is a keyframe, the target must hold the snapshot the delta was created from.
+     *
+     * @param data The encoded delta.
+     * @param target The spec to apply the delta onto.
+     * @return The given target.
+     */
+    public <T extends Spec> T apply(@NotNull BinaryData data, @NotNull T target) {
+        BinaryReader reader = new BinaryReader(data);
+        apply(reader, target);
+
+        if(reader.hasMore()) throw new IllegalStateException("More data is found! It is likely that the wrong spec was provided for reading, or data corruption.");
+        return target;
+    }
+
+    public void apply(BinaryReader reader, Spec target) {
+        SpecField[] fields = layout.getFields();
+        SpecContext context = new SpecContext(target, layout);
+        boolean keyframe = reader.readBoolean();
+
+        boolean[] changed = new boolean[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            changed[i] = keyframe || reader.readBoolean();
+        }
+
+        for (int i = 0; i < fields.length; i++) {
+            if(!changed[i]) continue;
+
+            SpecField field = fields[i];
+            TypeDef type = field.type();
+            try {
+                if(!keyframe && type instanceof PrimitiveDef primitive) {
+                    long previous = primitive.toLong(get(field, target));
+                    field.set(target, primitive.fromLong(readChange(reader, primitive, previous)));
+                } else {
+                    field.set(target, type.read(reader, context));
+                }
+            } catch (Exception e) {
+                throw new RuntimeException("Exception whilst applying delta to field " + field.name(), e);
+            }
+        }
+    }
+
+    private static void writeChange(BinaryWriter writer, PrimitiveDef type, long previous, long current) {
+        if(!type.isDecimal()) {
+            writer.writeVarInt(current - previous);
+            return;
+        }
+
+        // only the bits between the leading and trailing zeros of the XOR need to be stored
+        long xor = previous ^ current;
+        int leading = Long.numberOfLeadingZeros(xor);
+        int trailing = Long.numberOfTrailingZeros(xor);
+        int significant = 64 - leading - trailing;
+
+        writer.writeUInt(leading, 6);
+        writer.writeUInt(significant - 1, 6);
+        writer.writeBits(xor >>> trailing, significant);
+    }
+
+    private static long readChange(BinaryReader reader, PrimitiveDef type, long previous) {
+        if(!type.isDecimal()) return previous + reader.readVarInt();
+
+        int leading = (int) reader.readUInt(6);
+        int significant = (int) reader.readUInt(6) + 1;
+        int trailing = 64 - leading - significant;
+        long xor = reader.readBits(significant) << trailing;
+        return previous ^ xor;
+    }
+
+    private static Object get(SpecField field, Spec spec) {
+        try {
+            return field.getter().invoke(spec);
+        } catch (Throwable e) {
+            throw new RuntimeException("Failed to read field " + field.name(), e);
+        }
+    }
+
+    public SpecLayout getLayout() {
+        return layout;
+    }
+
+}
@@ -0,0 +1,37 @@
+package de.safti.specs.format;
+
+import de.safti.specs.io.BinaryReader;
+import de.safti.specs.io.BinaryWriter;
+import de.safti.specs.layout.SpecContext;
+import de.safti.specs.layout.common.TypeDef;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The binary format, as written by {@link TypeDef#write(BinaryWriter, Object)}.
+ * Produces the same bytes as {@link de.safti.specs.layout.SpecLayout#write(de.safti.specs.annotations.Spec, BinaryWriter)}.
+ */
+public final class BinaryFormat implements Format<BinaryWriter, BinaryReader> {
+    public static final BinaryFormat INSTANCE = new BinaryFormat();
+
+    private BinaryFormat() {
+    }
+
+    @Override
+    public FieldCodec<BinaryWriter, BinaryReader> codec(TypeDef type) {
+        return new Codec(type);
+    }
+
+    private record Codec(TypeDef type) implements FieldCodec<BinaryWriter, BinaryReader> {
+
+        @Override
+        public void write(BinaryWriter writer, @Nullable Object value) {
+            type.write(writer, value);
+        }
+
+        @Override
+        public Object read(BinaryReader reader, SpecContext context) {
+            return type.read(reader, context);
+        }
+    }
+
+}
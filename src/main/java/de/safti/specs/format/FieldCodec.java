@@ -0,0 +1,19 @@
+package de.safti.specs.format;
+
+import de.safti.specs.layout.SpecContext;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Writes and reads the values of a single field in a specific {@link Format}.
+ * Codecs are created once per field by {@link Format#codec(de.safti.specs.layout.common.TypeDef)}.
+ *
+ * @param <W> The writer of the format.
+ * @param <R> The reader of the format.
+ */
+public interface FieldCodec<W, R> {
+
+    void write(W writer, @Nullable Object value);
+
+    Object read(R reader, SpecContext context);
+
+}
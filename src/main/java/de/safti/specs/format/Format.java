@@ -0,0 +1,51 @@
+package de.safti.specs.format;
+
+import de.safti.specs.layout.SpecLayout;
+import de.safti.specs.layout.common.SpecField;
+import de.safti.specs.layout.common.TypeDef;
+
+/**
+ * A serialization format, supplying a {@link FieldCodec} for every {@link TypeDef}.
+ * <p>
+ * Formats are compiled once per layout, see {@link SpecLayout#codec(Format)}.
+ * Writing and reading a spec afterward only invokes the precompiled codecs, no lookups are done per spec.
+ *
+ * @param <W> The writer of the format.
+ * @param <R> The reader of the format.
+ * @see BinaryFormat
+ * @see de.safti.specs.json.JsonFormat
+ */
+public interface Format<W, R> {
+
+    /**
+     * @param type The type of a field.
+     * @return The codec used for every value of the field.
+     */
+    FieldCodec<W, R> codec(TypeDef type);
+
+    /**
+     * @param fields The fields of a layout.
+     * @return The codecs of the given fields, in the same order.
+     */
+    @SuppressWarnings("unchecked")
+    default FieldCodec<W, R>[] codecs(SpecField[] fields) {
+        // generic arrays cannot be created directly, every element is a FieldCodec<W, R> though
+        FieldCodec<W, R>[] codecs = (FieldCodec<W, R>[]) new FieldCodec<?, ?>[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            codecs[i] = codec(fields[i].type());
+        }
+        return codecs;
+    }
+
+    /**
+     * Compiles the codec of a whole layout.
+     * By default, the fields are written and read one after another without any framing.
+     *
+     * @param layout The layout to compile.
+     * @return The codec of the layout.
+     */
+    default SpecCodec<W, R> compile(SpecLayout layout) {
+        return new SequentialSpecCodec<>(layout, this);
+    }
+
+}
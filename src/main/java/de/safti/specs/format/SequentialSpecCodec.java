@@ -0,0 +1,52 @@
+package de.safti.specs.format;
+
+import de.safti.specs.annotations.Spec;
+import de.safti.specs.layout.SpecContext;
+import de.safti.specs.layout.SpecLayout;
+import de.safti.specs.layout.common.SpecField;
+
+/**
+ * Writes and reads the fields of a spec one after another, in the order of {@link SpecLayout#getFields()}.
+ *
+ * @see Format#compile(SpecLayout)
+ */
+public class SequentialSpecCodec<W, R> implements SpecCodec<W, R> {
+    private final SpecLayout layout;
+    private final SpecField[] fields;
+    private final FieldCodec<W, R>[] codecs;
+
+    public SequentialSpecCodec(SpecLayout layout, Format<W, R> format) {
+        this.layout = layout;
+        this.fields = layout.getFields();
+        this.codecs = format.codecs(fields);
+    }
+
+    @Override
+    public void write(Spec spec, W writer) {
+        for (int i = 0; i < fields.length; i++) {
+            SpecField field = fields[i];
+            try {
+                codecs[i].write(writer, field.getter().invoke(spec));
+            } catch (Throwable e) {
+                throw new RuntimeException("Failed to write field " + field.name(), e);
+            }
+        }
+    }
+
+    @Override
+    public Spec read(R reader) {
+        Spec spec = layout.createInstance();
+        SpecContext context = new SpecContext(spec, layout);
+
+        for (int i = 0; i < fields.length; i++) {
+            SpecField field = fields[i];
+            try {
+                field.set(spec, codecs[i].read(reader, context));
+            } catch (Throwable e) {
+                throw new RuntimeException("Exception whilst populating field " + field.name(), e);
+            }
+        }
+        return spec;
+    }
+
+}
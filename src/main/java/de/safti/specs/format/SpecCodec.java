@@ -0,0 +1,18 @@
+package de.safti.specs.format;
+
+import de.safti.specs.annotations.Spec;
+
+/**
+ * Writes and reads whole specs of a single layout in a specific {@link Format}.
+ *
+ * @param <W> The writer of the format.
+ * @param <R> The reader of the format.
+ * @see de.safti.specs.layout.SpecLayout#codec(Format)
+ */
+public interface SpecCodec<W, R> {
+
+    void write(Spec spec, W writer);
+
+    Spec read(R reader);
+
+}
@@ -0,0 +1,134 @@
+package de.safti.specs.integrity;
+
+import de.safti.specs.io.BinaryData;
+import de.safti.specs.io.BinaryWriter;
+import de.safti.specs.io.CorruptDataException;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.OptionalInt;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32C;
+
+/**
+ * Protects encoded data against corruption using CRC32C checksums, which are hardware accelerated on most CPUs.
+ * The data is split into fixed size blocks, every block having a checksum of its own,
+ * so the blocks of large batches are verified in parallel. Single specs usually fit into a single block.
+ * <p>
+ * Data is verified before it is decoded, so corruption is reported as {@link CorruptDataException}
+ * instead of producing wrong values or failing somewhere whilst decoding.
+ * <p>
+ * Layout of the sealed data:
+ * <pre>
+ * UVarInt bit length of the data
+ * UVarInt block size in bytes
+ * 4 bytes CRC32C of the values above
+ * 4 bytes CRC32C of every block
+ * data
+ * </pre>
+ *
+ * @param blockSize The amount of bytes per checksum.
+ */
+public record BlockChecksum(int blockSize) {
+    public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+    public BlockChecksum {
+        if(blockSize <= 0) throw new IllegalArgumentException("Block size must be positive, but got " + blockSize);
+    }
+
+    public BlockChecksum() {
+        this(DEFAULT_BLOCK_SIZE);
+    }
+
+    public BlockChecksum withBlockSize(int blockSize) {
+        return new BlockChecksum(blockSize);
+    }
+
+    public BinaryData seal(@NotNull BinaryData data) {
+        byte[] bytes = data.array();
+
+        BinaryWriter header = new BinaryWriter();
+        header.writeUVarInt(data.bitLength());
+        header.writeUVarInt(blockSize);
+        byte[] headerBytes = header.toByteArray();
+
+        BinaryWriter writer = new BinaryWriter();
+        writer.writeBytes(headerBytes, 0, headerBytes.length);
+        writer.writeUInt(checksum(headerBytes, 0, headerBytes.length) & 0xFFFFFFFFL, 32);
+        for (int offset = 0; offset < bytes.length; offset += blockSize) {
+            writer.writeUInt(checksum(bytes, offset, Math.min(blockSize, bytes.length - offset)) & 0xFFFFFFFFL, 32);
+        }
+        writer.writeBytes(bytes, 0, bytes.length);
+
+        return writer.toBinaryData();
+    }
+
+    /**
+     * Verifies every block, in parallel if there are multiple, and returns the data.
+     * The block size is read from the data, so data sealed using any block size can be opened.
+     *
+     * @param sealed Data written by {@link #seal(BinaryData)}.
+     * @return The verified data.
+     * @throws CorruptDataException If a checksum does not match or the data is truncated.
+     */
+    public BinaryData open(@NotNull BinaryData sealed) {
+        byte[] bytes = sealed.array();
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+        long bitLength;
+        int blockSize;
+        int[] checksums;
+        try {
+            bitLength = readUVarInt(buffer);
+            long size = readUVarInt(buffer);
+            int headerLength = buffer.position();
+            if(buffer.getInt() != checksum(bytes, 0, headerLength)) throw new CorruptDataException("Checksum of the header does not match, the data is corrupt.");
+            if(size <= 0 || size > Integer.MAX_VALUE || bitLength < 0 || bitLength > Integer.MAX_VALUE * 8L) throw new CorruptDataException("Invalid block size %d or bit length %d.".formatted(size, bitLength));
+
+            blockSize = (int) size;
+            long byteLength = (bitLength + 7) / 8;
+            checksums = new int[Math.toIntExact((byteLength + blockSize - 1) / blockSize)];
+            for (int i = 0; i < checksums.length; i++) {
+                checksums[i] = buffer.getInt();
+            }
+        } catch (BufferUnderflowException e) {
+            throw new CorruptDataException("Data ended in the middle of the checksum header.");
+        }
+
+        // the header consists of whole bytes, so the data is byte aligned
+        int offset = buffer.position();
+        int byteLength = (int) ((bitLength + 7) / 8);
+        if(bytes.length - offset != byteLength) throw new CorruptDataException("Expected %d bytes of data but got %d.".formatted(byteLength, bytes.length - offset));
+
+        IntStream indices = IntStream.range(0, checksums.length);
+        if(checksums.length > 1) indices = indices.parallel();
+        OptionalInt corrupt = indices
+                .filter(i -> checksum(bytes, offset + i * blockSize, Math.min(blockSize, byteLength - i * blockSize)) != checksums[i])
+                .findAny();
+        if(corrupt.isPresent()) throw new CorruptDataException("Checksum of block %d does not match, the data is corrupt.".formatted(corrupt.getAsInt()));
+
+        return new BinaryData(Arrays.copyOfRange(bytes, offset, bytes.length), (int) (byteLength * 8L - bitLength));
+    }
+
+    private static int checksum(byte[] bytes, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+    private static long readUVarInt(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if(shift > 63) throw new CorruptDataException("Checksum header is too long.");
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+}
@@ -8,6 +8,13 @@ import org.jetbrains.annotations.NotNull;
  */
 public record BinaryData(byte[] array, int padding) {
 
+    /**
+     * @return The amount of bits stored, excluding the padding.
+     */
+    public long bitLength() {
+        return array.length * 8L - padding;
+    }
+
 
     @Override
     public @NotNull String toString() {
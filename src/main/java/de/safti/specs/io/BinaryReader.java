@@ -338,29 +338,51 @@ public class BinaryReader {
     // --- Big Data Types ---
 
     /**
-     * Reads a BigInteger by first reading its dimensions (in bytes) and then the byte array.
+     * Reads a two's complement integer of the given width, as written by {@link BinaryWriter#writeBigInteger(BigInteger, int)}.
+     * The bits are read 64 at a time straight into the magnitude array, widths of up to 128 bits are read as two longs.
      *
+     * @param bits The width of the integer in bits (>= 1).
      * @return The BigInteger read from the stream.
-     * @throws ArrayIndexOutOfBoundsException If the end of the array array is reached while reading the dimensions or the bytes.
+     * @throws ArrayIndexOutOfBoundsException If the end of the array is reached.
      */
     public BigInteger readBigInteger(int bits) throws ArrayIndexOutOfBoundsException {
-        // align bits to the next byte boundary
-        if(bits % 8 != 0) {
-            bits += 8 - (bits % 8); // align to next byte
+        if (bits < 1) {
+            throw new IllegalArgumentException("Number of bits for BigInteger must be at least 1.");
         }
 
-        int byteCount = bits / 8;
-        int bitsToRead = bits;
+        // the most significant word holds the remaining bits, all others are full words
+        int words = (bits + 63) >>> 6;
+        int topBits = bits - (words - 1) * 64;
+        long top = readBits(topBits);
+        if (topBits < 64 && (top & (1L << (topBits - 1))) != 0) top |= -1L << topBits;
+
+        if (words == 1) return BigInteger.valueOf(top);
+        if (words == 2) {
+            long low = readBits(64);
+            // fits into a single long
+            if ((top == 0 && low >= 0) || (top == -1 && low < 0)) return BigInteger.valueOf(low);
+            return new BigInteger(toBytes(new byte[16], 0, top, low));
+        }
 
-        // create and fill the big integer array
-        byte[] bigIntData = new byte[byteCount];
-        for (int i = 0; i < byteCount; i++) {
-            int readThisIteration = Math.min(bitsToRead, 8);
-            bitsToRead -= readThisIteration;
-            bigIntData[i] = readByte(readThisIteration);
+        byte[] magnitude = new byte[words * 8];
+        putLong(magnitude, 0, top);
+        for (int i = 1; i < words; i++) {
+            putLong(magnitude, i * 8, readBits(64));
         }
+        return new BigInteger(magnitude);
+    }
 
-        return new BigInteger(bigIntData);
+    private static byte[] toBytes(byte[] bytes, int offset, long high, long low) {
+        putLong(bytes, offset, high);
+        putLong(bytes, offset + 8, low);
+        return bytes;
+    }
+
+    private static void putLong(byte[] bytes, int offset, long value) {
+        for (int i = 7; i >= 0; i--) {
+            bytes[offset + i] = (byte) value;
+            value >>>= 8;
+        }
     }
 
     /**
@@ -418,6 +440,16 @@ public class BinaryReader {
         return result;
     }
 
+    /**
+     * Reads a ZigZag encoded VarInt from the stream.
+     *
+     * @return The decoded signed long value.
+     */
+    public long readZigZagVarInt() {
+        long zigZag = readUVarInt();
+        return (zigZag >>> 1) ^ -(zigZag & 1);
+    }
+
 
     /**
      * Checks if there are any remaining bits to read in the stream.
@@ -426,9 +458,7 @@ public class BinaryReader {
      * @return true if there are more bits available, false otherwise.
      */
     public boolean hasMore() {
-        int totalBits = (data.array().length * 8) - data.padding();
-        int bitsRead = (bytePosition * 8) - bitsInBuffer;
-        return bitsRead < totalBits;
+        return getBitPosition() < getBitLength();
     }
 
     /**
@@ -439,9 +469,79 @@ public class BinaryReader {
      * @return true if that many bits can be read, false otherwise.
      */
     public boolean canRead(int bits) {
-        int totalBits = (data.array().length * 8) - data.padding();
-        int bitsRead = (bytePosition * 8) - bitsInBuffer;
-        return (bitsRead + bits) <= totalBits;
+        return getBitPosition() + bits <= getBitLength();
+    }
+
+    /**
+     * @return The amount of bits that have been read so far.
+     */
+    public long getBitPosition() {
+        byte[] arr = data.array();
+        // the padding has already been shifted out once the last byte is buffered
+        int padding = bytePosition == arr.length ? data.padding() : 0;
+        return (bytePosition * 8L) - bitsInBuffer - padding;
+    }
+
+    /**
+     * @return The total amount of (non-padded) bits of the underlying data.
+     */
+    public long getBitLength() {
+        return (data.array().length * 8L) - data.padding();
+    }
+
+    /**
+     * Moves the reader to the given bit position.
+     *
+     * @param bitPosition The position (in bits) to continue reading at.
+     * @throws IllegalArgumentException If the position lies outside the data.
+     */
+    public void seek(long bitPosition) {
+        if (bitPosition < 0 || bitPosition > getBitLength()) {
+            throw new IllegalArgumentException("Bit position " + bitPosition + " is out of bounds. Length: " + getBitLength());
+        }
+
+        bytePosition = Math.toIntExact(bitPosition / 8);
+        buffer = 0;
+        bitsInBuffer = 0;
+
+        int remainder = (int) (bitPosition % 8);
+        if (remainder > 0) {
+            fillBuffer();
+            bitsInBuffer -= remainder;
+        }
+    }
+
+    /**
+     * Reads bits without advancing the position. Bits beyond the end of the data are read as 0.
+     *
+     * @param numBits The number of bits to peek (1 to 63).
+     * @return The next bits, the first bit being the most significant one.
+     */
+    public long peekBits(int numBits) {
+        long position = getBitPosition();
+        int available = (int) Math.min(numBits, getBitLength() - position);
+        if(available <= 0) return 0;
+
+        long value = readBits(available);
+        seek(position);
+        return value << (numBits - available);
+    }
+
+    /**
+     * Skips the given amount of bits without reading them.
+     *
+     * @param numBits The amount of bits to skip.
+     * @throws IllegalArgumentException If skipping would move beyond the data.
+     */
+    public void skipBits(long numBits) {
+        seek(getBitPosition() + numBits);
+    }
+
+    /**
+     * @return The data this reader reads from.
+     */
+    public BinaryData getData() {
+        return data;
     }
 
 }
@@ -1,9 +1,11 @@
 package de.safti.specs.io;
 
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 
-import java.io.*;
+import java.util.Arrays;
 
 /**
  * A bit-level output writer that allows writing primitive types and arbitrary
@@ -12,8 +14,8 @@ import java.io.*;
  */
 public class BinaryWriter {
 
-    // closing is not required as ByteArrayOutputStream is noop.
-    private final ByteArrayOutputStream byteOut;
+    private byte[] bytes;     // Completed bytes, only the first 'size' bytes are used
+    private int size;
     private int buffer;       // Internal buffer for bits (up to 8 bits)
     private int bitsInBuffer; // Number of bits currently in the buffer (0-7)
 
@@ -22,7 +24,8 @@ public class BinaryWriter {
      * can be retrieved using the toByteArray() method.
      */
     public BinaryWriter() {
-        this.byteOut = new ByteArrayOutputStream();
+        this.bytes = new byte[32];
+        this.size = 0;
         this.buffer = 0;
         this.bitsInBuffer = 0;
     }
@@ -40,19 +43,30 @@ public class BinaryWriter {
             throw new IllegalArgumentException("Number of bits must be between 1 and 64 (both inclusive). Requested: " + numBits);
         }
 
-        long maskedValue = (numBits == 64) ? value : (value & ((1L << numBits) - 1));
+        int remaining = numBits;
 
-        for (int i = numBits - 1; i >= 0; i--) {
-            int bit = (int) ((maskedValue >>> i) & 1);
-            buffer = (buffer << 1) | bit;
-            bitsInBuffer++;
+        // complete the partially filled byte first
+        if (bitsInBuffer > 0) {
+            int take = Math.min(remaining, 8 - bitsInBuffer);
+            remaining -= take;
+            buffer = (buffer << take) | (int) ((value >>> remaining) & ((1 << take) - 1));
+            bitsInBuffer += take;
+            if (bitsInBuffer < 8) return;
 
-            if (bitsInBuffer == 8) {
-                byteOut.write(buffer);
-                buffer = 0;
-                bitsInBuffer = 0;
-            }
+            appendByte(buffer);
+            buffer = 0;
+            bitsInBuffer = 0;
         }
+
+        // then whole bytes
+        while (remaining >= 8) {
+            remaining -= 8;
+            appendByte((int) (value >>> remaining) & 0xFF);
+        }
+
+        // and keep the rest in the buffer
+        buffer = (int) (value & ((1 << remaining) - 1));
+        bitsInBuffer = remaining;
     }
 
 
@@ -260,16 +274,15 @@ public class BinaryWriter {
         // Write the dimensions of the byte array (using 32-bit signed int)
         writeInt(data.length, 32);
 
-        // Write the bytes themselves (always 8-bit aligned)
-        for (byte b : data) {
-            writeByte(b);
-        }
+        // Write the bytes themselves
+        writeBytes(data, 0, data.length);
     }
 
     /**
-     * Writes the least significant 'numBits' of a BigInteger to the stream,
-     * in 63-bit chunks from MSB to LSB.
-     * * @param value The BigInteger to write.
+     * Writes the least significant 'numBits' of a BigInteger in two's complement, from MSB to LSB.
+     * The bits are written 64 at a time, values fitting into a long are written without looking at their magnitude.
+     *
+     * @param value The BigInteger to write.
      * @param numBits The number of bits to encode the value (>= 1).
      * @throws IllegalArgumentException If numBits is less than 1.
      */
@@ -278,21 +291,48 @@ public class BinaryWriter {
             throw new IllegalArgumentException("Number of bits for BigInteger must be at least 1.");
         }
 
-        BigInteger mask = BigInteger.ONE.shiftLeft(numBits).subtract(BigInteger.ONE);
-        BigInteger bitsToWrite = value.and(mask);
+        int words = (numBits + 63) >>> 6;
+        int topBits = numBits - (words - 1) * 64;
 
-        int remainingBits = numBits;
+        if (value.bitLength() < 64) {
+            // fast path, every word above the lowest one only holds the sign
+            long low = value.longValue();
+            long sign = low >> 63;
+            if (words == 1) {
+                writeBits(low, topBits);
+                return;
+            }
 
-        // write the big integer in chunks
-        while (remainingBits > 0) {
-            int bitsInChunk = Math.min(64, remainingBits);
-            int shiftAmount = remainingBits - bitsInChunk;
-            long chunk = bitsToWrite.shiftRight(shiftAmount).longValue();
+            writeBits(sign, topBits);
+            for (int i = words - 2; i > 0; i--) {
+                writeBits(sign, 64);
+            }
+            writeBits(low, 64);
+            return;
+        }
 
-            writeBits(chunk, bitsInChunk);
+        byte[] twosComplement = value.toByteArray();
+        writeBits(wordAt(twosComplement, words - 1), topBits);
+        for (int i = words - 2; i >= 0; i--) {
+            writeBits(wordAt(twosComplement, i), 64);
+        }
+    }
 
-            remainingBits -= bitsInChunk;
+    /**
+     * @param twosComplement A big endian two's complement number, as returned by {@link BigInteger#toByteArray()}.
+     * @param word The index of the word, counted from the least significant word.
+     * @return The 64 bits of the given word, sign extended if the number is shorter.
+     */
+    private static long wordAt(byte[] twosComplement, int word) {
+        long sign = twosComplement[0] < 0 ? -1 : 0;
+        int end = twosComplement.length - word * 8;
+
+        long result = 0;
+        for (int i = end - 8; i < end; i++) {
+            long b = i >= 0 ? twosComplement[i] & 0xFF : sign & 0xFF;
+            result = (result << 8) | b;
         }
+        return result;
     }
 
     /**
@@ -364,6 +404,278 @@ public class BinaryWriter {
         } while (more);
     }
 
+    /**
+     * Writes a ZigZag encoded VarInt to the stream.
+     * The sign is moved into the least significant bit, so numbers close to 0 take few bytes regardless of their sign.
+     *
+     * @param value The signed long value to encode.
+     */
+    public void writeZigZagVarInt(long value) {
+        long zigZag = (value << 1) ^ (value >> 63);
+
+        // not using writeUVarInt, as large values are negative once zigzag encoded
+        do {
+            int byteVal = (int) (zigZag & 0x7F);
+            zigZag >>>= 7;
+            if (zigZag != 0) {
+                byteVal |= 0x80; // set continuation bit
+            }
+            writeByte((byte) byteVal);
+        } while (zigZag != 0);
+    }
+
+
+    /**
+     * Appends all (non-padded) bits of the given data to the stream.
+     *
+     * @param data The data to append.
+     */
+    public void writeData(BinaryData data) {
+        byte[] array = data.array();
+        if (array.length == 0) return;
+
+        int fullBytes = data.padding() == 0 ? array.length : array.length - 1;
+        if (bitsInBuffer == 0) {
+            // aligned, the bytes can be copied as they are
+            ensureCapacity(fullBytes);
+            System.arraycopy(array, 0, bytes, size, fullBytes);
+            size += fullBytes;
+        } else {
+            for (int i = 0; i < fullBytes; i++) {
+                writeBits(array[i], 8);
+            }
+        }
+
+        if (data.padding() > 0) {
+            int bits = 8 - data.padding();
+            writeBits((array[array.length - 1] & 0xFF) >>> data.padding(), bits);
+        }
+    }
+
+    /**
+     * Writes the given bytes. If the stream is byte aligned, they are copied all at once.
+     *
+     * @param src The bytes to write.
+     * @param offset The index of the first byte to write.
+     * @param length The amount of bytes to write.
+     */
+    public void writeBytes(byte[] src, int offset, int length) {
+        if (bitsInBuffer == 0) {
+            ensureCapacity(length);
+            System.arraycopy(src, offset, bytes, size, length);
+            size += length;
+            return;
+        }
+
+        for (int i = offset; i < offset + length; i++) {
+            writeBits(src[i], 8);
+        }
+    }
+
+    /**
+     * Writes bytes of the given memory segment. If the stream is byte aligned, they are copied all at once,
+     * without copying them to the heap first.
+     *
+     * @param src The segment to write from.
+     * @param offset The offset of the first byte to write.
+     * @param length The amount of bytes to write.
+     */
+    public void writeBytes(MemorySegment src, long offset, int length) {
+        if (bitsInBuffer == 0) {
+            ensureCapacity(length);
+            MemorySegment.copy(src, ValueLayout.JAVA_BYTE, offset, bytes, size, length);
+            size += length;
+            return;
+        }
+
+        for (int i = 0; i < length; i++) {
+            writeBits(src.get(ValueLayout.JAVA_BYTE, offset + i), 8);
+        }
+    }
+
+    /**
+     * Writes the given amount of zero bytes.
+     *
+     * @param count The amount of bytes to write.
+     */
+    public void writeZeroBytes(int count) {
+        if (bitsInBuffer == 0) {
+            // bytes past the size are never written to, so they are zero already
+            ensureCapacity(count);
+            size += count;
+            return;
+        }
+
+        for (int i = 0; i < count; i++) {
+            writeBits(0, 8);
+        }
+    }
+
+    /**
+     * Writes the string as UTF-8, without creating an intermediate byte array.
+     *
+     * @param s The string to write.
+     * @return The amount of bytes written.
+     * @see #writeUtf8(CharSequence, int, int)
+     */
+    public int writeUtf8(CharSequence s) {
+        return writeUtf8(s, s.length(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Writes the first {@code end} chars of the string as UTF-8, without creating an intermediate byte array.
+     * Writing stops early if the next code point does not fit into {@code maxBytes}, code points are never split.
+     * Unpaired surrogates are written as {@code ?}, like {@link String#getBytes(java.nio.charset.Charset)} does.
+     *
+     * @param s The string to write.
+     * @param end The amount of chars to write.
+     * @param maxBytes The maximum amount of bytes to write.
+     * @return The amount of bytes written.
+     */
+    public int writeUtf8(CharSequence s, int end, int maxBytes) {
+        if (bitsInBuffer != 0) return writeUtf8Unaligned(s, end, maxBytes);
+
+        ensureCapacity((int) Math.min(maxBytes, end * 3L));
+        int start = size;
+        int limit = (int) Math.min((long) start + maxBytes, Integer.MAX_VALUE);
+        int i = 0;
+
+        // ASCII fast path
+        int asciiEnd = Math.min(end, limit - start);
+        while (i < asciiEnd) {
+            char c = s.charAt(i);
+            if (c >= 0x80) break;
+            bytes[size++] = (byte) c;
+            i++;
+        }
+
+        for (; i < end; i++) {
+            char c = s.charAt(i);
+            int codePoint = c;
+            if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(s.charAt(i + 1))) {
+                codePoint = Character.toCodePoint(c, s.charAt(i + 1));
+            } else if (Character.isSurrogate(c)) {
+                codePoint = '?';
+            }
+
+            int length = utf8Length(codePoint);
+            if (size + length > limit) break;
+            ensureCapacity(length);
+            size = encodeUtf8(codePoint, bytes, size);
+            if (codePoint > 0xFFFF) i++;
+        }
+
+        return size - start;
+    }
+
+    private int writeUtf8Unaligned(CharSequence s, int end, int maxBytes) {
+        byte[] encoded = new byte[4];
+        int written = 0;
+        for (int i = 0; i < end; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                if (written + 1 > maxBytes) break;
+                writeBits(c, 8);
+                written++;
+                continue;
+            }
+
+            int codePoint = c;
+            if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(s.charAt(i + 1))) {
+                codePoint = Character.toCodePoint(c, s.charAt(i + 1));
+            } else if (Character.isSurrogate(c)) {
+                codePoint = '?';
+            }
+
+            int length = encodeUtf8(codePoint, encoded, 0);
+            if (written + length > maxBytes) break;
+            for (int j = 0; j < length; j++) {
+                writeBits(encoded[j], 8);
+            }
+            written += length;
+            if (codePoint > 0xFFFF) i++;
+        }
+        return written;
+    }
+
+    private static int utf8Length(int codePoint) {
+        if (codePoint < 0x80) return 1;
+        if (codePoint < 0x800) return 2;
+        if (codePoint < 0x10000) return 3;
+        return 4;
+    }
+
+    /**
+     * @return The index after the last written byte.
+     */
+    private static int encodeUtf8(int codePoint, byte[] dst, int index) {
+        if (codePoint < 0x80) {
+            dst[index++] = (byte) codePoint;
+        } else if (codePoint < 0x800) {
+            dst[index++] = (byte) (0xC0 | (codePoint >> 6));
+            dst[index++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else if (codePoint < 0x10000) {
+            dst[index++] = (byte) (0xE0 | (codePoint >> 12));
+            dst[index++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            dst[index++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else {
+            dst[index++] = (byte) (0xF0 | (codePoint >> 18));
+            dst[index++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+            dst[index++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            dst[index++] = (byte) (0x80 | (codePoint & 0x3F));
+        }
+        return index;
+    }
+
+    /**
+     * Overwrites bits that have already been written, e.g. to fill in a length prefix once the length is known.
+     *
+     * @param bitPosition The position of the first bit to overwrite, as returned by {@link #getBitLength()}.
+     * @param value The value containing the bits to write.
+     * @param numBits The number of bits to overwrite (1 to 64).
+     * @throws IllegalArgumentException If the bits have not been written yet.
+     */
+    public void overwriteBits(long bitPosition, long value, int numBits) {
+        if (numBits < 1 || numBits > 64) {
+            throw new IllegalArgumentException("Number of bits must be between 1 and 64 (both inclusive). Requested: " + numBits);
+        }
+        if (bitPosition < 0 || bitPosition + numBits > getBitLength()) {
+            throw new IllegalArgumentException("Bits " + bitPosition + " to " + (bitPosition + numBits) + " have not been written yet. Length: " + getBitLength());
+        }
+
+        for (int i = 0; i < numBits; i++) {
+            int bit = (int) ((value >>> (numBits - 1 - i)) & 1);
+            long position = bitPosition + i;
+            int byteIndex = (int) (position >>> 3);
+
+            if (byteIndex < size) {
+                int shift = 7 - (int) (position & 7);
+                bytes[byteIndex] = (byte) ((bytes[byteIndex] & ~(1 << shift)) | (bit << shift));
+            } else {
+                // the bit is still in the buffer
+                int shift = bitsInBuffer - 1 - (int) (position & 7);
+                buffer = (buffer & ~(1 << shift)) | (bit << shift);
+            }
+        }
+    }
+
+    private void appendByte(int value) {
+        ensureCapacity(1);
+        bytes[size++] = (byte) value;
+    }
+
+    private void ensureCapacity(int additional) {
+        if (size + additional <= bytes.length) return;
+        int capacity = Math.max(bytes.length * 2, size + additional);
+        bytes = Arrays.copyOf(bytes, capacity);
+    }
+
+    /**
+     * @return The amount of bits written so far.
+     */
+    public long getBitLength() {
+        return size * 8L + bitsInBuffer;
+    }
 
     /**
      * Writes any remaining bits in the buffer, padding the last byte with zeros,
@@ -378,11 +690,11 @@ public class BinaryWriter {
             // The buffer holds the bits aligned to the left side of the final byte.
             // We need to shift them left to fill the 8-bit byte space.
             buffer <<= (8 - bitsInBuffer);
-            byteOut.write(buffer);
+            appendByte(buffer);
             buffer = 0;
             bitsInBuffer = 0;
         }
-        return byteOut.toByteArray();
+        return Arrays.copyOf(bytes, size);
     }
 
     public BinaryData toBinaryData() {
@@ -0,0 +1,209 @@
+package de.safti.specs.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * A canonical, length limited Huffman code for the symbols {@code 0} to {@code symbolCount() - 1}.
+ * Frequent symbols get short codes, rare symbols long ones. Symbols with a frequency of 0 have no code.
+ * <p>
+ * Codes are decoded using a lookup table indexed by the next {@link #maxLength()} bits,
+ * so decoding a symbol takes a single lookup regardless of its length.
+ *
+ * @see #fromFrequencies(long[])
+ */
+public final class HuffmanCode {
+    /**
+     * The maximum length of a code in bits.
+     */
+    public static final int MAX_LENGTH = 15;
+    private static final int LENGTH_BITS = 4;
+
+    private final int[] lengths;
+    private final int[] codes;
+    private final int maxLength;
+
+    // (symbol << LENGTH_BITS) | length for every possible value of the next maxLength bits, 0 for unused codes
+    private final int[] table;
+
+    private HuffmanCode(int[] lengths) {
+        this.lengths = lengths;
+        this.codes = new int[lengths.length];
+        this.maxLength = Arrays.stream(lengths).max().orElse(0);
+        this.table = new int[1 << maxLength];
+
+        // canonical codes: ordered by length, then by symbol
+        int code = 0;
+        for (int length = 1; length <= maxLength; length++) {
+            for (int symbol = 0; symbol < lengths.length; symbol++) {
+                if(lengths[symbol] != length) continue;
+
+                codes[symbol] = code;
+                int first = code << (maxLength - length);
+                Arrays.fill(table, first, first + (1 << (maxLength - length)), symbol << LENGTH_BITS | length);
+                code++;
+            }
+            code <<= 1;
+        }
+    }
+
+    /**
+     * Builds the optimal code for the given frequencies, limiting codes to {@link #MAX_LENGTH} bits.
+     *
+     * @param frequencies The frequency of every symbol. Symbols with a frequency of 0 get no code.
+     * @return The built code.
+     * @throws IllegalArgumentException If no symbol has a frequency above 0.
+     */
+    public static HuffmanCode fromFrequencies(long @NotNull [] frequencies) {
+        long[] weights = frequencies.clone();
+        while(true) {
+            int[] lengths = codeLengths(weights);
+            if(Arrays.stream(lengths).max().orElse(0) <= MAX_LENGTH) return new HuffmanCode(lengths);
+
+            // flatten the distribution until the longest code fits
+            for (int i = 0; i < weights.length; i++) {
+                if(weights[i] > 0) weights[i] = (weights[i] + 1) / 2;
+            }
+        }
+    }
+
+    private static int[] codeLengths(long[] weights) {
+        int symbols = weights.length;
+        int[] lengths = new int[symbols];
+
+        // nodes 0 to symbols - 1 are the leaves, the others are created whilst merging
+        int[] parents = new int[symbols * 2];
+        long[] nodeWeights = Arrays.copyOf(weights, symbols * 2);
+        PriorityQueue<Integer> queue = new PriorityQueue<>((a, b) -> nodeWeights[a] != nodeWeights[b] ? Long.compare(nodeWeights[a], nodeWeights[b]) : Integer.compare(a, b));
+        for (int i = 0; i < symbols; i++) {
+            if(weights[i] < 0) throw new IllegalArgumentException("Frequencies cannot be negative, but got " + weights[i]);
+            if(weights[i] > 0) queue.add(i);
+        }
+        if(queue.isEmpty()) throw new IllegalArgumentException("At least one symbol must have a frequency above 0.");
+
+        // a single symbol still needs a code of one bit
+        if(queue.size() == 1) {
+            lengths[queue.poll()] = 1;
+            return lengths;
+        }
+
+        int next = symbols;
+        while(queue.size() > 1) {
+            int a = queue.poll();
+            int b = queue.poll();
+            nodeWeights[next] = nodeWeights[a] + nodeWeights[b];
+            parents[a] = next;
+            parents[b] = next;
+            queue.add(next++);
+        }
+
+        int root = next - 1;
+        for (int i = 0; i < symbols; i++) {
+            if(weights[i] == 0) continue;
+            int length = 0;
+            for (int node = i; node != root; node = parents[node]) {
+                length++;
+            }
+            lengths[i] = length;
+        }
+        return lengths;
+    }
+
+    /**
+     * @return The amount of symbols, including those without code.
+     */
+    public int symbolCount() {
+        return lengths.length;
+    }
+
+    /**
+     * @return The length of the code of the symbol in bits, or 0 if the symbol has no code.
+     */
+    public int length(int symbol) {
+        return symbol < 0 || symbol >= lengths.length ? 0 : lengths[symbol];
+    }
+
+    /**
+     * @return The length of the longest code in bits.
+     */
+    public int maxLength() {
+        return maxLength;
+    }
+
+    /**
+     * @param frequencies The frequency of every symbol.
+     * @return The amount of bits needed to encode symbols of the given frequencies.
+     * @throws IllegalArgumentException If a symbol without code has a frequency above 0.
+     */
+    public long bitCost(long[] frequencies) {
+        long cost = 0;
+        for (int symbol = 0; symbol < frequencies.length; symbol++) {
+            if(frequencies[symbol] == 0) continue;
+            if(length(symbol) == 0) throw new IllegalArgumentException("Symbol " + symbol + " has no code.");
+            cost += frequencies[symbol] * lengths[symbol];
+        }
+        return cost;
+    }
+
+    public void write(BinaryWriter writer, int symbol) {
+        int length = length(symbol);
+        if(length == 0) throw new IllegalArgumentException("Symbol " + symbol + " has no code.");
+        writer.writeBits(codes[symbol], length);
+    }
+
+    /**
+     * @throws CorruptDataException If the next bits are not a valid code.
+     */
+    public int read(BinaryReader reader) {
+        int entry = table[(int) reader.peekBits(maxLength)];
+        if(entry == 0) throw new CorruptDataException("Invalid Huffman code at bit " + reader.getBitPosition());
+
+        reader.skipBits(entry & ((1 << LENGTH_BITS) - 1));
+        return entry >>> LENGTH_BITS;
+    }
+
+    /**
+     * Writes the code lengths, allowing the code to be rebuilt using {@link #readTable(BinaryReader)}.
+     * Layout: UVarInt symbol count, followed by 4 bits per symbol holding the length of its code.
+     */
+    public void writeTable(BinaryWriter writer) {
+        writer.writeUVarInt(lengths.length);
+        for (int length : lengths) {
+            writer.writeUInt(length, LENGTH_BITS);
+        }
+    }
+
+    public static HuffmanCode readTable(BinaryReader reader) {
+        int[] lengths = new int[Math.toIntExact(reader.readUVarInt())];
+        long kraft = 0;
+        for (int i = 0; i < lengths.length; i++) {
+            lengths[i] = (int) reader.readUInt(LENGTH_BITS);
+            if(lengths[i] > 0) kraft += 1L << (MAX_LENGTH - lengths[i]);
+        }
+
+        // the lengths of a valid code never exceed the code space
+        if(kraft == 0 || kraft > 1L << MAX_LENGTH) throw new CorruptDataException("Invalid Huffman code lengths.");
+        return new HuffmanCode(lengths);
+    }
+
+    /**
+     * @return The amount of bits {@link #writeTable(BinaryWriter)} writes, excluding the symbol count.
+     */
+    public int tableBits() {
+        return lengths.length * LENGTH_BITS;
+    }
+
+    // canonical codes are defined by their lengths alone
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof HuffmanCode other && Arrays.equals(lengths, other.lengths);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(lengths);
+    }
+
+}
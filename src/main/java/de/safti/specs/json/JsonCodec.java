@@ -0,0 +1,178 @@
+package de.safti.specs.json;
+
+import de.safti.specs.annotations.Spec;
+import de.safti.specs.format.FieldCodec;
+import de.safti.specs.format.SpecCodec;
+import de.safti.specs.io.BinaryReader;
+import de.safti.specs.layout.SpecContext;
+import de.safti.specs.layout.SpecLayout;
+import de.safti.specs.layout.common.SpecField;
+import de.safti.specs.layout.common.TypeDef;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Writes and reads specs as JSON objects, one member per field.
+ * The field names are escaped once per layout and resolved by their bytes when reading,
+ * every value is written and read by the {@link TypeDef} of its field.
+ * <p>
+ * Unknown members are skipped, missing members are set to the default value of their type, see {@link TypeDef#createDefault()}.
+ * <p>
+ * Specs encoded in the binary format can be transcoded to JSON without creating the spec, see {@link #transcode(BinaryReader, JsonWriter)}.
+ *
+ * @see JsonFormat
+ * @see TypeDef#writeJson(JsonWriter, Object)
+ * @see TypeDef#readJson(JsonReader, SpecContext)
+ */
+public final class JsonCodec implements SpecCodec<JsonWriter, JsonReader> {
+    private final SpecLayout layout;
+    private final SpecField[] fields;
+    private final FieldCodec<JsonWriter, JsonReader>[] codecs;
+    private final JsonNames names;
+
+    // fields referenced by other fields, for example length fields, have to be kept whilst transcoding
+    private final boolean[] referenced;
+    private final boolean anyReferenced;
+
+    JsonCodec(SpecLayout layout, JsonFormat format) {
+        this.layout = layout;
+        this.fields = layout.getFields();
+        this.codecs = format.codecs(fields);
+
+        String[] fieldNames = new String[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            fieldNames[i] = fields[i].name();
+        }
+        this.names = new JsonNames(fieldNames);
+
+        this.referenced = new boolean[fields.length];
+        boolean anyReferenced = false;
+        for (SpecField field : fields) {
+            for (String referencedField : field.type().referencedFields()) {
+                referenced[names.indexOf(referencedField)] = true;
+                anyReferenced = true;
+            }
+        }
+        this.anyReferenced = anyReferenced;
+    }
+
+    /**
+     * @return The codec of the given layout. Codecs are created once per layout.
+     * @see SpecLayout#codec(de.safti.specs.format.Format)
+     */
+    public static JsonCodec of(@NotNull SpecLayout layout) {
+        return (JsonCodec) layout.codec(JsonFormat.INSTANCE);
+    }
+
+    @Override
+    public void write(@NotNull Spec spec, @NotNull JsonWriter writer) {
+        writer.beginObject();
+        for (int i = 0; i < fields.length; i++) {
+            SpecField field = fields[i];
+            Object value;
+            try {
+                value = field.getter().invoke(spec);
+            } catch (Throwable e) {
+                throw new RuntimeException("Failed to read field " + field.name(), e);
+            }
+
+            writer.name(names.encoded(i));
+            try {
+                codecs[i].write(writer, value);
+            } catch (Exception e) {
+                throw new RuntimeException("Exception whilst writing field " + field.name() + " as JSON", e);
+            }
+        }
+        writer.endObject();
+    }
+
+    @Override
+    public Spec read(@NotNull JsonReader reader) {
+        Spec spec = layout.createInstance();
+        SpecContext context = new SpecContext(spec, layout);
+
+        boolean[] seen = new boolean[fields.length];
+        reader.beginObject();
+        while(reader.hasNext()) {
+            int index = reader.nextName(names);
+            if(index < 0) {
+                reader.skipValue();
+                continue;
+            }
+            seen[index] = true;
+
+            SpecField field = fields[index];
+            Object value;
+            try {
+                value = codecs[index].read(reader, context);
+            } catch (Exception e) {
+                throw new RuntimeException("Exception whilst reading field " + field.name() + " from JSON", e);
+            }
+            field.set(spec, value);
+        }
+        reader.endObject();
+
+        // missing members get the same defaults as SpecIO#generate
+        for (int i = 0; i < fields.length; i++) {
+            if(seen[i]) continue;
+            Object value = fields[i].type().createDefault();
+            if(value != null) fields[i].set(spec, value);
+        }
+
+        return spec;
+    }
+
+    /**
+     * Reads a spec encoded in the binary format and writes it as JSON, producing the same JSON as {@link #write(Spec, JsonWriter)}.
+     * No spec is created, and values are written straight from the reader where possible.
+     * Only the values of fields referenced by other fields are kept.
+     *
+     * @param reader The reader positioned at the start of the encoded spec.
+     * @param writer The writer to write to.
+     * @see TypeDef#transcodeJson(BinaryReader, SpecContext, JsonWriter)
+     */
+    public void transcode(@NotNull BinaryReader reader, @NotNull JsonWriter writer) {
+        TranscodeContext context = new TranscodeContext(layout, anyReferenced ? new Object[fields.length] : null);
+
+        writer.beginObject();
+        for (int i = 0; i < fields.length; i++) {
+            SpecField field = fields[i];
+            writer.name(names.encoded(i));
+            try {
+                if(referenced[i]) {
+                    Object value = field.type().read(reader, context);
+                    context.values[i] = value;
+                    field.type().writeJson(writer, value);
+                } else {
+                    field.type().transcodeJson(reader, context, writer);
+                }
+            } catch (Exception e) {
+                throw new RuntimeException("Exception whilst transcoding field " + field.name() + " to JSON", e);
+            }
+        }
+        writer.endObject();
+    }
+
+    public SpecLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Resolves referenced fields from the values kept whilst transcoding, as there is no spec to read them from.
+     */
+    private final class TranscodeContext extends SpecContext {
+        private final Object @Nullable [] values;
+
+        private TranscodeContext(SpecLayout layout, Object @Nullable [] values) {
+            super(null, layout);
+            this.values = values;
+        }
+
+        @Override
+        public @Nullable Object getFieldValue(String fieldName) {
+            int index = names.indexOf(fieldName);
+            return index < 0 || values == null ? null : values[index];
+        }
+    }
+
+}
@@ -0,0 +1,50 @@
+package de.safti.specs.json;
+
+import de.safti.specs.format.FieldCodec;
+import de.safti.specs.format.Format;
+import de.safti.specs.format.SpecCodec;
+import de.safti.specs.layout.SpecContext;
+import de.safti.specs.layout.SpecLayout;
+import de.safti.specs.layout.common.TypeDef;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The JSON format. Every spec is written as object, see {@link JsonCodec}.
+ *
+ * @see TypeDef#writeJson(JsonWriter, Object)
+ * @see TypeDef#readJson(JsonReader, SpecContext)
+ */
+public final class JsonFormat implements Format<JsonWriter, JsonReader> {
+    public static final JsonFormat INSTANCE = new JsonFormat();
+
+    private JsonFormat() {
+    }
+
+    @Override
+    public FieldCodec<JsonWriter, JsonReader> codec(TypeDef type) {
+        return new Codec(type);
+    }
+
+    @Override
+    public SpecCodec<JsonWriter, JsonReader> compile(SpecLayout layout) {
+        return new JsonCodec(layout, this);
+    }
+
+    private record Codec(TypeDef type) implements FieldCodec<JsonWriter, JsonReader> {
+
+        @Override
+        public void write(JsonWriter writer, @Nullable Object value) {
+            type.writeJson(writer, value);
+        }
+
+        @Override
+        public Object read(JsonReader reader, SpecContext context) {
+            if(reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                return type.createDefault();
+            }
+            return type.readJson(reader, context);
+        }
+    }
+
+}
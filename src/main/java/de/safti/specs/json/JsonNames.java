@@ -0,0 +1,94 @@
+package de.safti.specs.json;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A fixed set of field names, looked up by their raw UTF-8 bytes.
+ * Used by {@link JsonReader#nextName(JsonNames)} to resolve names without creating strings,
+ * and by {@link JsonWriter#name(byte[])} to write pre-escaped names.
+ */
+public final class JsonNames {
+    private final String[] names;
+    private final byte[][] utf8;
+    private final byte[][] encoded;
+
+    // open addressing table of name indices + 1, 0 marks an empty slot
+    private final int[] table;
+    private final int mask;
+
+    public JsonNames(String... names) {
+        this.names = names.clone();
+        this.utf8 = new byte[names.length][];
+        this.encoded = new byte[names.length][];
+
+        int capacity = Integer.highestOneBit(Math.max(4, names.length * 2) - 1) << 1;
+        this.table = new int[capacity];
+        this.mask = capacity - 1;
+
+        for (int i = 0; i < names.length; i++) {
+            utf8[i] = names[i].getBytes(StandardCharsets.UTF_8);
+            encoded[i] = JsonWriter.encodeName(names[i]);
+
+            int slot = hash(utf8[i], 0, utf8[i].length) & mask;
+            while(table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = i + 1;
+        }
+    }
+
+    /**
+     * @return The amount of names.
+     */
+    public int size() {
+        return names.length;
+    }
+
+    public String name(int index) {
+        return names[index];
+    }
+
+    /**
+     * @return The name including quotes and colon, ready to be passed to {@link JsonWriter#name(byte[])}.
+     */
+    public byte[] encoded(int index) {
+        return encoded[index];
+    }
+
+    /**
+     * @param bytes The array holding the UTF-8 encoded name.
+     * @param offset The index of the first byte of the name.
+     * @param length The amount of bytes of the name.
+     * @param hash The hash of the name, see {@link #hash(byte[], int, int)}.
+     * @return The index of the name, or -1 if it is not part of this set.
+     */
+    public int indexOf(byte[] bytes, int offset, int length, int hash) {
+        int slot = hash & mask;
+        while(true) {
+            int entry = table[slot];
+            if(entry == 0) return -1;
+
+            byte[] candidate = utf8[entry - 1];
+            if(Arrays.equals(candidate, 0, candidate.length, bytes, offset, offset + length)) return entry - 1;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public int indexOf(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        return indexOf(bytes, 0, bytes.length, hash(bytes, 0, bytes.length));
+    }
+
+    /**
+     * FNV-1a hash of the given bytes.
+     */
+    static int hash(byte[] bytes, int offset, int length) {
+        int hash = 0x811C9DC5;
+        for (int i = offset; i < offset + length; i++) {
+            hash = (hash ^ (bytes[i] & 0xFF)) * 0x01000193;
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+}
@@ -0,0 +1,491 @@
+package de.safti.specs.json;
+
+import de.safti.specs.io.CorruptDataException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A pull parser for UTF-8 encoded JSON.
+ * Names can be resolved against a {@link JsonNames} set without creating strings,
+ * and numbers are parsed straight from the bytes.
+ * <p>
+ * Malformed input results in a {@link CorruptDataException}.
+ *
+ * @see JsonWriter
+ */
+public class JsonReader {
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static final long MAX_UNSIGNED_DIV_10 = Long.divideUnsigned(-1L, 10);
+
+    private final byte[] bytes;
+    private final int end;
+    private int position;
+
+    // for every open object/array: true if it is an array
+    private boolean[] arrays = new boolean[16];
+    // for every open object/array: the amount of names/values read so far
+    private int[] counts = new int[16];
+    private int depth;
+    private boolean afterName;
+
+    public JsonReader(byte[] bytes) {
+        this(bytes, 0, bytes.length);
+    }
+
+    public JsonReader(byte[] bytes, int offset, int length) {
+        this.bytes = bytes;
+        this.position = offset;
+        this.end = offset + length;
+    }
+
+    /**
+     * Reads the whole stream. The stream is not closed.
+     */
+    public JsonReader(InputStream in) {
+        this(readAll(in));
+    }
+
+    private static byte[] readAll(InputStream in) {
+        try {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return The type of the next value, or {@link JsonToken#END} if the current object/array or the document is over.
+     */
+    public JsonToken peek() {
+        int p = skipWhitespace(position);
+        if(!afterName && depth > 0 && counts[depth - 1] > 0 && p < end && bytes[p] == ',') p = skipWhitespace(p + 1);
+        if(p >= end) return JsonToken.END;
+
+        return switch (bytes[p]) {
+            case '{' -> JsonToken.BEGIN_OBJECT;
+            case '[' -> JsonToken.BEGIN_ARRAY;
+            case '}', ']' -> JsonToken.END;
+            case '"' -> depth > 0 && !arrays[depth - 1] && !afterName ? JsonToken.NAME : JsonToken.STRING;
+            case 't', 'f' -> JsonToken.BOOLEAN;
+            case 'n' -> JsonToken.NULL;
+            default -> JsonToken.NUMBER;
+        };
+    }
+
+    /**
+     * @return true if the current object/array has more elements.
+     */
+    public boolean hasNext() {
+        return peek() != JsonToken.END;
+    }
+
+    public void beginObject() {
+        beforeValue();
+        expect('{');
+        push(false);
+    }
+
+    public void endObject() {
+        pop(false, '}');
+    }
+
+    public void beginArray() {
+        beforeValue();
+        expect('[');
+        push(true);
+    }
+
+    public void endArray() {
+        pop(true, ']');
+    }
+
+    /**
+     * Reads a name and resolves it against the given names, without creating a string.
+     *
+     * @param names The names to resolve against.
+     * @return The index of the name, or -1 if the name is unknown.
+     */
+    public int nextName(JsonNames names) {
+        beforeName();
+
+        int start = position;
+        int length = scanString();
+        int index;
+        if(length >= 0) {
+            index = names.indexOf(bytes, start, length, JsonNames.hash(bytes, start, length));
+        } else {
+            // escaped names are rare, decode them the slow way
+            position = start - 1;
+            index = names.indexOf(readString());
+        }
+
+        afterNameSeparator();
+        return index;
+    }
+
+    public String nextName() {
+        beforeName();
+        position--;
+        String name = readString();
+        afterNameSeparator();
+        return name;
+    }
+
+    public String nextString() {
+        beforeValue();
+        return readString();
+    }
+
+    public boolean nextBoolean() {
+        beforeValue();
+        if(matches("true")) return true;
+        if(matches("false")) return false;
+        throw error("Expected boolean");
+    }
+
+    public void nextNull() {
+        beforeValue();
+        if(!matches("null")) throw error("Expected null");
+    }
+
+    /**
+     * Reads an integer. Decimals without fraction, like {@code 1.0} or {@code 1e3}, are accepted as well.
+     *
+     * @throws CorruptDataException If the number has a fraction or does not fit into a long.
+     */
+    public long nextLong() {
+        beforeValue();
+        int start = position;
+
+        boolean negative = consume('-');
+        if(position >= end || !isDigit(bytes[position])) throw error("Expected number");
+
+        long value = 0;
+        while(position < end && isDigit(bytes[position])) {
+            int digit = bytes[position++] - '0';
+            // accumulate negatively, so Long.MIN_VALUE can be parsed as well
+            if(value < (Long.MIN_VALUE + digit) / 10) throw error("Number does not fit into a long");
+            value = value * 10 - digit;
+        }
+
+        if(position < end && (bytes[position] == '.' || bytes[position] == 'e' || bytes[position] == 'E')) {
+            position = start;
+            double decimal = parseDouble();
+            if(decimal != Math.rint(decimal) || Math.abs(decimal) >= 0x1p63) throw error("Expected integer but got " + decimal);
+            return (long) decimal;
+        }
+
+        if(!negative) {
+            if(value == Long.MIN_VALUE) throw error("Number does not fit into a long");
+            value = -value;
+        }
+        return value;
+    }
+
+    /**
+     * Reads an unsigned integer of up to 64 bits. Values above {@link Long#MAX_VALUE} are returned as negative longs.
+     */
+    public long nextUnsignedLong() {
+        beforeValue();
+        if(position >= end || !isDigit(bytes[position])) throw error("Expected unsigned number");
+
+        long value = 0;
+        while(position < end && isDigit(bytes[position])) {
+            int digit = bytes[position++] - '0';
+            if(Long.compareUnsigned(value, MAX_UNSIGNED_DIV_10) > 0 || (value == MAX_UNSIGNED_DIV_10 && digit > 5)) throw error("Number does not fit into an unsigned long");
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Reads a decimal. The strings {@code NaN}, {@code Infinity} and {@code -Infinity} are accepted as well.
+     */
+    public double nextDouble() {
+        beforeValue();
+        if(position < end && bytes[position] == '"') {
+            String s = readString();
+            return switch (s) {
+                case "NaN" -> Double.NaN;
+                case "Infinity" -> Double.POSITIVE_INFINITY;
+                case "-Infinity" -> Double.NEGATIVE_INFINITY;
+                default -> throw error("Expected number but got \"" + s + "\"");
+            };
+        }
+        return parseDouble();
+    }
+
+    public BigInteger nextBigInteger() {
+        beforeValue();
+        int start = position;
+        consume('-');
+        while(position < end && isDigit(bytes[position])) {
+            position++;
+        }
+        if(position == start || (position == start + 1 && bytes[start] == '-')) throw error("Expected integer");
+        return new BigInteger(new String(bytes, start, position - start, StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Skips the next value, including all nested values.
+     */
+    public void skipValue() {
+        switch (peek()) {
+            case BEGIN_OBJECT -> {
+                beginObject();
+                while(hasNext()) {
+                    nextName();
+                    skipValue();
+                }
+                endObject();
+            }
+            case BEGIN_ARRAY -> {
+                beginArray();
+                while(hasNext()) {
+                    skipValue();
+                }
+                endArray();
+            }
+            case STRING -> nextString();
+            case BOOLEAN -> nextBoolean();
+            case NULL -> nextNull();
+            case NUMBER -> {
+                beforeValue();
+                parseDouble();
+            }
+            default -> throw error("Expected value");
+        }
+    }
+
+    // --- structure ---
+
+    private void beforeName() {
+        if(depth == 0 || arrays[depth - 1] || afterName) throw error("Expected value, not a name");
+        position = skipWhitespace(position);
+        if(counts[depth - 1]++ > 0) {
+            expect(',');
+            position = skipWhitespace(position);
+        }
+        expect('"');
+    }
+
+    private void afterNameSeparator() {
+        position = skipWhitespace(position);
+        expect(':');
+        afterName = true;
+    }
+
+    private void beforeValue() {
+        position = skipWhitespace(position);
+        if(afterName) {
+            afterName = false;
+            return;
+        }
+        if(depth == 0) return;
+        if(!arrays[depth - 1]) throw error("Expected name");
+
+        if(counts[depth - 1]++ > 0) {
+            expect(',');
+            position = skipWhitespace(position);
+        }
+    }
+
+    private void push(boolean array) {
+        if(depth == arrays.length) {
+            arrays = Arrays.copyOf(arrays, depth * 2);
+            counts = Arrays.copyOf(counts, depth * 2);
+        }
+        arrays[depth] = array;
+        counts[depth] = 0;
+        depth++;
+    }
+
+    private void pop(boolean array, char closing) {
+        if(depth == 0 || arrays[depth - 1] != array || afterName) throw error("Unexpected " + closing);
+        position = skipWhitespace(position);
+        expect(closing);
+        depth--;
+    }
+
+    // --- values ---
+
+    /**
+     * Scans a string without escapes, the opening quote must already be consumed.
+     *
+     * @return The length of the string in bytes, or -1 if the string contains escapes.
+     */
+    private int scanString() {
+        int start = position;
+        for (int i = start; i < end; i++) {
+            byte b = bytes[i];
+            if(b == '"') {
+                position = i + 1;
+                return i - start;
+            }
+            if(b == '\\') return -1;
+        }
+        throw error("Unterminated string");
+    }
+
+    private String readString() {
+        expect('"');
+        int start = position;
+        int length = scanString();
+        if(length >= 0) return new String(bytes, start, length, StandardCharsets.UTF_8);
+
+        // decode escapes
+        StringBuilder builder = new StringBuilder();
+        position = start;
+        int chunkStart = start;
+        while(true) {
+            if(position >= end) throw error("Unterminated string");
+            byte b = bytes[position];
+            if(b == '"') {
+                builder.append(new String(bytes, chunkStart, position - chunkStart, StandardCharsets.UTF_8));
+                position++;
+                return builder.toString();
+            }
+            if(b != '\\') {
+                position++;
+                continue;
+            }
+
+            builder.append(new String(bytes, chunkStart, position - chunkStart, StandardCharsets.UTF_8));
+            if(position + 1 >= end) throw error("Unterminated escape");
+            byte escaped = bytes[position + 1];
+            position += 2;
+            switch (escaped) {
+                case '"' -> builder.append('"');
+                case '\\' -> builder.append('\\');
+                case '/' -> builder.append('/');
+                case 'b' -> builder.append('\b');
+                case 'f' -> builder.append('\f');
+                case 'n' -> builder.append('\n');
+                case 'r' -> builder.append('\r');
+                case 't' -> builder.append('\t');
+                case 'u' -> {
+                    if(position + 4 > end) throw error("Unterminated escape");
+                    int c = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(bytes[position++], 16);
+                        if(digit < 0) throw error("Invalid unicode escape");
+                        c = (c << 4) | digit;
+                    }
+                    builder.append((char) c);
+                }
+                default -> throw error("Invalid escape \\" + (char) escaped);
+            }
+            chunkStart = position;
+        }
+    }
+
+    /**
+     * Parses a number at the current position. Numbers with up to 15 significant digits and a small exponent are parsed exactly
+     * using a single multiplication or division, all others are passed to {@link Double#parseDouble(String)}.
+     */
+    private double parseDouble() {
+        int start = position;
+        boolean negative = consume('-');
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean any = false;
+
+        while(position < end && isDigit(bytes[position])) {
+            any = true;
+            if(digits < 18) {
+                mantissa = mantissa * 10 + (bytes[position] - '0');
+                if(mantissa != 0) digits++;
+            } else {
+                digits++;
+                exponent++;
+            }
+            position++;
+        }
+        if(consume('.')) {
+            while(position < end && isDigit(bytes[position])) {
+                any = true;
+                if(digits < 18) {
+                    mantissa = mantissa * 10 + (bytes[position] - '0');
+                    if(mantissa != 0) digits++;
+                    exponent--;
+                } else {
+                    digits++;
+                }
+                position++;
+            }
+        }
+        if(!any) throw error("Expected number");
+
+        if(position < end && (bytes[position] == 'e' || bytes[position] == 'E')) {
+            position++;
+            boolean negativeExponent = consume('-');
+            if(!negativeExponent) consume('+');
+            if(position >= end || !isDigit(bytes[position])) throw error("Expected exponent");
+
+            int explicit = 0;
+            while(position < end && isDigit(bytes[position])) {
+                explicit = Math.min(explicit * 10 + (bytes[position++] - '0'), 100_000);
+            }
+            exponent += negativeExponent ? -explicit : explicit;
+        }
+
+        if(digits <= 15 && Math.abs(exponent) <= 22) {
+            double value = mantissa;
+            value = exponent >= 0 ? value * POWERS_OF_TEN[exponent] : value / POWERS_OF_TEN[-exponent];
+            return negative ? -value : value;
+        }
+        return Double.parseDouble(new String(bytes, start, position - start, StandardCharsets.US_ASCII));
+    }
+
+    // --- bytes ---
+
+    private int skipWhitespace(int p) {
+        while(p < end) {
+            byte b = bytes[p];
+            if(b != ' ' && b != '\n' && b != '\r' && b != '\t') break;
+            p++;
+        }
+        return p;
+    }
+
+    private boolean matches(String literal) {
+        if(position + literal.length() > end) return false;
+        for (int i = 0; i < literal.length(); i++) {
+            if(bytes[position + i] != literal.charAt(i)) return false;
+        }
+        position += literal.length();
+        return true;
+    }
+
+    private boolean consume(char c) {
+        if(position < end && bytes[position] == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) {
+        if(!consume(c)) throw error("Expected '" + c + "'");
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private CorruptDataException error(String message) {
+        return new CorruptDataException(message + " at byte " + position);
+    }
+
+}
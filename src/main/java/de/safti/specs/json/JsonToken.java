@@ -0,0 +1,18 @@
+package de.safti.specs.json;
+
+/**
+ * The types of values returned by {@link JsonReader#peek()}.
+ */
+public enum JsonToken {
+    BEGIN_OBJECT,
+    BEGIN_ARRAY,
+    NAME,
+    STRING,
+    NUMBER,
+    BOOLEAN,
+    NULL,
+    /**
+     * The end of an object, an array or the document.
+     */
+    END
+}
@@ -0,0 +1,360 @@
+package de.safti.specs.json;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A streaming JSON writer emitting UTF-8 bytes.
+ * Values are encoded straight into an internal buffer, which is flushed to the output stream once it is full.
+ * Commas are inserted automatically.
+ * <p>
+ * Field names are expected to be encoded once using {@link #encodeName(String)}, so writing a name is a single copy.
+ *
+ * @see JsonReader
+ */
+public class JsonWriter {
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+
+    private final @Nullable OutputStream out;
+    private byte[] buffer;
+    private int size;
+
+    // for every open object/array, if a value has been written already
+    private boolean[] hasValues = new boolean[16];
+    private int depth;
+    private boolean afterName;
+
+    /**
+     * Creates a writer flushing to the given stream. {@link #flush()} must be called once writing is done.
+     */
+    public JsonWriter(OutputStream out) {
+        this.out = out;
+        this.buffer = new byte[8192];
+    }
+
+    /**
+     * Creates a writer keeping everything in memory. Use {@link #toByteArray()} to get the written bytes.
+     */
+    public JsonWriter() {
+        this.out = null;
+        this.buffer = new byte[256];
+    }
+
+    /**
+     * Encodes a field name including quotes and the colon, ready to be passed to {@link #name(byte[])}.
+     *
+     * @param name The name of the field.
+     * @return The escaped name.
+     */
+    public static byte[] encodeName(String name) {
+        JsonWriter writer = new JsonWriter();
+        writer.writeString(name);
+        writer.writeByte(':');
+        return writer.toByteArray();
+    }
+
+    public JsonWriter beginObject() {
+        beforeValue();
+        writeByte('{');
+        push();
+        return this;
+    }
+
+    public JsonWriter endObject() {
+        pop();
+        writeByte('}');
+        return this;
+    }
+
+    public JsonWriter beginArray() {
+        beforeValue();
+        writeByte('[');
+        push();
+        return this;
+    }
+
+    public JsonWriter endArray() {
+        pop();
+        writeByte(']');
+        return this;
+    }
+
+    /**
+     * Writes a field name.
+     *
+     * @param encodedName The name, as returned by {@link #encodeName(String)}.
+     */
+    public JsonWriter name(byte[] encodedName) {
+        if(depth == 0) throw new IllegalStateException("Names can only be written inside of objects.");
+        if(hasValues[depth - 1]) writeByte(',');
+        hasValues[depth - 1] = true;
+        writeBytes(encodedName, 0, encodedName.length);
+        afterName = true;
+        return this;
+    }
+
+    public JsonWriter name(String name) {
+        return name(encodeName(name));
+    }
+
+    public JsonWriter value(long value) {
+        beforeValue();
+        writeLong(value);
+        return this;
+    }
+
+    /**
+     * Writes the value as unsigned number.
+     */
+    public JsonWriter unsignedValue(long value) {
+        if(value >= 0) return value(value);
+
+        beforeValue();
+        writeAscii(Long.toUnsignedString(value));
+        return this;
+    }
+
+    /**
+     * Writes a decimal. As JSON has no representation for them, NaN and infinite values are written as strings.
+     */
+    public JsonWriter value(double value) {
+        if(!Double.isFinite(value)) return value(Double.toString(value));
+        if(value == (long) value && Math.abs(value) < 1e15 && !(value == 0 && 1 / value < 0)) return value((long) value);
+
+        beforeValue();
+        writeAscii(Double.toString(value));
+        return this;
+    }
+
+    /**
+     * @see #value(double)
+     */
+    public JsonWriter value(float value) {
+        if(!Float.isFinite(value)) return value(Float.toString(value));
+        if(value == (long) value && Math.abs(value) < 1e7 && !(value == 0 && 1 / value < 0)) return value((long) value);
+
+        beforeValue();
+        writeAscii(Float.toString(value));
+        return this;
+    }
+
+    public JsonWriter value(BigInteger value) {
+        beforeValue();
+        writeAscii(value.toString());
+        return this;
+    }
+
+    public JsonWriter value(boolean value) {
+        beforeValue();
+        byte[] bytes = value ? TRUE : FALSE;
+        writeBytes(bytes, 0, bytes.length);
+        return this;
+    }
+
+    public JsonWriter value(@Nullable String value) {
+        if(value == null) return nullValue();
+
+        beforeValue();
+        writeString(value);
+        return this;
+    }
+
+    public JsonWriter nullValue() {
+        beforeValue();
+        writeBytes(NULL, 0, NULL.length);
+        return this;
+    }
+
+    /**
+     * Writes the buffered bytes to the output stream.
+     *
+     * @throws UncheckedIOException If the stream could not be written to.
+     */
+    public void flush() {
+        if(out == null) return;
+        writeBuffer();
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return The bytes written so far, if this writer does not write to a stream.
+     */
+    public byte[] toByteArray() {
+        if(out != null) throw new IllegalStateException("This writer writes to a stream.");
+        return Arrays.copyOf(buffer, size);
+    }
+
+    @Override
+    public String toString() {
+        return out == null ? new String(buffer, 0, size, StandardCharsets.UTF_8) : super.toString();
+    }
+
+    // --- internals ---
+
+    private void beforeValue() {
+        if(afterName) {
+            afterName = false;
+            return;
+        }
+        if(depth == 0) return;
+
+        if(hasValues[depth - 1]) writeByte(',');
+        hasValues[depth - 1] = true;
+    }
+
+    private void push() {
+        if(depth == hasValues.length) hasValues = Arrays.copyOf(hasValues, depth * 2);
+        hasValues[depth++] = false;
+    }
+
+    private void pop() {
+        if(depth == 0 || afterName) throw new IllegalStateException("Nothing to close.");
+        depth--;
+    }
+
+    private void writeLong(long value) {
+        if(value == Long.MIN_VALUE) {
+            writeAscii("-9223372036854775808");
+            return;
+        }
+
+        ensureCapacity(20);
+        if(value < 0) {
+            buffer[size++] = '-';
+            value = -value;
+        }
+
+        int digits = 1;
+        for (long remaining = value; remaining >= 10; remaining /= 10) {
+            digits++;
+        }
+
+        // the digits are written from the least significant one
+        int end = size + digits;
+        for (int i = end - 1; i >= size; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        size = end;
+    }
+
+    private void writeString(String s) {
+        ensureCapacity(s.length() + 2);
+        buffer[size++] = '"';
+
+        int length = s.length();
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if(c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                ensureCapacity(1);
+                buffer[size++] = (byte) c;
+                continue;
+            }
+
+            switch (c) {
+                case '"' -> writeEscape('"');
+                case '\\' -> writeEscape('\\');
+                case '\n' -> writeEscape('n');
+                case '\r' -> writeEscape('r');
+                case '\t' -> writeEscape('t');
+                case '\b' -> writeEscape('b');
+                case '\f' -> writeEscape('f');
+                default -> {
+                    if(c < 0x20) {
+                        writeUnicodeEscape(c);
+                    } else if(c < 0x800) {
+                        ensureCapacity(2);
+                        buffer[size++] = (byte) (0xC0 | (c >> 6));
+                        buffer[size++] = (byte) (0x80 | (c & 0x3F));
+                    } else if(Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                        int codePoint = Character.toCodePoint(c, s.charAt(++i));
+                        ensureCapacity(4);
+                        buffer[size++] = (byte) (0xF0 | (codePoint >> 18));
+                        buffer[size++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                        buffer[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                        buffer[size++] = (byte) (0x80 | (codePoint & 0x3F));
+                    } else if(Character.isSurrogate(c)) {
+                        // unpaired surrogates cannot be encoded as UTF-8
+                        writeUnicodeEscape(c);
+                    } else {
+                        ensureCapacity(3);
+                        buffer[size++] = (byte) (0xE0 | (c >> 12));
+                        buffer[size++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                        buffer[size++] = (byte) (0x80 | (c & 0x3F));
+                    }
+                }
+            }
+        }
+
+        ensureCapacity(1);
+        buffer[size++] = '"';
+    }
+
+    private void writeEscape(char c) {
+        ensureCapacity(2);
+        buffer[size++] = '\\';
+        buffer[size++] = (byte) c;
+    }
+
+    private void writeUnicodeEscape(char c) {
+        ensureCapacity(6);
+        buffer[size++] = '\\';
+        buffer[size++] = 'u';
+        buffer[size++] = HEX[(c >> 12) & 0xF];
+        buffer[size++] = HEX[(c >> 8) & 0xF];
+        buffer[size++] = HEX[(c >> 4) & 0xF];
+        buffer[size++] = HEX[c & 0xF];
+    }
+
+    private void writeAscii(String s) {
+        ensureCapacity(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            buffer[size++] = (byte) s.charAt(i);
+        }
+    }
+
+    private void writeByte(char c) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) c;
+    }
+
+    private void writeBytes(byte[] bytes, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, buffer, size, length);
+        size += length;
+    }
+
+    private void writeBuffer() {
+        try {
+            out.write(buffer, 0, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        size = 0;
+    }
+
+    private void ensureCapacity(int additional) {
+        if(size + additional <= buffer.length) return;
+
+        // flush to the stream if possible, otherwise grow
+        if(out != null && additional <= buffer.length) {
+            writeBuffer();
+            return;
+        }
+        buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + additional));
+    }
+
+}
@@ -1,6 +1,8 @@
 package de.safti.specs.layout;
 
 import de.safti.specs.annotations.Spec;
+import de.safti.specs.format.Format;
+import de.safti.specs.format.SpecCodec;
 import de.safti.specs.io.BinaryData;
 import de.safti.specs.io.BinaryReader;
 import de.safti.specs.io.BinaryWriter;
@@ -16,6 +18,8 @@ import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 public class ClassLayout implements SpecLayout {
@@ -25,6 +29,13 @@ public class ClassLayout implements SpecLayout {
 
     protected final SpecField[] fields;
 
+    /**
+     * The bit offset of every field, or -1 for every field following a field without fixed bit size.
+     */
+    protected final long[] bitOffsets;
+
+    private final Map<Format<?, ?>, SpecCodec<?, ?>> codecs = new ConcurrentHashMap<>();
+
     public ClassLayout(Class<? extends Spec> specClass) {
         this.specClass = specClass;
 
@@ -43,6 +54,7 @@ public class ClassLayout implements SpecLayout {
             }
 
             this.fields = list.toArray(SpecField[]::new);
+            this.bitOffsets = computeBitOffsets(this.fields);
 
 
         } catch (NoSuchMethodException e) {
@@ -56,7 +68,20 @@ public class ClassLayout implements SpecLayout {
         this.specClass = specClass;
         this.constructorHandle = constructorHandle;
         this.fields = fields;
+        this.bitOffsets = computeBitOffsets(fields);
+    }
+
+    private static long[] computeBitOffsets(SpecField[] fields) {
+        long[] offsets = new long[fields.length];
+        long offset = 0;
+        for (int i = 0; i < fields.length; i++) {
+            offsets[i] = offset;
+            if(offset < 0) continue;
 
+            long size = fields[i].type().fixedBitSize();
+            offset = size < 0 ? -1 : offset + size;
+        }
+        return offsets;
     }
 
     @Override
@@ -78,6 +103,13 @@ public class ClassLayout implements SpecLayout {
 
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public <W, R> SpecCodec<W, R> codec(Format<W, R> format) {
+        // a codec is only ever stored under the format that compiled it
+        return (SpecCodec<W, R>) codecs.computeIfAbsent(format, f -> format.compile(this));
+    }
+
     @Override
     public @Nullable SpecField getField(String name) {
         for (SpecField specField : fields) {
@@ -115,6 +147,111 @@ public class ClassLayout implements SpecLayout {
         return instance;
     }
 
+    @Override
+    public void readInto(BinaryData data, Spec target) {
+        BinaryReader reader = new BinaryReader(data);
+        SpecContext context = new SpecContext(target, this);
+
+        for (SpecField field : fields) {
+            try {
+                Object previous = field.getter().invoke(target);
+                field.set(target, field.type().readInto(reader, context, previous));
+            } catch (Throwable e) {
+                throw new RuntimeException("Exception whilst populating field " + field.name() + " from raw data", e);
+            }
+        }
+
+        if(reader.hasMore()) throw new IllegalStateException("More data is found! It is likely that the wrong spec was provided for reading, or data corruption.");
+    }
+
+    @Override
+    public Spec create(BinaryData data, String... fieldNames) {
+        boolean[] decode = new boolean[fields.length];
+        int last = -1;
+        for (String fieldName : fieldNames) {
+            int index = indexOf(fieldName);
+            decode[index] = true;
+            last = Math.max(last, index);
+        }
+
+        // fields that are referenced by fields in front of the last requested field are required for skipping
+        for (int i = 0; i <= last; i++) {
+            for (String referenced : fields[i].type().referencedFields()) {
+                decode[indexOf(referenced)] = true;
+            }
+        }
+
+        Spec instance = createInstance();
+
+        // fields that are not decoded get the same defaults as SpecIO#generate
+        for (int i = 0; i < fields.length; i++) {
+            if(decode[i]) continue;
+            Object value = fields[i].type().createDefault();
+            if(value != null) fields[i].set(instance, value);
+        }
+        if(last < 0) return instance;
+
+        BinaryReader reader = new BinaryReader(data);
+        SpecContext context = new SpecContext(instance, this);
+
+        // jump over the leading fixed size fields that are not decoded
+        int start = 0;
+        while(start < last && !decode[start] && bitOffsets[start + 1] >= 0) {
+            start++;
+        }
+        reader.seek(bitOffsets[start]);
+
+        // everything after the last requested field does not need to be touched
+        for (int i = start; i <= last; i++) {
+            SpecField field = fields[i];
+            try {
+                if(decode[i]) field.set(instance, field.type().read(reader, context));
+                else field.type().skip(reader, context);
+            } catch (Throwable e) {
+                throw new RuntimeException("Exception whilst " + (decode[i] ? "populating" : "skipping") + " field " + field.name() + " from raw data", e);
+            }
+        }
+
+        return instance;
+    }
+
+    @Override
+    public Object readField(BinaryData data, String fieldName) {
+        int index = indexOf(fieldName);
+        SpecField field = fields[index];
+
+        // fields depending on other fields need them to be decoded first
+        if(bitOffsets[index] < 0 || !field.type().referencedFields().isEmpty()) {
+            Spec spec = create(data, fieldName);
+            try {
+                return field.getter().invoke(spec);
+            } catch (Throwable e) {
+                throw new RuntimeException("Failed to read from field " + field.name(), e);
+            }
+        }
+
+        BinaryReader reader = new BinaryReader(data);
+        reader.seek(bitOffsets[index]);
+        try {
+            // the field references no other fields, so the context needs no spec to resolve them from
+            return field.type().read(reader, new SpecContext(null, this));
+        } catch (Exception e) {
+            throw new RuntimeException("Exception whilst reading field " + field.name() + " from raw data", e);
+        }
+    }
+
+    @Override
+    public long getBitOffset(String fieldName) {
+        return bitOffsets[indexOf(fieldName)];
+    }
+
+    private int indexOf(String fieldName) {
+        for (int i = 0; i < fields.length; i++) {
+            if(fields[i].name().equals(fieldName)) return i;
+        }
+        throw new IllegalArgumentException("Field " + fieldName + " not found in spec " + specClass.getCanonicalName());
+    }
+
     @Override
     public Spec createInstance() {
         try {
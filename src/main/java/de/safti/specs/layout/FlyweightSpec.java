@@ -0,0 +1,107 @@
+package de.safti.specs.layout;
+
+import de.safti.specs.annotations.Spec;
+import de.safti.specs.io.BinaryData;
+import de.safti.specs.io.BinaryReader;
+import de.safti.specs.layout.common.SpecField;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Base class of the flyweight views generated by {@link InterfaceLayout}.
+ * A view only holds a reference to the encoded data, every getter decodes its field on demand.
+ * Views are read only, calling a setter throws an {@link UnsupportedOperationException}.
+ * <p>
+ * Fields following a field without fixed bit size are located by skipping the fields in front of them.
+ * If memoization is enabled, the offsets found that way are remembered, so skipping only happens once per field.
+ * The offset cache is only allocated once such a field is decoded, views of specs without those fields never allocate it.
+ * Fields at a fixed offset that do not reference other fields are read directly, reusing a single reader per view.
+ * Like the specs created by a layout, views are not thread safe.
+ *
+ * @see InterfaceLayout#view(BinaryData, long, boolean)
+ */
+public abstract class FlyweightSpec {
+    private final ClassLayout layout;
+    private final BinaryData data;
+    private final long bitOffset;
+    private final boolean memoize;
+    private long @Nullable [] knownOffsets;
+    private @Nullable BinaryReader reader;
+    private @Nullable SpecContext context;
+
+    public FlyweightSpec(ClassLayout layout, BinaryData data, long bitOffset, boolean memoize) {
+        this.layout = layout;
+        this.data = data;
+        this.bitOffset = bitOffset;
+        this.memoize = memoize;
+    }
+
+    /**
+     * Decodes a single field. Called by the generated getters.
+     *
+     * @param index The index of the field in the layout.
+     * @return The decoded value.
+     */
+    protected final Object decode(int index) {
+        SpecField field = layout.fields[index];
+        // referenced fields are resolved using the getters of this view
+        if(context == null) context = new SpecContext((Spec) this, layout);
+
+        // fields at a known offset are read directly, nothing is read through the getters, so the reader can be reused
+        long offset = layout.bitOffsets[index];
+        if(offset >= 0 && field.type().referencedFields().isEmpty()) {
+            if(reader == null) reader = new BinaryReader(data);
+            reader.seek(bitOffset + offset);
+            try {
+                return field.type().read(reader, context);
+            } catch (Exception e) {
+                throw new RuntimeException("Exception whilst decoding field " + field.name() + " from raw data", e);
+            }
+        }
+
+        long[] offsets = knownOffsets != null ? knownOffsets : layout.bitOffsets;
+        SpecField[] fields = layout.fields;
+        if(memoize && offsets[index] < 0 && knownOffsets == null) {
+            offsets = knownOffsets = layout.bitOffsets.clone();
+        }
+
+        // the first field always has a known offset
+        int start = index;
+        while(offsets[start] < 0) {
+            start--;
+        }
+
+        // the getters called for referenced fields may decode as well, so this needs its own reader
+        BinaryReader reader = new BinaryReader(data);
+        reader.seek(bitOffset + offsets[start]);
+
+        for (int i = start; i < index; i++) {
+            try {
+                fields[i].type().skip(reader, context);
+            } catch (Exception e) {
+                throw new RuntimeException("Exception whilst skipping field " + fields[i].name() + " from raw data", e);
+            }
+            if(knownOffsets != null) knownOffsets[i + 1] = reader.getBitPosition() - bitOffset;
+        }
+
+        try {
+            return field.type().read(reader, context);
+        } catch (Exception e) {
+            throw new RuntimeException("Exception whilst decoding field " + field.name() + " from raw data", e);
+        }
+    }
+
+    /**
+     * @return The data this view reads from.
+     */
+    public BinaryData getData() {
+        return data;
+    }
+
+    /**
+     * @return The bit offset of the spec in the data.
+     */
+    public long getBitOffset() {
+        return bitOffset;
+    }
+
+}
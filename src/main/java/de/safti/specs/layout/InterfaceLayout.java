@@ -4,21 +4,30 @@ import de.safti.specs.SpecFormatException;
 import de.safti.specs.annotations.Field;
 import de.safti.specs.annotations.InterfaceSpecImpl;
 import de.safti.specs.annotations.Spec;
+import de.safti.specs.io.BinaryData;
 import de.safti.specs.layout.common.SpecField;
 import de.safti.specs.utils.Checkers;
 import de.safti.specs.utils.GenericTypeResolver;
 import de.safti.specs.utils.Reflect;
 import net.bytebuddy.ByteBuddy;
 import net.bytebuddy.description.annotation.AnnotationDescription;
+import net.bytebuddy.dynamic.DynamicType;
 import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.dynamic.scaffold.subclass.ConstructorStrategy;
+import net.bytebuddy.implementation.ExceptionMethod;
 import net.bytebuddy.implementation.FieldAccessor;
 import net.bytebuddy.implementation.FixedValue;
+import net.bytebuddy.implementation.MethodCall;
 import net.bytebuddy.implementation.MethodDelegation;
 import net.bytebuddy.implementation.bind.annotation.Argument;
 import net.bytebuddy.implementation.bind.annotation.RuntimeType;
 import net.bytebuddy.implementation.bind.annotation.This;
+import net.bytebuddy.implementation.bytecode.assign.Assigner;
 import net.bytebuddy.jar.asm.Opcodes;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.*;
 import java.util.*;
 
@@ -26,6 +35,7 @@ public class InterfaceLayout extends ClassLayout {
     private final Map<String, Method> setterMethods;
     private final Map<String, Method> leakerMethods;
     private Class<? extends Spec> generatedClass;
+    private final StableValue<MethodHandle> viewConstructor = StableValue.of();
 
     public InterfaceLayout(Class<? extends Spec> specClass) {
         Method[] methods = Reflect.getDeclaredMethodsInOrder(specClass);
@@ -88,6 +98,39 @@ public class InterfaceLayout extends ClassLayout {
         }
     }
 
+    /**
+     * Creates a read only view decoding the fields on demand.
+     *
+     * @param data The encoded spec.
+     * @return The view.
+     * @see #view(BinaryData, long, boolean)
+     */
+    public Spec view(BinaryData data) {
+        return view(data, 0, true);
+    }
+
+    /**
+     * Creates a read only view backed directly by the encoded data.
+     * No field is decoded upfront, instead every getter decodes its field when called.
+     * Changes of the underlying array are visible through the view.
+     *
+     * @param data The data holding the encoded spec.
+     * @param bitOffset The bit offset of the spec in the data.
+     * @param memoize Whether offsets of fields behind fields without fixed bit size should be remembered.
+     * @return The view.
+     * @see FlyweightSpec
+     */
+    public Spec view(BinaryData data, long bitOffset, boolean memoize) {
+        // the view class is generated once, on first use
+        MethodHandle constructor = viewConstructor.orElseSet(this::generateViewClass);
+
+        try {
+            return (Spec) constructor.invoke(this, data, bitOffset, memoize);
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     private void generateClass() {
         ByteBuddy byteBuddy = new ByteBuddy();
 
@@ -122,6 +165,76 @@ public class InterfaceLayout extends ClassLayout {
 
         }
 
+        builder = defineCommonMethods(builder);
+
+        generatedClass = builder
+                .make()
+                .load(getClass().getClassLoader(), ClassLoadingStrategy.Default.INJECTION)
+                .getLoaded();
+
+
+        // initialize internalField of SpecField
+        for (SpecField field : fields) {
+            try {
+                field.internalField().setOrThrow(generatedClass.getDeclaredField(field.name()));
+            } catch (NoSuchFieldException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private MethodHandle generateViewClass() {
+        AnnotationDescription annotation = AnnotationDescription.Builder.ofType(InterfaceSpecImpl.class)
+                .define("specClass", specClass)
+                .build();
+
+        DynamicType.Builder<FlyweightSpec> builder = new ByteBuddy()
+                .subclass(FlyweightSpec.class, ConstructorStrategy.Default.IMITATE_SUPER_CLASS_PUBLIC)
+                .implement(specClass)
+                .annotateType(annotation);
+
+        // getters decode their field on demand
+        Method decode;
+        try {
+            decode = FlyweightSpec.class.getDeclaredMethod("decode", int.class);
+        } catch (NoSuchMethodException e) {
+            throw new RuntimeException(e);
+        }
+
+        for (int i = 0; i < fields.length; i++) {
+            SpecField field = fields[i];
+            builder = builder
+                    .defineMethod(field.name(), field.clazz(), Opcodes.ACC_PUBLIC)
+                    .intercept(MethodCall.invoke(decode).with(i).withAssigner(Assigner.DEFAULT, Assigner.Typing.DYNAMIC));
+        }
+
+        // views are read only
+        for (Method setterMethod : setterMethods.values()) {
+            builder = builder
+                    .defineMethod(setterMethod.getName(), void.class, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SYNTHETIC)
+                    .withParameters(setterMethod.getParameterTypes())
+                    .intercept(ExceptionMethod.throwing(UnsupportedOperationException.class, "Views of spec " + specClass.getCanonicalName() + " are read only"));
+        }
+
+        builder = defineCommonMethods(builder);
+
+        Class<? extends FlyweightSpec> viewClass = builder
+                .make()
+                .load(getClass().getClassLoader(), ClassLoadingStrategy.Default.INJECTION)
+                .getLoaded();
+
+        try {
+            return MethodHandles.publicLookup().findConstructor(viewClass,
+                    MethodType.methodType(void.class, ClassLayout.class, BinaryData.class, long.class, boolean.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Defines the leaker methods as well as equals, hashCode and toString.
+     */
+    private <T> DynamicType.Builder<T> defineCommonMethods(DynamicType.Builder<T> builder) {
         // define leaker methods
         for (Map.Entry<String, Method> entry : leakerMethods.entrySet()) {
             String fieldName = entry.getKey();
@@ -160,21 +273,7 @@ public class InterfaceLayout extends ClassLayout {
                 .defineMethod("toString", String.class, Modifier.PUBLIC)
                     .intercept(MethodDelegation.to(methods));
 
-
-        generatedClass = builder
-                .make()
-                .load(getClass().getClassLoader(), ClassLoadingStrategy.Default.INJECTION)
-                .getLoaded();
-
-
-        // initialize internalField of SpecField
-        for (SpecField field : fields) {
-            try {
-                field.internalField().setOrThrow(generatedClass.getDeclaredField(field.name()));
-            } catch (NoSuchFieldException e) {
-                throw new RuntimeException(e);
-            }
-        }
+        return builder;
     }
 
     // TODO
@@ -1,7 +1,10 @@
 package de.safti.specs.layout;
 
 import de.safti.specs.annotations.Spec;
+import de.safti.specs.format.Format;
+import de.safti.specs.format.SpecCodec;
 import de.safti.specs.io.BinaryData;
+import de.safti.specs.io.BinaryReader;
 import de.safti.specs.io.BinaryWriter;
 import de.safti.specs.layout.common.SpecField;
 import org.jetbrains.annotations.Nullable;
@@ -12,10 +15,64 @@ public interface SpecLayout {
 
     Spec create(BinaryData data);
 
+    /**
+     * Creates a spec decoding only the given fields. All other fields are skipped and set to the default value of their type, see {@link de.safti.specs.layout.common.TypeDef#createDefault()}.
+     * Fields other fields depend on (for example external length fields) are always decoded.
+     *
+     * @param data The data to decode.
+     * @param fieldNames The names of the fields to decode.
+     * @return The created spec.
+     */
+    Spec create(BinaryData data, String... fieldNames);
+
     Spec createInstance();
 
+    /**
+     * Decodes the data into an existing spec, replacing the values of every field.
+     * Containers and arrays held by the spec are reused where possible.
+     *
+     * @param data The data to decode.
+     * @param target The spec to populate.
+     * @see de.safti.specs.layout.common.TypeDef#readInto(BinaryReader, SpecContext, Object)
+     */
+    void readInto(BinaryData data, Spec target);
+
+    /**
+     * Reads a single field, seeking directly to it if its bit offset is known upfront.
+     *
+     * @param data The data of a whole spec.
+     * @param fieldName The name of the field to read.
+     * @return The value of the field.
+     * @see #getBitOffset(String)
+     */
+    Object readField(BinaryData data, String fieldName);
+
+    /**
+     * @see #readField(BinaryData, String)
+     */
+    default Object readField(BinaryData data, SpecField field) {
+        return readField(data, field.name());
+    }
+
+    /**
+     * The bit offset of a field is known upfront if every field in front of it has a fixed bit size.
+     *
+     * @param fieldName The name of the field.
+     * @return The bit offset of the field, or -1 if it depends on the data.
+     */
+    long getBitOffset(String fieldName);
+
     void write(Spec spec, BinaryWriter writer);
 
+    /**
+     * Returns the codec of this layout in the given format, compiling it on first use.
+     *
+     * @param format The format of the codec.
+     * @return The cached codec.
+     * @see Format#compile(SpecLayout)
+     */
+    <W, R> SpecCodec<W, R> codec(Format<W, R> format);
+
     @Nullable
     SpecField getField(String name);
 
@@ -0,0 +1,87 @@
+package de.safti.specs.layout.common;
+
+import de.safti.specs.io.BinaryReader;
+import de.safti.specs.io.BinaryWriter;
+import de.safti.specs.json.JsonReader;
+import de.safti.specs.json.JsonWriter;
+import de.safti.specs.layout.SpecContext;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A TypeDef whose values can be represented as a single {@code long}.
+ * Integers are represented by their value, decimals by their raw IEEE 754 bits and enums by their ordinal.
+ * Allows reading and writing values without boxing them.
+ */
+public interface PrimitiveDef extends TypeDef {
+
+    /**
+     * Reads a value without boxing it.
+     *
+     * @param reader The reader to read from.
+     * @return The long representation of the read value.
+     */
+    long readLong(BinaryReader reader);
+
+    /**
+     * Writes a value without boxing it.
+     *
+     * @param writer The writer to write to.
+     * @param value The long representation of the value.
+     */
+    void writeLong(BinaryWriter writer, long value);
+
+    /**
+     * @param o The (boxed) value. {@code null} is treated as 0.
+     * @return The long representation of the given value.
+     */
+    long toLong(@Nullable Object o);
+
+    /**
+     * @param value The long representation of a value.
+     * @return The value as the type returned by {@link #read(BinaryReader, SpecContext)}.
+     */
+    Object fromLong(long value);
+
+    /**
+     * @param value The long representation of a value.
+     * @return The value as double, without boxing it.
+     */
+    default double toDouble(long value) {
+        return value;
+    }
+
+    /**
+     * @param value A value as double.
+     * @return The long representation of the given value, without boxing it.
+     */
+    default long fromDouble(double value) {
+        return (long) value;
+    }
+
+    /**
+     * @return true if the long representation holds the raw bits of a float or double.
+     */
+    default boolean isDecimal() {
+        return false;
+    }
+
+    @Override
+    default void writeJson(JsonWriter writer, @Nullable Object o) {
+        long value = toLong(o);
+        if(isDecimal()) writer.value(toDouble(value));
+        else writer.value(value);
+    }
+
+    @Override
+    default void transcodeJson(BinaryReader reader, SpecContext context, JsonWriter writer) {
+        long value = readLong(reader);
+        if(isDecimal()) writer.value(toDouble(value));
+        else writer.value(value);
+    }
+
+    @Override
+    default Object readJson(JsonReader reader, SpecContext context) {
+        return fromLong(isDecimal() ? fromDouble(reader.nextDouble()) : reader.nextLong());
+    }
+
+}
@@ -2,6 +2,8 @@ package de.safti.specs.layout.common;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
+
 /**
  * A structure is a TypeDef that holds multiple types.
  * An example of a structure is an array.
@@ -11,4 +13,9 @@ public interface StructureDef extends TypeDef {
     @NotNull
     TypeDef inner();
 
+    @Override
+    default List<String> referencedFields() {
+        return inner().referencedFields();
+    }
+
 }
@@ -2,15 +2,100 @@ package de.safti.specs.layout.common;
 
 import de.safti.specs.io.BinaryReader;
 import de.safti.specs.io.BinaryWriter;
+import de.safti.specs.json.JsonReader;
+import de.safti.specs.json.JsonWriter;
 import de.safti.specs.layout.SpecContext;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.List;
+
 public interface TypeDef {
 
     Object read(BinaryReader reader, SpecContext context);
 
     void write(BinaryWriter writer, Object o);
 
+    /**
+     * Reads a value, reusing the previous value of the field where possible.
+     * Immutable values cannot be reused, so by default a new value is read.
+     *
+     * @param reader The reader to read from.
+     * @param context The context of the spec.
+     * @param previous The current value of the field, may be reused and modified.
+     * @return The read value. May be the given previous value.
+     */
+    default Object readInto(BinaryReader reader, SpecContext context, @Nullable Object previous) {
+        return read(reader, context);
+    }
+
+    /**
+     * Advances the reader past a value without materializing it.
+     * By default, the value is read and discarded.
+     *
+     * @param reader The reader to advance.
+     * @param context The context of the spec, used to resolve referenced fields.
+     */
+    default void skip(BinaryReader reader, SpecContext context) {
+        read(reader, context);
+    }
+
+    /**
+     * @return The amount of bits every value occupies, or -1 if the size depends on the value.
+     */
+    default long fixedBitSize() {
+        return -1;
+    }
+
+    /**
+     * @return The names of the fields that have to be read before a value of this TypeDef can be read or skipped.
+     */
+    default List<String> referencedFields() {
+        return List.of();
+    }
+
+    /**
+     * Writes a value as JSON.
+     * By default, numbers, booleans and strings are written as they are and all other values as their string representation.
+     *
+     * @param writer The writer to write to.
+     * @param o The value, may be null.
+     */
+    default void writeJson(JsonWriter writer, @Nullable Object o) {
+        switch (o) {
+            case null -> writer.nullValue();
+            case Boolean b -> writer.value(b);
+            case Double d -> writer.value(d);
+            case Float f -> writer.value(f);
+            case Number n -> writer.value(n.longValue());
+            default -> writer.value(o.toString());
+        }
+    }
+
+    /**
+     * Reads a value written by {@link #writeJson(JsonWriter, Object)}.
+     * JSON {@code null} values are handled by the caller, so this method is only called for non-null values.
+     *
+     * @param reader The reader to read from.
+     * @param context The context of the spec.
+     * @return The read value.
+     * @throws UnsupportedOperationException If this TypeDef does not support JSON.
+     */
+    default Object readJson(JsonReader reader, SpecContext context) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support reading JSON.");
+    }
+
+    /**
+     * Reads a value in the binary format and writes it as JSON, as if it was read and written using {@link #writeJson(JsonWriter, Object)}.
+     * By default, the value is read and written. Implementations should avoid materializing the value where possible.
+     *
+     * @param reader The reader to read from.
+     * @param context The context of the spec, used to resolve referenced fields.
+     * @param writer The writer to write to.
+     */
+    default void transcodeJson(BinaryReader reader, SpecContext context, JsonWriter writer) {
+        writeJson(writer, read(reader, context));
+    }
+
     @Nullable
     default Object createDefault() {
         return null;
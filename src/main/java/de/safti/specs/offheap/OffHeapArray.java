@@ -0,0 +1,250 @@
+package de.safti.specs.offheap;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.util.function.Supplier;
+
+/**
+ * A numeric array stored in a {@link MemorySegment} instead of the heap.
+ * Elements are stored big endian, in the same byte order as the encoded data,
+ * so byte aligned data can be decoded with a single bulk copy.
+ * <p>
+ * Decoded arrays are allocated in the arena bound using {@link #decodeIn(Arena, Supplier)}.
+ * If no arena is bound, an automatic arena is used and the memory is released by the garbage collector.
+ *
+ * @see de.safti.specs.annotations.Structure.OffHeapArray
+ */
+public final class OffHeapArray {
+    private static final ScopedValue<Arena> ARENA = ScopedValue.newInstance();
+
+    private final MemorySegment segment;
+    private final Kind kind;
+
+    /**
+     * @param segment The segment holding the elements.
+     * @param kind The kind of the elements.
+     * @throws IllegalArgumentException If the segment size is not a multiple of the element size.
+     */
+    public OffHeapArray(@NotNull MemorySegment segment, @NotNull Kind kind) {
+        if(segment.byteSize() % kind.bytes != 0) throw new IllegalArgumentException("Segment size " + segment.byteSize() + " is not a multiple of the element size " + kind.bytes);
+        this.segment = segment;
+        this.kind = kind;
+    }
+
+    /**
+     * Allocates a zeroed array.
+     *
+     * @param arena The arena to allocate in.
+     * @param kind The kind of the elements.
+     * @param length The amount of elements.
+     * @return The allocated array.
+     */
+    public static OffHeapArray allocate(@NotNull Arena arena, @NotNull Kind kind, long length) {
+        return new OffHeapArray(arena.allocate(length * kind.bytes, kind.bytes), kind);
+    }
+
+    /**
+     * @return An array without any elements.
+     */
+    public static OffHeapArray empty(@NotNull Kind kind) {
+        return new OffHeapArray(MemorySegment.NULL, kind);
+    }
+
+    /**
+     * Runs the given action with the given arena bound. Off heap arrays decoded by the action are allocated in that arena.
+     *
+     * @param arena The arena to allocate decoded arrays in.
+     * @param action The action to run, usually a call to {@link de.safti.specs.SpecIO#read(de.safti.specs.io.BinaryData, Class)}.
+     * @return The result of the action.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T decodeIn(@NotNull Arena arena, @NotNull Supplier<T> action) {
+        Object[] result = new Object[1];
+        ScopedValue.where(ARENA, arena).run(() -> result[0] = action.get());
+        return (T) result[0];
+    }
+
+    /**
+     * @return The arena bound by {@link #decodeIn(Arena, Supplier)}, or a new automatic arena if there is none.
+     */
+    public static Arena currentArena() {
+        return ARENA.isBound() ? ARENA.get() : Arena.ofAuto();
+    }
+
+    /**
+     * @return The amount of elements.
+     */
+    public long length() {
+        return segment.byteSize() / kind.bytes;
+    }
+
+    public Kind kind() {
+        return kind;
+    }
+
+    /**
+     * @return The segment holding the elements, stored big endian.
+     */
+    public MemorySegment segment() {
+        return segment;
+    }
+
+    /**
+     * @param index The index of the element.
+     * @return The element as long. Decimals are converted, not returned as raw bits.
+     */
+    public long getLong(long index) {
+        long offset = index * kind.bytes;
+        return switch (kind) {
+            case BYTE -> segment.get(ValueLayout.JAVA_BYTE, offset);
+            case SHORT -> segment.get(Layouts.SHORT, offset);
+            case INT -> segment.get(Layouts.INT, offset);
+            case LONG -> segment.get(Layouts.LONG, offset);
+            case FLOAT -> (long) segment.get(Layouts.FLOAT, offset);
+            case DOUBLE -> (long) segment.get(Layouts.DOUBLE, offset);
+        };
+    }
+
+    /**
+     * @see #getLong(long)
+     */
+    public int getInt(long index) {
+        return (int) getLong(index);
+    }
+
+    /**
+     * @param index The index of the element.
+     * @return The element as double.
+     */
+    public double getDouble(long index) {
+        long offset = index * kind.bytes;
+        return switch (kind) {
+            case FLOAT -> segment.get(Layouts.FLOAT, offset);
+            case DOUBLE -> segment.get(Layouts.DOUBLE, offset);
+            default -> getLong(index);
+        };
+    }
+
+    /**
+     * Sets an element. Integers that do not fit the element size are truncated.
+     *
+     * @param index The index of the element.
+     * @param value The new value.
+     */
+    public void setLong(long index, long value) {
+        long offset = index * kind.bytes;
+        switch (kind) {
+            case BYTE -> segment.set(ValueLayout.JAVA_BYTE, offset, (byte) value);
+            case SHORT -> segment.set(Layouts.SHORT, offset, (short) value);
+            case INT -> segment.set(Layouts.INT, offset, (int) value);
+            case LONG -> segment.set(Layouts.LONG, offset, value);
+            case FLOAT -> segment.set(Layouts.FLOAT, offset, (float) value);
+            case DOUBLE -> segment.set(Layouts.DOUBLE, offset, (double) value);
+        }
+    }
+
+    /**
+     * Sets an element. Integer elements are set to the value cast to long.
+     *
+     * @param index The index of the element.
+     * @param value The new value.
+     */
+    public void setDouble(long index, double value) {
+        long offset = index * kind.bytes;
+        switch (kind) {
+            case FLOAT -> segment.set(Layouts.FLOAT, offset, (float) value);
+            case DOUBLE -> segment.set(Layouts.DOUBLE, offset, value);
+            default -> setLong(index, (long) value);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(!(o instanceof OffHeapArray other)) return false;
+        return kind == other.kind && segment.byteSize() == other.segment.byteSize()
+                && segment.mismatch(other.segment) == -1;
+    }
+
+    @Override
+    public int hashCode() {
+        // 8 bytes at a time, the contents can change, so the hash is not cached
+        int hash = kind.hashCode();
+        long size = segment.byteSize();
+        long i = 0;
+        for (; i + Long.BYTES <= size; i += Long.BYTES) {
+            hash = 31 * hash + Long.hashCode(segment.get(ValueLayout.JAVA_LONG_UNALIGNED, i));
+        }
+        for (; i < size; i++) {
+            hash = 31 * hash + segment.get(ValueLayout.JAVA_BYTE, i);
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("OffHeapArray[").append(kind).append("; ");
+        long length = length();
+        for (long i = 0; i < length; i++) {
+            if(i > 0) builder.append(", ");
+            if(kind.decimal) builder.append(getDouble(i));
+            else builder.append(getLong(i));
+        }
+        return builder.append(']').toString();
+    }
+
+    /**
+     * The kind of elements stored in an {@link OffHeapArray}.
+     */
+    public enum Kind {
+        BYTE(1, false),
+        SHORT(2, false),
+        INT(4, false),
+        LONG(8, false),
+        FLOAT(4, true),
+        DOUBLE(8, true);
+
+        private final int bytes;
+        private final boolean decimal;
+
+        Kind(int bytes, boolean decimal) {
+            this.bytes = bytes;
+            this.decimal = decimal;
+        }
+
+        /**
+         * @param bits The bit width of the integers.
+         * @return The smallest integral kind holding integers of the given width.
+         */
+        public static Kind integral(long bits) {
+            if(bits <= 0 || bits > 64) return LONG;
+            if(bits <= 8) return BYTE;
+            if(bits <= 16) return SHORT;
+            if(bits <= 32) return INT;
+            return LONG;
+        }
+
+        /**
+         * @return The size of a single element in bytes.
+         */
+        public int bytes() {
+            return bytes;
+        }
+
+        public boolean isDecimal() {
+            return decimal;
+        }
+    }
+
+    private static final class Layouts {
+        static final ValueLayout.OfShort SHORT = ValueLayout.JAVA_SHORT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+        static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+        static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+        static final ValueLayout.OfFloat FLOAT = ValueLayout.JAVA_FLOAT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+        static final ValueLayout.OfDouble DOUBLE = ValueLayout.JAVA_DOUBLE_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    }
+
+}
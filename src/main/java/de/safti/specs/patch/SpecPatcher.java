@@ -0,0 +1,205 @@
+package de.safti.specs.patch;
+
+import de.safti.specs.SpecIO;
+import de.safti.specs.annotations.Spec;
+import de.safti.specs.io.BinaryData;
+import de.safti.specs.io.BinaryReader;
+import de.safti.specs.io.BinaryWriter;
+import de.safti.specs.layout.SpecContext;
+import de.safti.specs.layout.SpecLayout;
+import de.safti.specs.layout.common.SpecField;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Changes single fields of encoded specs without decoding and re-encoding the whole spec.
+ * <p>
+ * If the new value has the same bit size as the old one, the bits are overwritten in place.
+ * Otherwise, the data in front of the field is copied, followed by the new value and the (unchanged) bits behind the field.
+ * <p>
+ * Fields other fields depend on (for example external length fields) cannot be patched,
+ * as the dependent fields would have to change as well.
+ * Fields depending on other fields can only be patched in place if the new value matches the current values of those fields.
+ */
+public class SpecPatcher {
+    private final SpecLayout layout;
+    private final Set<String> referencedFields = new HashSet<>();
+
+    public SpecPatcher(@NotNull SpecLayout layout) {
+        this.layout = layout;
+        for (SpecField field : layout.getFields()) {
+            referencedFields.addAll(field.type().referencedFields());
+        }
+    }
+
+    public SpecPatcher(@NotNull Class<? extends Spec> specClass) {
+        this(SpecIO.getLayout(specClass));
+    }
+
+    /**
+     * Sets a field of the encoded spec.
+     * If the encoded value has the same bit size as the current one, the array of the given data is modified directly.
+     *
+     * @param data The encoded spec.
+     * @param fieldName The name of the field to change.
+     * @param value The new value.
+     * @return The given data if it was patched in place, otherwise newly created data.
+     * @throws IllegalArgumentException If the field cannot be patched.
+     */
+    public BinaryData patch(@NotNull BinaryData data, String fieldName, @Nullable Object value) {
+        int index = indexOf(fieldName);
+        SpecField field = layout.getFields()[index];
+        BinaryData encoded = encode(field, value);
+
+        // locate the current value
+        BinaryReader reader = new BinaryReader(data);
+        SpecContext context = seekTo(reader, index);
+        long start = reader.getBitPosition();
+        field.type().skip(reader, context);
+        long end = reader.getBitPosition();
+
+        if(encoded.bitLength() == end - start) {
+            if(!field.type().referencedFields().isEmpty() && !matchesReferencedFields(field, encoded, context)) {
+                throw new IllegalArgumentException("Field " + fieldName + " does not match the fields it depends on: " + field.type().referencedFields());
+            }
+            overwrite(ByteBuffer.wrap(data.array()), start, encoded);
+            return data;
+        }
+
+        if(!field.type().referencedFields().isEmpty()) throw new IllegalArgumentException("The size of field " + fieldName + " depends on other fields and cannot be changed.");
+
+        // the size changed, so everything behind the field has to move
+        BinaryWriter writer = new BinaryWriter();
+        copyBits(data, 0, start, writer);
+        writer.writeData(encoded);
+        copyBits(data, end, data.bitLength(), writer);
+        return writer.toBinaryData();
+    }
+
+    /**
+     * Overwrites a field of a spec stored in the given buffer, for example a memory mapped file.
+     * Only fields of a fixed bit size that are located in front of every field without fixed bit size can be patched this way.
+     *
+     * @param buffer The buffer holding the encoded spec.
+     * @param bitOffset The bit offset of the spec in the buffer, relative to index 0.
+     * @param fieldName The name of the field to change.
+     * @param value The new value.
+     * @throws IllegalArgumentException If the field has no static offset or no fixed bit size.
+     */
+    public void patch(@NotNull ByteBuffer buffer, long bitOffset, String fieldName, @Nullable Object value) {
+        SpecField field = layout.getFields()[indexOf(fieldName)];
+        long fieldOffset = layout.getBitOffset(fieldName);
+        if(fieldOffset < 0 || field.type().fixedBitSize() < 0) throw new IllegalArgumentException("Field " + fieldName + " has no static offset or no fixed bit size. Use patch(BinaryData, String, Object) instead.");
+
+        BinaryData encoded = encode(field, value);
+        if(encoded.bitLength() != field.type().fixedBitSize()) throw new IllegalStateException("Encoded value of field " + fieldName + " does not match its fixed bit size.");
+
+        overwrite(buffer, bitOffset + fieldOffset, encoded);
+    }
+
+    private int indexOf(String fieldName) {
+        SpecField[] fields = layout.getFields();
+        for (int i = 0; i < fields.length; i++) {
+            if(!fields[i].name().equals(fieldName)) continue;
+            if(referencedFields.contains(fieldName)) throw new IllegalArgumentException("Field " + fieldName + " is referenced by other fields and cannot be patched.");
+            return i;
+        }
+        throw new IllegalArgumentException("Field " + fieldName + " not found in spec " + layout.getSpecClass().getCanonicalName());
+    }
+
+    private static BinaryData encode(SpecField field, @Nullable Object value) {
+        BinaryWriter writer = new BinaryWriter();
+        try {
+            field.type().write(writer, value);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to write field " + field.name(), e);
+        }
+        return writer.toBinaryData();
+    }
+
+    /**
+     * Reads the encoded value back using the current values of the referenced fields, it has to be read exactly as it was written.
+     * The referenced fields stay unchanged, so the patch is only valid if they describe the new value as well.
+     */
+    private static boolean matchesReferencedFields(SpecField field, BinaryData encoded, SpecContext context) {
+        BinaryReader reader = new BinaryReader(encoded);
+        try {
+            Object read = field.type().read(reader, context);
+            if(reader.getBitPosition() != encoded.bitLength()) return false;
+
+            // collections may be read as a different implementation, so the encodings are compared
+            BinaryData reencoded = encode(field, read);
+            return reencoded.padding() == encoded.padding() && Arrays.equals(reencoded.array(), encoded.array());
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Moves the reader to the start of the given field.
+     * Fields in front of it are skipped, unless other fields depend on them.
+     *
+     * @return The context holding the decoded referenced fields.
+     */
+    private SpecContext seekTo(BinaryReader reader, int index) {
+        Spec instance = layout.createInstance();
+        SpecContext context = new SpecContext(instance, layout);
+        SpecField[] fields = layout.getFields();
+
+        long offset = layout.getBitOffset(fields[index].name());
+        if(offset >= 0 && fields[index].type().referencedFields().isEmpty()) {
+            reader.seek(offset);
+            return context;
+        }
+
+        for (int i = 0; i < index; i++) {
+            SpecField field = fields[i];
+            if(referencedFields.contains(field.name())) field.set(instance, field.type().read(reader, context));
+            else field.type().skip(reader, context);
+        }
+        return context;
+    }
+
+    private static void copyBits(BinaryData data, long from, long to, BinaryWriter writer) {
+        BinaryReader reader = new BinaryReader(data);
+        reader.seek(from);
+
+        long remaining = to - from;
+        while(remaining > 0) {
+            int bits = (int) Math.min(remaining, 56);
+            writer.writeBits(reader.readBits(bits), bits);
+            remaining -= bits;
+        }
+    }
+
+    /**
+     * Writes the bits of the given data into the buffer, starting at the given bit.
+     * Surrounding bits are preserved.
+     */
+    private static void overwrite(ByteBuffer buffer, long bitPosition, BinaryData data) {
+        BinaryReader reader = new BinaryReader(data);
+        long remaining = data.bitLength();
+
+        while(remaining > 0) {
+            int index = Math.toIntExact(bitPosition >>> 3);
+            int bitInByte = (int) (bitPosition & 7);
+
+            // fill up the current byte
+            int bits = (int) Math.min(remaining, 8 - bitInByte);
+            int shift = 8 - bitInByte - bits;
+            int mask = ((1 << bits) - 1) << shift;
+            int value = (int) reader.readBits(bits) << shift;
+
+            buffer.put(index, (byte) ((buffer.get(index) & ~mask) | value));
+
+            bitPosition += bits;
+            remaining -= bits;
+        }
+    }
+
+}
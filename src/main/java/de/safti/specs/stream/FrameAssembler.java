@@ -0,0 +1,88 @@
+package de.safti.specs.stream;
+
+import de.safti.specs.io.BinaryData;
+import de.safti.specs.io.CorruptDataException;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Reassembles frames from chunks of bytes of arbitrary size.
+ * Chunks may end anywhere, including in the middle of a frame header.
+ *
+ * @see Frames
+ */
+public class FrameAssembler {
+    private byte[] buffer = new byte[256];
+    private int start; // index of the first unconsumed byte
+    private int end;   // index after the last buffered byte
+
+    /**
+     * Buffers the remaining bytes of the given chunk.
+     *
+     * @param chunk The chunk to append. Its position is moved to its limit.
+     */
+    public void append(ByteBuffer chunk) {
+        int length = chunk.remaining();
+        ensureCapacity(length);
+        chunk.get(buffer, end, length);
+        end += length;
+    }
+
+    public void append(byte[] chunk, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(chunk, offset, buffer, end, length);
+        end += length;
+    }
+
+    /**
+     * @return The next complete frame, or null if no complete frame is buffered.
+     */
+    public @Nullable BinaryData next() {
+        // parse the header
+        long bitLength = 0;
+        int shift = 0;
+        int position = start;
+        int b;
+        do {
+            if(position == end) return null;
+            if(shift > 63) throw new CorruptDataException("Frame header is too long.");
+
+            b = buffer[position++] & 0xFF;
+            bitLength |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+
+        int byteLength = Frames.byteLength(bitLength);
+        if(end - position < byteLength) return null;
+
+        byte[] bytes = Arrays.copyOfRange(buffer, position, position + byteLength);
+        start = position + byteLength;
+        return Frames.toBinaryData(bytes, bitLength);
+    }
+
+    /**
+     * @return true if bytes of an incomplete frame are buffered.
+     */
+    public boolean hasRemaining() {
+        return start != end;
+    }
+
+    private void ensureCapacity(int additional) {
+        if(end + additional <= buffer.length) return;
+
+        // move the unconsumed bytes to the front before growing
+        int buffered = end - start;
+        if(buffered + additional > buffer.length) {
+            byte[] grown = new byte[Math.max(buffer.length * 2, buffered + additional)];
+            System.arraycopy(buffer, start, grown, 0, buffered);
+            buffer = grown;
+        } else {
+            System.arraycopy(buffer, start, buffer, 0, buffered);
+        }
+        start = 0;
+        end = buffered;
+    }
+
+}
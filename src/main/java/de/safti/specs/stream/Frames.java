@@ -0,0 +1,93 @@
+package de.safti.specs.stream;
+
+import de.safti.specs.io.BinaryData;
+import de.safti.specs.io.CorruptDataException;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Frames are used to store multiple encoded specs after each other in a byte stream.
+ * A frame consists of the bit length of the encoded spec as unsigned LEB128 VarInt,
+ * followed by the bytes of the encoded spec.
+ * Streams written with a {@link de.safti.specs.compress.BlockCompression} store the frames inside of compressed blocks, see {@link SpecOutputStream}.
+ *
+ * @see FrameAssembler
+ */
+public final class Frames {
+
+    private Frames() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated.");
+    }
+
+    /**
+     * Writes a single frame.
+     *
+     * @param out The stream to write to.
+     * @param data The encoded spec.
+     * @throws IOException If the underlying stream throws.
+     */
+    public static void write(OutputStream out, BinaryData data) throws IOException {
+        writeUVarInt(out, data.bitLength());
+        out.write(data.array());
+    }
+
+    /**
+     * Reads a single frame.
+     *
+     * @param in The stream to read from.
+     * @return The encoded spec, or null if the stream ended before the frame.
+     * @throws IOException If the underlying stream throws or ends in the middle of a frame.
+     */
+    public static @Nullable BinaryData read(InputStream in) throws IOException {
+        long bitLength = readUVarInt(in);
+        if(bitLength < 0) return null;
+
+        byte[] bytes = in.readNBytes(byteLength(bitLength));
+        if(bytes.length != byteLength(bitLength)) throw new EOFException("Stream ended in the middle of a frame.");
+        return toBinaryData(bytes, bitLength);
+    }
+
+    static void writeUVarInt(OutputStream out, long value) throws IOException {
+        do {
+            int b = (int) (value & 0x7F);
+            value >>>= 7;
+            if(value != 0) b |= 0x80;
+            out.write(b);
+        } while (value != 0);
+    }
+
+    /**
+     * @return The read value, or -1 if the stream ended before the value.
+     * @throws IOException If the underlying stream throws or ends in the middle of the value.
+     */
+    static long readUVarInt(InputStream in) throws IOException {
+        long value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.read();
+            if(b == -1) {
+                if(shift == 0) return -1;
+                throw new EOFException("Stream ended in the middle of a frame header.");
+            }
+            if(shift > 63) throw new CorruptDataException("Frame header is too long.");
+
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    static int byteLength(long bitLength) {
+        return Math.toIntExact((bitLength + 7) / 8);
+    }
+
+    static BinaryData toBinaryData(byte[] bytes, long bitLength) {
+        return new BinaryData(bytes, (int) (bytes.length * 8L - bitLength));
+    }
+
+}
@@ -0,0 +1,244 @@
+package de.safti.specs.stream;
+
+import de.safti.specs.SpecIO;
+import de.safti.specs.annotations.Spec;
+import de.safti.specs.io.BinaryData;
+import de.safti.specs.io.CorruptDataException;
+import de.safti.specs.layout.SpecLayout;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A processor decoding {@link Frames framed} specs from chunks of bytes.
+ * Chunks may be of arbitrary size, frames spanning multiple chunks are reassembled using a {@link FrameAssembler}.
+ * <p>
+ * A new chunk is only requested from upstream once every decoded spec has been delivered
+ * and the subscriber has outstanding demand, so no more than a single chunk of specs is buffered.
+ * Only a single subscriber is supported.
+ *
+ * @param <T> The spec type to decode.
+ */
+public class SpecDecoder<T extends Spec> implements Flow.Processor<ByteBuffer, T> {
+    private final SpecLayout layout;
+    private final FrameAssembler assembler = new FrameAssembler();
+    private final Queue<T> decoded = new ArrayDeque<>();
+    private final AtomicInteger wip = new AtomicInteger();
+
+    // state, guarded by this
+    private Flow.Subscription upstream;
+    private Flow.Subscriber<? super T> downstream;
+    private long demand;
+    private boolean requested;     // a chunk has been requested but not yet received
+    private boolean upstreamDone;
+    private Throwable error;
+    private boolean cancelled;
+    private boolean terminated;
+
+    public SpecDecoder(@NotNull Class<T> specClass) {
+        this.layout = SpecIO.getLayout(specClass);
+    }
+
+    // --- downstream ---
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber);
+        boolean accepted;
+        synchronized (this) {
+            accepted = downstream == null;
+            if(accepted) downstream = subscriber;
+        }
+
+        if(accepted) {
+            subscriber.onSubscribe(new DecoderSubscription());
+            drain();
+            return;
+        }
+
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+        subscriber.onError(new IllegalStateException("SpecDecoder only supports a single subscriber."));
+    }
+
+    private class DecoderSubscription implements Flow.Subscription {
+
+        @Override
+        public void request(long n) {
+            if(n <= 0) {
+                // the error is signalled right away, specs not yet delivered are dropped (rule 3.9)
+                Flow.Subscription subscription;
+                synchronized (SpecDecoder.this) {
+                    if(terminated || cancelled) return;
+                    decoded.clear();
+                    subscription = upstreamDone ? null : upstream;
+                    upstreamDone = true;
+                    error = new IllegalArgumentException("Requested amount must be positive. Requested: " + n);
+                }
+                if(subscription != null) subscription.cancel();
+                drain();
+                return;
+            }
+
+            synchronized (SpecDecoder.this) {
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n; // cap on overflow
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            Flow.Subscription subscription;
+            synchronized (SpecDecoder.this) {
+                cancelled = true;
+                decoded.clear();
+                subscription = upstream;
+            }
+            if(subscription != null) subscription.cancel();
+        }
+    }
+
+    // --- upstream ---
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        Objects.requireNonNull(subscription);
+        synchronized (this) {
+            if(upstream != null || cancelled) {
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+        }
+        drain();
+    }
+
+    @Override
+    public void onNext(ByteBuffer chunk) {
+        Flow.Subscription cancel = null;
+        synchronized (this) {
+            requested = false;
+            if(upstreamDone || cancelled) return;
+
+            assembler.append(chunk);
+            try {
+                BinaryData frame;
+                while ((frame = assembler.next()) != null) {
+                    decoded.add(decode(frame));
+                }
+            } catch (RuntimeException e) {
+                cancel = fail(e);
+            }
+        }
+        if(cancel != null) cancel.cancel();
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        synchronized (this) {
+            if(upstreamDone) return;
+            upstreamDone = true;
+            error = throwable;
+        }
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        synchronized (this) {
+            if(upstreamDone) return;
+            upstreamDone = true;
+            if(assembler.hasRemaining()) error = new CorruptDataException("Stream ended in the middle of a frame.");
+        }
+        drain();
+    }
+
+    // --- internals ---
+
+    @SuppressWarnings("unchecked")
+    private T decode(BinaryData frame) {
+        return (T) layout.create(frame);
+    }
+
+    /**
+     * Stops decoding and signals the error once the already decoded specs are delivered.
+     * Must be called while holding the lock, upstream has to be cancelled after releasing it.
+     *
+     * @return The upstream subscription to cancel, or null.
+     */
+    private @Nullable Flow.Subscription fail(Throwable throwable) {
+        if(upstreamDone) return null;
+        upstreamDone = true;
+        error = throwable;
+        return upstream;
+    }
+
+    /**
+     * Delivers decoded specs, signals termination and requests new chunks.
+     * Only a single thread drains at a time, calls from other threads are picked up by the draining thread.
+     */
+    private void drain() {
+        if(wip.getAndIncrement() != 0) return;
+
+        int missed = 1;
+        do {
+            Flow.Subscriber<? super T> subscriber;
+            synchronized (this) {
+                subscriber = downstream;
+            }
+
+            if(subscriber != null) {
+                // deliver as much as demanded
+                while (true) {
+                    T next;
+                    synchronized (this) {
+                        if(cancelled || demand == 0 || decoded.isEmpty()) break;
+                        next = decoded.poll();
+                        demand--;
+                    }
+                    subscriber.onNext(next);
+                }
+
+                // terminate once everything is delivered
+                boolean terminate;
+                Throwable terminalError;
+                synchronized (this) {
+                    terminate = !terminated && !cancelled && upstreamDone && decoded.isEmpty();
+                    if(terminate) terminated = true;
+                    terminalError = error;
+                }
+                if(terminate) {
+                    if(terminalError != null) subscriber.onError(terminalError);
+                    else subscriber.onComplete();
+                }
+            }
+
+            // request the next chunk
+            Flow.Subscription subscription = null;
+            synchronized (this) {
+                if(upstream != null && !upstreamDone && !cancelled && !requested && demand > 0 && decoded.isEmpty()) {
+                    requested = true;
+                    subscription = upstream;
+                }
+            }
+            if(subscription != null) subscription.request(1);
+
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+}
@@ -0,0 +1,97 @@
+package de.safti.specs.stream;
+
+import de.safti.specs.SpecIO;
+import de.safti.specs.annotations.Spec;
+import de.safti.specs.compress.BlockCompression;
+import de.safti.specs.compress.Compression;
+import de.safti.specs.compress.CompressionDictionary;
+import de.safti.specs.io.BinaryData;
+import de.safti.specs.io.CorruptDataException;
+import de.safti.specs.layout.SpecLayout;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads specs written by a {@link SpecOutputStream}.
+ */
+public class SpecInputStream<T extends Spec> implements Closeable {
+    private final InputStream in;
+    private final SpecLayout layout;
+
+    private final @Nullable CompressionDictionary dictionary;
+    private final boolean compressed;
+    private @Nullable Compression compression;
+    private InputStream block = InputStream.nullInputStream();
+
+    public SpecInputStream(@NotNull InputStream in, @NotNull Class<T> specClass) {
+        this.in = in;
+        this.layout = SpecIO.getLayout(specClass);
+        this.dictionary = null;
+        this.compressed = false;
+    }
+
+    /**
+     * Reads a compressed stream. The compression algorithm is read from the stream,
+     * only the dictionary of the given compression is used.
+     */
+    public SpecInputStream(@NotNull InputStream in, @NotNull Class<T> specClass, @NotNull BlockCompression compression) {
+        this.in = in;
+        this.layout = SpecIO.getLayout(specClass);
+        this.dictionary = compression.dictionary();
+        this.compressed = true;
+    }
+
+    /**
+     * @return The next spec, or null if the end of the stream is reached.
+     * @throws IOException If the underlying stream throws or ends in the middle of a spec.
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable T read() throws IOException {
+        BinaryData data = compressed ? readCompressedFrame() : Frames.read(in);
+        if(data == null) return null;
+        return (T) layout.create(data);
+    }
+
+    private @Nullable BinaryData readCompressedFrame() throws IOException {
+        while(true) {
+            BinaryData data = Frames.read(block);
+            if(data != null) return data;
+            if(!readBlock()) return null;
+        }
+    }
+
+    /**
+     * @return false if the end of the stream is reached.
+     */
+    private boolean readBlock() throws IOException {
+        if(compression == null) {
+            long id = Frames.readUVarInt(in);
+            if(id < 0) return false;
+            compression = Compression.byId(Math.toIntExact(id));
+
+            long dictionaryId = Frames.readUVarInt(in);
+            if(dictionaryId != (dictionary == null ? 0 : dictionary.id())) throw new CorruptDataException("The stream was compressed using a different dictionary.");
+        }
+
+        long length = Frames.readUVarInt(in);
+        if(length < 0) return false;
+        long compressedLength = Frames.readUVarInt(in);
+        if(compressedLength < 0) throw new EOFException("Stream ended in the middle of a block header.");
+
+        byte[] bytes = in.readNBytes(Math.toIntExact(compressedLength));
+        if(bytes.length != compressedLength) throw new EOFException("Stream ended in the middle of a block.");
+        block = new ByteArrayInputStream(compression.decompress(bytes, 0, bytes.length, Math.toIntExact(length), dictionary));
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
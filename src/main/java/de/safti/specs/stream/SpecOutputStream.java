@@ -0,0 +1,83 @@
+package de.safti.specs.stream;
+
+import de.safti.specs.SpecIO;
+import de.safti.specs.annotations.Spec;
+import de.safti.specs.compress.BlockCompression;
+import de.safti.specs.compress.CompressionDictionary;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes specs as {@link Frames frames} to an underlying stream.
+ * <p>
+ * If a {@link BlockCompression} is given, the frames are collected into blocks of the configured size,
+ * and every block is compressed on its own. Compressed streams start with the compression and the dictionary id,
+ * followed by the blocks, each consisting of its uncompressed and compressed byte length as UVarInt and the compressed bytes.
+ * {@link #flush()} ends the current block early.
+ *
+ * @see SpecInputStream
+ * @see SpecDecoder
+ */
+public class SpecOutputStream implements Closeable, Flushable {
+    private final OutputStream out;
+    private final @Nullable BlockCompression compression;
+    private final @Nullable ByteArrayOutputStream block;
+    private boolean headerWritten;
+
+    public SpecOutputStream(@NotNull OutputStream out) {
+        this.out = out;
+        this.compression = null;
+        this.block = null;
+    }
+
+    public SpecOutputStream(@NotNull OutputStream out, @NotNull BlockCompression compression) {
+        this.out = out;
+        this.compression = compression;
+        this.block = new ByteArrayOutputStream();
+    }
+
+    public void write(@NotNull Spec spec) throws IOException {
+        if(block == null) {
+            Frames.write(out, SpecIO.write(spec));
+            return;
+        }
+
+        Frames.write(block, SpecIO.write(spec));
+        if(block.size() >= compression.blockSize()) writeBlock();
+    }
+
+    private void writeBlock() throws IOException {
+        if(!headerWritten) {
+            CompressionDictionary dictionary = compression.dictionary();
+            Frames.writeUVarInt(out, compression.compression().ordinal());
+            Frames.writeUVarInt(out, dictionary == null ? 0 : dictionary.id());
+            headerWritten = true;
+        }
+        if(block.size() == 0) return;
+
+        byte[] bytes = block.toByteArray();
+        byte[] compressed = compression.compression().compress(bytes, 0, bytes.length, compression.dictionary());
+        Frames.writeUVarInt(out, bytes.length);
+        Frames.writeUVarInt(out, compressed.length);
+        out.write(compressed);
+        block.reset();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if(block != null) writeBlock();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if(block != null) writeBlock();
+        out.close();
+    }
+}
@@ -0,0 +1,73 @@
+package de.safti.specs.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A bounded cache deduplicating strings decoded from UTF-8 bytes.
+ * Entries are looked up by the raw bytes, so a cache hit neither copies the bytes nor allocates a new string.
+ * <p>
+ * The cache is direct mapped: every byte sequence has exactly one slot, determined by its hash.
+ * A miss replaces the entry in that slot, so the size of the cache never exceeds the given capacity.
+ * The cache is thread safe, concurrent misses may only cause the same string to be created twice.
+ */
+public final class StringCache {
+    private final Entry[] entries;
+    private final int mask;
+
+    /**
+     * @param capacity The maximum amount of cached strings. Rounded up to the next power of two.
+     */
+    public StringCache(int capacity) {
+        if(capacity < 1) throw new IllegalArgumentException("Capacity must be positive, but got " + capacity);
+
+        int size = Integer.highestOneBit(capacity);
+        if(size < capacity) size <<= 1;
+
+        this.entries = new Entry[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Returns the string of the given UTF-8 bytes, creating and caching it on a miss.
+     *
+     * @param bytes The array holding the bytes.
+     * @param offset The index of the first byte.
+     * @param length The amount of bytes.
+     * @return The decoded string.
+     */
+    public String get(byte[] bytes, int offset, int length) {
+        int hash = hash(bytes, offset, length);
+        int slot = hash & mask;
+
+        Entry entry = entries[slot];
+        if(entry != null && entry.hash == hash && Arrays.equals(entry.bytes, 0, entry.bytes.length, bytes, offset, offset + length)) {
+            return entry.value;
+        }
+
+        byte[] key = Arrays.copyOfRange(bytes, offset, offset + length);
+        String value = new String(key, StandardCharsets.UTF_8);
+        entries[slot] = new Entry(hash, key, value);
+        return value;
+    }
+
+    /**
+     * @return The maximum amount of cached strings.
+     */
+    public int capacity() {
+        return entries.length;
+    }
+
+    private static int hash(byte[] bytes, int offset, int length) {
+        int hash = 1;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        // spread the higher bits, as only the lower bits select the slot
+        return hash ^ (hash >>> 16);
+    }
+
+    private record Entry(int hash, byte[] bytes, String value) {
+    }
+
+}
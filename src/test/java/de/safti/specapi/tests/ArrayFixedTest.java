@@ -0,0 +1,43 @@
+package de.safti.specapi.tests;
+
+import de.safti.specapi.tests.specs.GridSpec;
+import de.safti.specs.SpecIO;
+import de.safti.specs.io.BinaryData;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ArrayFixedTest {
+
+    private GridSpec populatedSpec() {
+        GridSpec spec = SpecIO.generateEmpty(GridSpec.class);
+        spec.setHeights(new double[][]{{0.5, 1, 1.5}, {-2, 0, 2}, {Math.PI, Math.E, 0}, {1e10, -1e-10, 7}});
+        spec.setLabels(new String[][]{{"a", "b"}, {"", "long label"}});
+        spec.setMask(new byte[]{-16, 15, 0, 3});
+        return spec;
+    }
+
+    @Test
+    public void testGridIO() {
+        GridSpec spec = populatedSpec();
+        BinaryData data = SpecIO.write(spec);
+
+        GridSpec read = (GridSpec) SpecIO.read(data, GridSpec.class);
+        SpecTypesTest.testEquality(spec, read);
+        Assertions.assertInstanceOf(double[][].class, read.heights());
+        Assertions.assertInstanceOf(String[][].class, read.labels());
+    }
+
+    @Test
+    public void testReadIntoReusesRows() {
+        GridSpec spec = populatedSpec();
+        GridSpec target = (GridSpec) SpecIO.read(SpecIO.write(spec), GridSpec.class);
+        double[] firstRow = target.heights()[0];
+
+        spec.heights()[0][1] = 42;
+        SpecIO.readInto(SpecIO.write(spec), target);
+
+        Assertions.assertSame(firstRow, target.heights()[0]);
+        Assertions.assertEquals(42, firstRow[1]);
+    }
+
+}
@@ -0,0 +1,87 @@
+package de.safti.specapi.tests;
+
+import de.safti.specs.io.BinaryData;
+import de.safti.specs.io.BinaryReader;
+import de.safti.specs.io.BinaryWriter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class BigIntegerCodecTest {
+    private static final int[] WIDTHS = {7, 64, 65, 100, 128, 129, 200, 256};
+
+    private static List<BigInteger> samples(int bits, Random random) {
+        BigInteger max = BigInteger.ONE.shiftLeft(bits - 1).subtract(BigInteger.ONE);
+        BigInteger min = BigInteger.ONE.shiftLeft(bits - 1).negate();
+
+        List<BigInteger> samples = new ArrayList<>(List.of(BigInteger.ZERO, BigInteger.ONE, BigInteger.ONE.negate(), max, min));
+        if(bits > 64) {
+            samples.add(BigInteger.valueOf(Long.MAX_VALUE));
+            samples.add(BigInteger.valueOf(Long.MIN_VALUE));
+            samples.add(BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE));
+            samples.add(BigInteger.valueOf(Long.MIN_VALUE).subtract(BigInteger.ONE));
+        }
+        for (int i = 0; i < 20; i++) {
+            BigInteger value = new BigInteger(bits - 1, random);
+            samples.add(random.nextBoolean() ? value : value.negate());
+        }
+        return samples;
+    }
+
+    @Test
+    public void testRoundTrip() {
+        Random random = new Random(40);
+        for (int bits : WIDTHS) {
+            List<BigInteger> samples = samples(bits, random);
+
+            BinaryWriter writer = new BinaryWriter();
+            // misalign the values on purpose
+            writer.writeBits(1, 3);
+            for (BigInteger sample : samples) {
+                writer.writeBigInteger(sample, bits);
+            }
+
+            BinaryData data = writer.toBinaryData();
+            Assertions.assertEquals(3 + (long) bits * samples.size(), data.bitLength());
+
+            BinaryReader reader = new BinaryReader(data);
+            reader.skipBits(3);
+            for (BigInteger sample : samples) {
+                Assertions.assertEquals(sample, reader.readBigInteger(bits), "width " + bits);
+            }
+        }
+    }
+
+    @Test
+    public void testTruncatesToWidth() {
+        BinaryWriter writer = new BinaryWriter();
+        // 2^100 + 5 does not fit into 100 bits, only the lowest bits are kept
+        writer.writeBigInteger(BigInteger.ONE.shiftLeft(100).add(BigInteger.valueOf(5)), 100);
+
+        BinaryReader reader = new BinaryReader(writer.toBinaryData());
+        Assertions.assertEquals(BigInteger.valueOf(5), reader.readBigInteger(100));
+    }
+
+    @Test
+    public void testBitsAtEveryAlignment() {
+        Random random = new Random(41);
+        long[] values = new long[64];
+        BinaryWriter writer = new BinaryWriter();
+        // every width once, so every width starts at a different position within a byte
+        for (int bits = 1; bits <= 64; bits++) {
+            values[bits - 1] = random.nextLong();
+            writer.writeBits(values[bits - 1], bits);
+        }
+
+        BinaryReader reader = new BinaryReader(writer.toBinaryData());
+        for (int bits = 1; bits <= 64; bits++) {
+            long mask = bits == 64 ? -1L : (1L << bits) - 1;
+            Assertions.assertEquals(values[bits - 1] & mask, reader.readBits(bits), "width " + bits);
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+package de.safti.specapi.tests;
+
+import de.safti.specapi.tests.specs.EventSpec;
+import de.safti.specapi.tests.specs.EventSpecs;
+import de.safti.specapi.tests.specs.OptionalSpec;
+import de.safti.specs.SpecIO;
+import de.safti.specs.batch.ColumnarBatch;
+import de.safti.specs.io.BinaryData;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class ColumnarBatchTest {
+
+    @Test
+    public void testToSpecs() {
+        List<EventSpec> events = EventSpecs.events(100);
+        BinaryData data = SpecIO.writeColumnar(EventSpec.class, events);
+
+        ColumnarBatch batch = SpecIO.readColumnar(data, EventSpec.class);
+        Assertions.assertEquals(100, batch.size());
+
+        List<EventSpec> read = batch.toSpecs();
+        for (int i = 0; i < events.size(); i++) {
+            SpecTypesTest.testEquality(events.get(i), read.get(i));
+        }
+    }
+
+    @Test
+    public void testSingleColumns() {
+        List<EventSpec> events = EventSpecs.events(100);
+        ColumnarBatch batch = SpecIO.readColumnar(SpecIO.writeColumnar(EventSpec.class, events), EventSpec.class);
+
+        long[] timestamps = batch.readLongColumn("timestamp");
+        double[] values = batch.readDoubleColumn("value");
+        String[] hosts = batch.readStringColumn("host");
+        boolean[] retriesPresent = batch.readPresence("retries");
+        int[] retries = batch.readIntColumn("retries");
+
+        for (int i = 0; i < events.size(); i++) {
+            EventSpec event = events.get(i);
+            Assertions.assertEquals(event.timestamp(), timestamps[i]);
+            Assertions.assertEquals(event.value(), values[i]);
+            Assertions.assertEquals(event.host(), hosts[i]);
+            Assertions.assertEquals(event.retries().isPresent(), retriesPresent[i]);
+            Assertions.assertEquals(event.retries().orElse(0), retries[i]);
+        }
+    }
+
+    @Test
+    public void testSmallerThanRows() {
+        List<EventSpec> events = EventSpecs.events(100);
+
+        long rowBits = 0;
+        for (EventSpec event : events) {
+            rowBits += SpecIO.write(event).bitLength();
+        }
+
+        Assertions.assertTrue(SpecIO.writeColumnar(EventSpec.class, events).bitLength() < rowBits);
+    }
+
+    @Test
+    public void testFixedStringsMatchRows() {
+        OptionalSpec spec = SpecIO.generate(OptionalSpec.class);
+        spec.setNullableString("short");
+        List<OptionalSpec> specs = List.of(spec);
+
+        OptionalSpec row = (OptionalSpec) SpecIO.read(SpecIO.write(spec), OptionalSpec.class);
+        List<OptionalSpec> columnar = SpecIO.readColumnar(SpecIO.writeColumnar(OptionalSpec.class, specs), OptionalSpec.class).toSpecs();
+        Assertions.assertEquals(row.nullableString(), columnar.getFirst().nullableString());
+
+        // too long for the fixed size, rejected by both encodings
+        spec.setNullableString("longer than twelve bytes");
+        Assertions.assertThrows(RuntimeException.class, () -> SpecIO.write(spec));
+        Assertions.assertThrows(RuntimeException.class, () -> SpecIO.writeColumnar(OptionalSpec.class, specs));
+    }
+
+}
@@ -0,0 +1,122 @@
+package de.safti.specapi.tests;
+
+import de.safti.specapi.tests.specs.EventSpec;
+import de.safti.specapi.tests.specs.EventSpecs;
+import de.safti.specs.SpecIO;
+import de.safti.specs.compress.BlockCompression;
+import de.safti.specs.compress.CompressedBlocks;
+import de.safti.specs.compress.Compression;
+import de.safti.specs.compress.CompressionDictionary;
+import de.safti.specs.io.BinaryData;
+import de.safti.specs.stream.SpecInputStream;
+import de.safti.specs.stream.SpecOutputStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class CompressionTest {
+
+    @Test
+    public void testRoundTrip() {
+        byte[] bytes = new byte[10_000];
+        Random random = new Random(42);
+        for (int i = 0; i < bytes.length; i++) {
+            // repetitive, but not trivially so
+            bytes[i] = (byte) (i % 97 < 50 ? i % 7 : random.nextInt(4));
+        }
+        BinaryData data = new BinaryData(bytes, 3);
+
+        for (Compression compression : Compression.values()) {
+            BlockCompression blocks = new BlockCompression(compression).withBlockSize(1024);
+            BinaryData compressed = blocks.compress(data);
+            BinaryData decompressed = blocks.decompress(compressed);
+
+            Assertions.assertArrayEquals(bytes, decompressed.array(), compression.name());
+            Assertions.assertEquals(data.bitLength(), decompressed.bitLength(), compression.name());
+            if(compression != Compression.NONE) Assertions.assertTrue(compressed.array().length < bytes.length, compression.name());
+        }
+    }
+
+    @Test
+    public void testEmpty() {
+        for (Compression compression : Compression.values()) {
+            BlockCompression blocks = new BlockCompression(compression);
+            BinaryData decompressed = blocks.decompress(blocks.compress(new BinaryData(new byte[0], 0)));
+            Assertions.assertEquals(0, decompressed.bitLength());
+        }
+    }
+
+    @Test
+    public void testRandomAccess() {
+        byte[] bytes = new byte[5000];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (i / 10);
+        }
+
+        BlockCompression compression = new BlockCompression(Compression.LZ).withBlockSize(512);
+        CompressedBlocks blocks = compression.open(compression.compress(new BinaryData(bytes, 0)));
+        Assertions.assertEquals(10, blocks.blockCount());
+
+        // spans three blocks
+        Assertions.assertArrayEquals(Arrays.copyOfRange(bytes, 1000, 2100), blocks.read(1000, 1100));
+        Assertions.assertArrayEquals(Arrays.copyOfRange(bytes, 4608, 5000), blocks.block(9));
+    }
+
+    @Test
+    public void testColumnarBatch() {
+        List<EventSpec> events = EventSpecs.events(500);
+        BlockCompression compression = new BlockCompression(Compression.DEFLATE).withBlockSize(256);
+
+        BinaryData data = SpecIO.writeColumnar(EventSpec.class, events, compression);
+        List<EventSpec> read = SpecIO.readColumnar(data, EventSpec.class, compression).toSpecs();
+        for (int i = 0; i < events.size(); i++) {
+            SpecTypesTest.testEquality(events.get(i), read.get(i));
+        }
+    }
+
+    @Test
+    public void testDictionary() {
+        List<EventSpec> events = EventSpecs.events(200);
+        CompressionDictionary dictionary = SpecIO.trainDictionary(events, 1024);
+        Assertions.assertTrue(dictionary.bytes().length <= 1024);
+
+        BinaryData single = SpecIO.write(events.get(150));
+        for (Compression compression : List.of(Compression.DEFLATE, Compression.LZ)) {
+            BlockCompression plain = new BlockCompression(compression);
+            BlockCompression withDictionary = plain.withDictionary(dictionary);
+
+            BinaryData compressed = withDictionary.compress(single);
+            Assertions.assertArrayEquals(single.array(), withDictionary.decompress(compressed).array(), compression.name());
+
+            // the dictionary is required for reading
+            Assertions.assertThrows(IllegalArgumentException.class, () -> plain.decompress(compressed));
+        }
+    }
+
+    @Test
+    public void testStream() throws IOException {
+        List<EventSpec> events = EventSpecs.events(300);
+        BlockCompression compression = new BlockCompression(Compression.LZ).withBlockSize(512);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (SpecOutputStream specOut = new SpecOutputStream(out, compression)) {
+            for (EventSpec event : events) {
+                specOut.write(event);
+            }
+        }
+
+        try (SpecInputStream<EventSpec> in = new SpecInputStream<>(new ByteArrayInputStream(out.toByteArray()), EventSpec.class, compression)) {
+            for (EventSpec event : events) {
+                SpecTypesTest.testEquality(event, in.read());
+            }
+            Assertions.assertNull(in.read());
+        }
+    }
+
+}
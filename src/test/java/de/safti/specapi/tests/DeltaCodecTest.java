@@ -0,0 +1,41 @@
+package de.safti.specapi.tests;
+
+import de.safti.specapi.tests.specs.EventSpec;
+import de.safti.specapi.tests.specs.EventSpecs;
+import de.safti.specs.SpecIO;
+import de.safti.specs.io.BinaryData;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class DeltaCodecTest {
+
+    @Test
+    public void testApplyDeltas() {
+        List<EventSpec> snapshots = EventSpecs.events(20);
+        EventSpec replica = SpecIO.generateEmpty(EventSpec.class);
+
+        EventSpec previous = null;
+        for (EventSpec snapshot : snapshots) {
+            BinaryData delta = SpecIO.writeDelta(previous, snapshot);
+            Assertions.assertSame(replica, SpecIO.readDelta(delta, replica));
+            SpecTypesTest.testEquality(snapshot, replica);
+            previous = snapshot;
+        }
+    }
+
+    @Test
+    public void testUnchangedFieldsAreOmitted() {
+        EventSpec first = EventSpecs.events(1).getFirst();
+        EventSpec second = EventSpecs.events(1).getFirst();
+        second.setTimestamp(first.timestamp() + 1);
+
+        BinaryData delta = SpecIO.writeDelta(first, second);
+        Assertions.assertTrue(delta.bitLength() < SpecIO.write(second).bitLength() / 4);
+
+        EventSpec replica = SpecIO.readDelta(delta, first);
+        Assertions.assertEquals(second.timestamp(), replica.timestamp());
+    }
+
+}
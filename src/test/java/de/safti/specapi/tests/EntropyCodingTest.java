@@ -0,0 +1,91 @@
+package de.safti.specapi.tests;
+
+import de.safti.specapi.tests.specs.CodedSpec;
+import de.safti.specapi.tests.specs.CodedSpec.Level;
+import de.safti.specapi.tests.specs.EventSpec;
+import de.safti.specapi.tests.specs.EventSpecs;
+import de.safti.specs.SpecIO;
+import de.safti.specs.batch.ColumnarBatch;
+import de.safti.specs.io.BinaryData;
+import de.safti.specs.io.BinaryReader;
+import de.safti.specs.io.BinaryWriter;
+import de.safti.specs.io.HuffmanCode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class EntropyCodingTest {
+
+    @Test
+    public void testCodeRoundTrip() {
+        long[] frequencies = {1000, 200, 0, 50, 3, 1, 1};
+        HuffmanCode code = HuffmanCode.fromFrequencies(frequencies);
+        Assertions.assertEquals(1, code.length(0));
+        Assertions.assertEquals(0, code.length(2));
+
+        BinaryWriter writer = new BinaryWriter();
+        code.writeTable(writer);
+        int[] symbols = {0, 1, 0, 0, 3, 6, 4, 5, 0, 1};
+        for (int symbol : symbols) {
+            code.write(writer, symbol);
+        }
+
+        BinaryReader reader = new BinaryReader(writer.toBinaryData());
+        HuffmanCode read = HuffmanCode.readTable(reader);
+        Assertions.assertEquals(code, read);
+        for (int symbol : symbols) {
+            Assertions.assertEquals(symbol, read.read(reader));
+        }
+    }
+
+    @Test
+    public void testLengthLimit() {
+        // fibonacci frequencies produce the deepest possible tree
+        long[] frequencies = new long[40];
+        frequencies[0] = frequencies[1] = 1;
+        for (int i = 2; i < frequencies.length; i++) {
+            frequencies[i] = frequencies[i - 1] + frequencies[i - 2];
+        }
+
+        HuffmanCode code = HuffmanCode.fromFrequencies(frequencies);
+        Assertions.assertTrue(code.maxLength() <= HuffmanCode.MAX_LENGTH);
+
+        BinaryWriter writer = new BinaryWriter();
+        for (int i = 0; i < frequencies.length; i++) {
+            code.write(writer, i);
+        }
+        BinaryReader reader = new BinaryReader(writer.toBinaryData());
+        for (int i = 0; i < frequencies.length; i++) {
+            Assertions.assertEquals(i, code.read(reader));
+        }
+    }
+
+    @Test
+    public void testCodedFields() {
+        // the most frequent constant and value take a single bit each
+        BinaryData data = SpecIO.write(new CodedSpec(Level.INFO, 0));
+        Assertions.assertEquals(2, data.bitLength());
+
+        for (CodedSpec spec : List.of(new CodedSpec(Level.FATAL, 3), new CodedSpec(Level.WARN, -7), new CodedSpec(Level.ERROR, 1000))) {
+            Assertions.assertEquals(spec, SpecIO.read(SpecIO.write(spec), CodedSpec.class));
+        }
+    }
+
+    @Test
+    public void testHuffmanColumn() {
+        List<EventSpec> events = EventSpecs.events(200);
+        for (int i = 0; i < events.size(); i++) {
+            events.get(i).setStatus(i % 20 == 0 ? EventSpec.Status.ERROR : EventSpec.Status.OK);
+        }
+
+        ColumnarBatch batch = SpecIO.readColumnar(SpecIO.writeColumnar(EventSpec.class, events), EventSpec.class);
+        long[] statuses = batch.readLongColumn("status");
+        List<EventSpec> read = batch.toSpecs();
+        for (int i = 0; i < events.size(); i++) {
+            Assertions.assertEquals(events.get(i).status().ordinal(), statuses[i]);
+            SpecTypesTest.testEquality(events.get(i), read.get(i));
+        }
+    }
+
+}
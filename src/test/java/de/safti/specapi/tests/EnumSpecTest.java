@@ -0,0 +1,52 @@
+package de.safti.specapi.tests;
+
+import de.safti.specapi.tests.specs.FlagSpec;
+import de.safti.specapi.tests.specs.FlagSpec.Flag;
+import de.safti.specs.SpecIO;
+import de.safti.specs.io.BinaryData;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+public class EnumSpecTest {
+
+    private FlagSpec populatedSpec() {
+        FlagSpec spec = SpecIO.generateEmpty(FlagSpec.class);
+        spec.setPrimary(Flag.EXECUTE);
+        spec.setFlags(EnumSet.of(Flag.READ, Flag.HIDDEN, Flag.ARCHIVE));
+        spec.setTrailer((byte) 7);
+        return spec;
+    }
+
+    @Test
+    public void testEnumSetIO() {
+        FlagSpec spec = populatedSpec();
+        BinaryData data = SpecIO.write(spec);
+
+        // 8 bits enum, one bit per flag and 8 bits trailer
+        Assertions.assertEquals(8 + 6 + 8, data.bitLength());
+
+        FlagSpec read = (FlagSpec) SpecIO.read(data, FlagSpec.class);
+        SpecTypesTest.testEquality(spec, read);
+        Assertions.assertEquals(EnumSet.of(Flag.READ, Flag.HIDDEN, Flag.ARCHIVE), read.flags());
+    }
+
+    @Test
+    public void testEmptyEnumSet() {
+        FlagSpec spec = populatedSpec();
+        spec.setFlags(EnumSet.noneOf(Flag.class));
+
+        FlagSpec read = (FlagSpec) SpecIO.read(SpecIO.write(spec), FlagSpec.class);
+        Assertions.assertTrue(read.flags().isEmpty());
+        Assertions.assertEquals(7, read.trailer());
+    }
+
+    @Test
+    public void testEnumSetStaticOffset() {
+        // the bitmask has a fixed size, so the trailer can be read directly
+        Assertions.assertEquals(14, SpecIO.getLayout(FlagSpec.class).getBitOffset("trailer"));
+        Assertions.assertEquals((byte) 7, SpecIO.readField(SpecIO.write(populatedSpec()), FlagSpec.class, "trailer"));
+    }
+
+}
@@ -0,0 +1,43 @@
+package de.safti.specapi.tests;
+
+import de.safti.specapi.tests.specs.SpecWithAllTypes;
+import de.safti.specapi.tests.specs.StructureSpec;
+import de.safti.specs.SpecIO;
+import de.safti.specs.io.BinaryData;
+import de.safti.specs.layout.FlyweightSpec;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class FlyweightViewTest {
+
+    @Test
+    public void testViewEqualsDecoded() {
+        SpecWithAllTypes spec = new SpecTypesTest().populatedSpec();
+        BinaryData data = SpecIO.write(spec);
+
+        SpecWithAllTypes view = SpecIO.view(data, SpecWithAllTypes.class);
+        Assertions.assertInstanceOf(FlyweightSpec.class, view);
+        SpecTypesTest.testEquality(spec, view);
+
+        // fields behind dynamic fields, in reverse order so offsets have to be searched
+        Assertions.assertEquals(spec.enumVal(), view.enumVal());
+        Assertions.assertEquals(spec.stringDynamicExternalVal(), view.stringDynamicExternalVal());
+        Assertions.assertEquals(spec.uVarIntVal(), view.uVarIntVal());
+    }
+
+    @Test
+    public void testStructureView() {
+        StructureSpec spec = new StructureSpecsTest().populatedSpec();
+        StructureSpec view = SpecIO.view(SpecIO.write(spec), StructureSpec.class);
+
+        Assertions.assertEquals(spec.intSetDynamic(), view.intSetDynamic());
+        StructureSpecsTest.testEquality(spec, view);
+    }
+
+    @Test
+    public void testViewIsReadOnly() {
+        SpecWithAllTypes view = SpecIO.view(SpecIO.write(new SpecTypesTest().populatedSpec()), SpecWithAllTypes.class);
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> view.setIntVal(3));
+    }
+
+}
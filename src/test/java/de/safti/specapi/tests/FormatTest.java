@@ -0,0 +1,93 @@
+package de.safti.specapi.tests;
+
+import de.safti.specapi.tests.specs.SpecWithAllTypes;
+import de.safti.specs.SpecIO;
+import de.safti.specs.annotations.Spec;
+import de.safti.specs.format.BinaryFormat;
+import de.safti.specs.format.FieldCodec;
+import de.safti.specs.format.Format;
+import de.safti.specs.format.SpecCodec;
+import de.safti.specs.io.BinaryData;
+import de.safti.specs.io.BinaryReader;
+import de.safti.specs.io.BinaryWriter;
+import de.safti.specs.json.JsonCodec;
+import de.safti.specs.json.JsonFormat;
+import de.safti.specs.layout.SpecContext;
+import de.safti.specs.layout.SpecLayout;
+import de.safti.specs.layout.common.TypeDef;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+public class FormatTest {
+
+    /**
+     * A format keeping the values as they are, used to test user defined formats.
+     */
+    private static final class ValueFormat implements Format<List<Object>, Iterator<Object>> {
+        private int compiled;
+
+        @Override
+        public FieldCodec<List<Object>, Iterator<Object>> codec(TypeDef type) {
+            return new FieldCodec<>() {
+                @Override
+                public void write(List<Object> writer, @Nullable Object value) {
+                    writer.add(value);
+                }
+
+                @Override
+                public Object read(Iterator<Object> reader, SpecContext context) {
+                    return reader.next();
+                }
+            };
+        }
+
+        @Override
+        public SpecCodec<List<Object>, Iterator<Object>> compile(SpecLayout layout) {
+            compiled++;
+            return Format.super.compile(layout);
+        }
+    }
+
+    @Test
+    public void testBinaryFormatMatchesLayout() {
+        SpecWithAllTypes spec = new SpecTypesTest().populatedSpec();
+
+        BinaryWriter writer = new BinaryWriter();
+        SpecIO.write(spec, BinaryFormat.INSTANCE, writer);
+        BinaryData data = writer.toBinaryData();
+        Assertions.assertArrayEquals(SpecIO.write(spec).array(), data.array());
+
+        Spec read = SpecIO.read(new BinaryReader(data), BinaryFormat.INSTANCE, SpecWithAllTypes.class);
+        SpecTypesTest.testEquality(spec, read);
+    }
+
+    @Test
+    public void testCustomFormat() {
+        SpecWithAllTypes spec = new SpecTypesTest().populatedSpec();
+        ValueFormat format = new ValueFormat();
+
+        List<Object> values = new ArrayList<>();
+        SpecIO.write(spec, format, values);
+        SpecIO.write(spec, format, new ArrayList<>());
+        Assertions.assertEquals(SpecIO.getLayout(spec).getFields().length, values.size());
+
+        Spec read = SpecIO.read(values.iterator(), format, SpecWithAllTypes.class);
+        SpecTypesTest.testEquality(spec, read);
+
+        // the codec is compiled once per layout
+        Assertions.assertEquals(1, format.compiled);
+    }
+
+    @Test
+    public void testCodecsAreCached() {
+        SpecLayout layout = SpecIO.getLayout(SpecWithAllTypes.class);
+        Assertions.assertSame(layout.codec(BinaryFormat.INSTANCE), layout.codec(BinaryFormat.INSTANCE));
+        Assertions.assertSame(layout.codec(JsonFormat.INSTANCE), JsonCodec.of(layout));
+    }
+
+}
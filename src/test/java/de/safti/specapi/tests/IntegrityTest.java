@@ -0,0 +1,94 @@
+package de.safti.specapi.tests;
+
+import de.safti.specapi.tests.specs.EventSpec;
+import de.safti.specapi.tests.specs.EventSpecs;
+import de.safti.specs.SpecIO;
+import de.safti.specs.compress.BlockCompression;
+import de.safti.specs.compress.Compression;
+import de.safti.specs.integrity.BlockChecksum;
+import de.safti.specs.io.BinaryData;
+import de.safti.specs.io.CorruptDataException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class IntegrityTest {
+
+    @Test
+    public void testRoundTrip() {
+        byte[] bytes = new byte[10_000];
+        new Random(42).nextBytes(bytes);
+        BinaryData data = new BinaryData(bytes, 5);
+
+        BlockChecksum checksum = new BlockChecksum().withBlockSize(1024);
+        BinaryData opened = checksum.open(checksum.seal(data));
+        Assertions.assertArrayEquals(bytes, opened.array());
+        Assertions.assertEquals(data.bitLength(), opened.bitLength());
+
+        BinaryData empty = checksum.open(checksum.seal(new BinaryData(new byte[0], 0)));
+        Assertions.assertEquals(0, empty.bitLength());
+    }
+
+    @Test
+    public void testSingleSpec() {
+        EventSpec event = EventSpecs.events(10).get(7);
+        BlockChecksum checksum = new BlockChecksum();
+
+        BinaryData data = SpecIO.write(event, checksum);
+        SpecTypesTest.testEquality(event, SpecIO.read(data, EventSpec.class, checksum));
+
+        // flip every bit once, each has to be detected
+        byte[] bytes = data.array();
+        for (int i = 0; i < bytes.length * 8; i++) {
+            byte[] corrupt = bytes.clone();
+            corrupt[i / 8] ^= (byte) (1 << (i % 8));
+            Assertions.assertThrows(CorruptDataException.class, () -> SpecIO.read(new BinaryData(corrupt, data.padding()), EventSpec.class, checksum));
+        }
+    }
+
+    @Test
+    public void testColumnarBatch() {
+        List<EventSpec> events = EventSpecs.events(500);
+        BlockChecksum checksum = new BlockChecksum().withBlockSize(128);
+
+        BinaryData data = SpecIO.writeColumnar(EventSpec.class, events, checksum);
+        List<EventSpec> read = SpecIO.readColumnar(data, EventSpec.class, checksum).toSpecs();
+        for (int i = 0; i < events.size(); i++) {
+            SpecTypesTest.testEquality(events.get(i), read.get(i));
+        }
+
+        byte[] corrupt = data.array().clone();
+        corrupt[corrupt.length - 200] ^= 0x10;
+        CorruptDataException exception = Assertions.assertThrows(CorruptDataException.class,
+                () -> SpecIO.readColumnar(new BinaryData(corrupt, data.padding()), EventSpec.class, checksum));
+        Assertions.assertTrue(exception.getMessage().contains("block"));
+    }
+
+    @Test
+    public void testTruncated() {
+        BlockChecksum checksum = new BlockChecksum().withBlockSize(256);
+        BinaryData data = SpecIO.writeColumnar(EventSpec.class, EventSpecs.events(100), checksum);
+
+        for (int length : new int[]{0, 1, 3, data.array().length / 2, data.array().length - 1}) {
+            BinaryData truncated = new BinaryData(Arrays.copyOf(data.array(), length), 0);
+            Assertions.assertThrows(CorruptDataException.class, () -> checksum.open(truncated), "length " + length);
+        }
+    }
+
+    @Test
+    public void testCompressed() {
+        List<EventSpec> events = EventSpecs.events(300);
+        BlockCompression compression = new BlockCompression(Compression.DEFLATE).withBlockSize(512);
+        BlockChecksum checksum = new BlockChecksum().withBlockSize(64);
+
+        BinaryData data = checksum.seal(SpecIO.writeColumnar(EventSpec.class, events, compression));
+        List<EventSpec> read = SpecIO.readColumnar(checksum.open(data), EventSpec.class, compression).toSpecs();
+        for (int i = 0; i < events.size(); i++) {
+            SpecTypesTest.testEquality(events.get(i), read.get(i));
+        }
+    }
+
+}
@@ -0,0 +1,165 @@
+package de.safti.specapi.tests;
+
+import de.safti.specapi.tests.specs.OptionalSpec;
+import de.safti.specapi.tests.specs.SpecWithAllTypes;
+import de.safti.specapi.tests.specs.StructureSpec;
+import de.safti.specs.SpecIO;
+import de.safti.specs.annotations.Spec;
+import de.safti.specs.io.CorruptDataException;
+import de.safti.specs.json.JsonNames;
+import de.safti.specs.json.JsonReader;
+import de.safti.specs.json.JsonToken;
+import de.safti.specs.json.JsonWriter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+public class JsonTest {
+
+    @Test
+    public void testAllTypesRoundTrip() {
+        SpecWithAllTypes spec = new SpecTypesTest().populatedSpec();
+        spec.setStringTerminatedVal("quote \" backslash \\ tab \t newline \n unicode äöü 😀");
+
+        String json = SpecIO.toJson(spec);
+        Spec read = SpecIO.readJson(json, SpecWithAllTypes.class);
+        SpecTypesTest.testEquality(spec, read);
+
+        // the stream variants produce and accept the same bytes
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SpecIO.writeJson(spec, out);
+        Assertions.assertArrayEquals(json.getBytes(StandardCharsets.UTF_8), out.toByteArray());
+        SpecTypesTest.testEquality(spec, SpecIO.readJson(new ByteArrayInputStream(out.toByteArray()), SpecWithAllTypes.class));
+    }
+
+    @Test
+    public void testStructuresRoundTrip() {
+        StructureSpec spec = new StructureSpecsTest().populatedSpec();
+
+        String json = SpecIO.toJson(spec);
+        SpecTypesTest.testEquality(spec, SpecIO.readJson(json, StructureSpec.class));
+    }
+
+    @Test
+    public void testTranscode() {
+        SpecWithAllTypes spec = new SpecTypesTest().populatedSpec();
+        Assertions.assertEquals(SpecIO.toJson(spec), SpecIO.transcodeJson(SpecIO.write(spec), SpecWithAllTypes.class));
+
+        StructureSpec structures = new StructureSpecsTest().populatedSpec();
+        Assertions.assertEquals(SpecIO.toJson(structures), SpecIO.transcodeJson(SpecIO.write(structures), StructureSpec.class));
+
+        OptionalSpec optionals = SpecIO.generate(OptionalSpec.class);
+        Assertions.assertEquals(SpecIO.toJson(optionals), SpecIO.transcodeJson(SpecIO.write(optionals), OptionalSpec.class));
+
+        // the stream variant produces the same bytes
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SpecIO.transcodeJson(SpecIO.write(spec), SpecWithAllTypes.class, out);
+        Assertions.assertArrayEquals(SpecIO.toJson(spec).getBytes(StandardCharsets.UTF_8), out.toByteArray());
+    }
+
+    @Test
+    public void testOptionals() {
+        OptionalSpec spec = SpecIO.generate(OptionalSpec.class);
+        Assertions.assertEquals("{\"nullableString\":null,\"optString\":null,\"optInt\":null}", SpecIO.toJson(spec));
+
+        spec.setNullableString("Hello");
+        spec.setOptString(Optional.of("World"));
+        spec.setOptInt(OptionalInt.of(42));
+        Assertions.assertEquals("{\"nullableString\":\"Hello\",\"optString\":\"World\",\"optInt\":42}", SpecIO.toJson(spec));
+
+        OptionalSpec read = (OptionalSpec) SpecIO.readJson(SpecIO.toJson(spec), OptionalSpec.class);
+        Assertions.assertEquals("Hello", read.nullableString());
+        Assertions.assertEquals(Optional.of("World"), read.optString());
+        Assertions.assertEquals(OptionalInt.of(42), read.optInt());
+    }
+
+    @Test
+    public void testUnknownMembersAreSkipped() {
+        String json = """
+                {
+                  "unknown": {"nested": [1, 2.5, "three", true, null, {"a": []}]},
+                  "optInt": 7,
+                  "nullableString": "x",
+                  "other": "\\"}"
+                }
+                """;
+
+        OptionalSpec read = (OptionalSpec) SpecIO.readJson(json, OptionalSpec.class);
+        Assertions.assertEquals(OptionalInt.of(7), read.optInt());
+        Assertions.assertEquals("x", read.nullableString());
+        Assertions.assertTrue(read.optString().isEmpty());
+
+        OptionalSpec empty = (OptionalSpec) SpecIO.readJson("{}", OptionalSpec.class);
+        Assertions.assertNull(empty.nullableString());
+        Assertions.assertEquals(Optional.empty(), empty.optString());
+        Assertions.assertEquals(OptionalInt.empty(), empty.optInt());
+    }
+
+    @Test
+    public void testNumbers() {
+        String json = "[0, -1, 9223372036854775807, -9223372036854775808, 1e3, 0.1, -2.5E-3, 3.141592653589793, 1.7976931348623157e308, 4.9e-324, \"NaN\", 18446744073709551615, 123456789012345678901234567890]";
+        JsonReader reader = new JsonReader(json.getBytes(StandardCharsets.UTF_8));
+
+        reader.beginArray();
+        Assertions.assertEquals(0, reader.nextLong());
+        Assertions.assertEquals(-1, reader.nextLong());
+        Assertions.assertEquals(Long.MAX_VALUE, reader.nextLong());
+        Assertions.assertEquals(Long.MIN_VALUE, reader.nextLong());
+        Assertions.assertEquals(1000, reader.nextLong());
+        Assertions.assertEquals(0.1, reader.nextDouble());
+        Assertions.assertEquals(-2.5E-3, reader.nextDouble());
+        Assertions.assertEquals(Math.PI, reader.nextDouble());
+        Assertions.assertEquals(Double.MAX_VALUE, reader.nextDouble());
+        Assertions.assertEquals(Double.MIN_VALUE, reader.nextDouble());
+        Assertions.assertTrue(Double.isNaN(reader.nextDouble()));
+        Assertions.assertEquals(-1L, reader.nextUnsignedLong());
+        Assertions.assertEquals(new BigInteger("123456789012345678901234567890"), reader.nextBigInteger());
+        reader.endArray();
+        Assertions.assertEquals(JsonToken.END, reader.peek());
+
+        Assertions.assertThrows(CorruptDataException.class, () -> new JsonReader("9223372036854775808".getBytes(StandardCharsets.UTF_8)).nextLong());
+        Assertions.assertThrows(CorruptDataException.class, () -> new JsonReader("1.5".getBytes(StandardCharsets.UTF_8)).nextLong());
+    }
+
+    @Test
+    public void testWriterNumbers() {
+        JsonWriter writer = new JsonWriter();
+        writer.beginArray();
+        writer.value(Long.MIN_VALUE);
+        writer.unsignedValue(-1L);
+        writer.value(2.0);
+        writer.value(0.1);
+        writer.value(Double.POSITIVE_INFINITY);
+        writer.value(1.5f);
+        writer.endArray();
+
+        Assertions.assertEquals("[-9223372036854775808,18446744073709551615,2,0.1,\"Infinity\",1.5]", writer.toString());
+    }
+
+    @Test
+    public void testNames() {
+        JsonNames names = new JsonNames("alpha", "beta", "gämma", "delta");
+        JsonReader reader = new JsonReader("{\"beta\":1,\"gämma\":2,\"epsilon\":3,\"alpha\":4}".getBytes(StandardCharsets.UTF_8));
+
+        reader.beginObject();
+        Assertions.assertEquals(1, reader.nextName(names));
+        reader.skipValue();
+        Assertions.assertEquals(2, reader.nextName(names));
+        reader.skipValue();
+        Assertions.assertEquals(-1, reader.nextName(names));
+        reader.skipValue();
+        Assertions.assertEquals(0, reader.nextName(names));
+        reader.skipValue();
+        reader.endObject();
+
+        Assertions.assertEquals(3, names.indexOf("delta"));
+        Assertions.assertEquals(-1, names.indexOf("omega"));
+    }
+
+}
@@ -0,0 +1,92 @@
+package de.safti.specapi.tests;
+
+import de.safti.specapi.tests.specs.SampleSpec;
+import de.safti.specs.SpecIO;
+import de.safti.specs.io.BinaryData;
+import de.safti.specs.offheap.OffHeapArray;
+import de.safti.specs.offheap.OffHeapArray.Kind;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+
+public class OffHeapArrayTest {
+
+    private SampleSpec populatedSpec(Arena arena) {
+        SampleSpec spec = SpecIO.generateEmpty(SampleSpec.class);
+        spec.setChannel((byte) 3);
+
+        OffHeapArray samples = OffHeapArray.allocate(arena, Kind.SHORT, 1000);
+        for (int i = 0; i < samples.length(); i++) {
+            samples.setLong(i, i * 31 - 15000);
+        }
+        spec.setSamples(samples);
+
+        OffHeapArray levels = OffHeapArray.allocate(arena, Kind.DOUBLE, 3);
+        levels.setDouble(0, 0.25);
+        levels.setDouble(1, -1.5);
+        levels.setDouble(2, Math.E);
+        spec.setLevels(levels);
+
+        OffHeapArray deltas = OffHeapArray.allocate(arena, Kind.SHORT, 4);
+        deltas.setLong(0, -2048);
+        deltas.setLong(1, 2047);
+        deltas.setLong(2, 0);
+        deltas.setLong(3, -1);
+        spec.setDeltas(deltas);
+        return spec;
+    }
+
+    @Test
+    public void testOffHeapArrayIO() {
+        try (Arena arena = Arena.ofConfined()) {
+            SampleSpec spec = populatedSpec(arena);
+            BinaryData data = SpecIO.write(spec);
+
+            SampleSpec read = (SampleSpec) SpecIO.read(data, SampleSpec.class, arena);
+            SpecTypesTest.testEquality(spec, read);
+            Assertions.assertEquals(Kind.SHORT, read.samples().kind());
+            Assertions.assertEquals(-15000, read.samples().getLong(0));
+            Assertions.assertEquals(Math.E, read.levels().getDouble(2));
+            Assertions.assertEquals(-2048, read.deltas().getInt(0));
+            Assertions.assertEquals(spec.samples().hashCode(), read.samples().hashCode());
+            Assertions.assertEquals(spec.deltas().hashCode(), read.deltas().hashCode());
+        }
+    }
+
+    @Test
+    public void testArenaReleasesMemory() {
+        SampleSpec read;
+        try (Arena arena = Arena.ofConfined()) {
+            read = (SampleSpec) SpecIO.read(SpecIO.write(populatedSpec(arena)), SampleSpec.class, arena);
+            Assertions.assertEquals(1000, read.samples().length());
+        }
+
+        Assertions.assertFalse(read.samples().segment().scope().isAlive());
+        Assertions.assertThrows(IllegalStateException.class, () -> read.samples().getLong(0));
+    }
+
+    @Test
+    public void testWireCompatibleWithArrayDynamic() {
+        try (Arena arena = Arena.ofConfined()) {
+            SampleSpec spec = populatedSpec(arena);
+            BinaryData data = SpecIO.write(spec);
+
+            // 8 bits channel, 32 bits length + 16 bits per sample, 32 bits length + 64 bits per level, 5 bits length + 12 bits per delta
+            Assertions.assertEquals(8 + 32 + 16 * 1000 + 32 + 64 * 3 + 5 + 12 * 4, data.bitLength());
+        }
+    }
+
+    @Test
+    public void testEmptyWithoutArena() {
+        SampleSpec spec = SpecIO.generateEmpty(SampleSpec.class);
+        spec.setSamples(OffHeapArray.empty(Kind.SHORT));
+        spec.setLevels(OffHeapArray.empty(Kind.DOUBLE));
+        spec.setDeltas(OffHeapArray.empty(Kind.SHORT));
+
+        SampleSpec read = (SampleSpec) SpecIO.read(SpecIO.write(spec), SampleSpec.class);
+        SpecTypesTest.testEquality(spec, read);
+        Assertions.assertEquals(0, read.levels().length());
+    }
+
+}
@@ -0,0 +1,87 @@
+package de.safti.specapi.tests;
+
+import de.safti.specapi.tests.specs.PackedSpec;
+import de.safti.specs.SpecIO;
+import de.safti.specs.io.BinaryData;
+import de.safti.specs.io.BinaryReader;
+import de.safti.specs.io.BinaryWriter;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PackedListTest {
+
+    private PackedSpec populatedSpec(int count) {
+        LongArrayList timestamps = new LongArrayList();
+        IntArrayList ids = new IntArrayList();
+        for (int i = 0; i < count; i++) {
+            timestamps.add(1_700_000_000_000L + i * 1000L + (i % 7 == 0 ? 3 : 0));
+            ids.add(50_000 + i * 3);
+        }
+
+        PackedSpec spec = SpecIO.generateEmpty(PackedSpec.class);
+        spec.setTimestamps(timestamps);
+        spec.setIds(ids);
+        spec.setValues(new ArrayList<>(List.of(-5L, Long.MIN_VALUE, 0L, Long.MAX_VALUE, 12L)));
+        spec.setOffset(-3);
+        return spec;
+    }
+
+    @Test
+    public void testPackedListIO() {
+        PackedSpec spec = populatedSpec(500);
+        PackedSpec read = (PackedSpec) SpecIO.read(SpecIO.write(spec), PackedSpec.class);
+
+        SpecTypesTest.testEquality(spec, read);
+        Assertions.assertInstanceOf(LongArrayList.class, read.timestamps());
+        Assertions.assertInstanceOf(IntArrayList.class, read.ids());
+    }
+
+    @Test
+    public void testEmptyLists() {
+        PackedSpec spec = populatedSpec(0);
+        spec.setValues(List.of());
+
+        PackedSpec read = (PackedSpec) SpecIO.read(SpecIO.write(spec), PackedSpec.class);
+        Assertions.assertTrue(read.timestamps().isEmpty());
+        Assertions.assertTrue(read.ids().isEmpty());
+        Assertions.assertTrue(read.values().isEmpty());
+    }
+
+    @Test
+    public void testSmallerThanFixedWidth() {
+        PackedSpec spec = populatedSpec(1000);
+        BinaryData data = SpecIO.write(spec);
+
+        // 63 + 32 bits per element without packing
+        Assertions.assertTrue(data.bitLength() * 4 < 1000 * (63 + 32));
+    }
+
+    @Test
+    public void testSkip() {
+        PackedSpec spec = populatedSpec(300);
+        Assertions.assertEquals(-3, SpecIO.readField(SpecIO.write(spec), PackedSpec.class, "offset"));
+    }
+
+    @Test
+    public void testZigZag() {
+        long[] values = {0, -1, 1, -64, 63, -65, Long.MIN_VALUE, Long.MAX_VALUE};
+        BinaryWriter writer = new BinaryWriter();
+        for (long value : values) {
+            writer.writeZigZagVarInt(value);
+        }
+
+        // -64 and 63 still fit into a single byte
+        Assertions.assertEquals(8 * (1 + 1 + 1 + 1 + 1 + 2 + 10 + 10), writer.getBitLength());
+
+        BinaryReader reader = new BinaryReader(writer.toBinaryData());
+        for (long value : values) {
+            Assertions.assertEquals(value, reader.readZigZagVarInt());
+        }
+    }
+
+}
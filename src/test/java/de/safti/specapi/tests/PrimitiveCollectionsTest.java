@@ -0,0 +1,49 @@
+package de.safti.specapi.tests;
+
+import de.safti.specapi.tests.specs.PrimitiveCollectionSpec;
+import de.safti.specs.SpecIO;
+import de.safti.specs.io.BinaryData;
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.shorts.ShortOpenHashSet;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PrimitiveCollectionsTest {
+
+    private PrimitiveCollectionSpec populatedSpec() {
+        PrimitiveCollectionSpec spec = SpecIO.generateEmpty(PrimitiveCollectionSpec.class);
+        spec.setInts(IntArrayList.of(1, -2, 300_000, 4));
+        spec.setDoubles(DoubleArrayList.of(0.5, -1.25, Math.PI));
+        spec.setLongs(LongOpenHashSet.of(-1L, Long.MAX_VALUE, 42L));
+        spec.setShorts(ShortOpenHashSet.of((short) -7, (short) 12345));
+        return spec;
+    }
+
+    @Test
+    public void testPrimitiveCollectionsIO() {
+        PrimitiveCollectionSpec spec = populatedSpec();
+        PrimitiveCollectionSpec read = (PrimitiveCollectionSpec) SpecIO.read(SpecIO.write(spec), PrimitiveCollectionSpec.class);
+
+        SpecTypesTest.testEquality(spec, read);
+        Assertions.assertInstanceOf(IntArrayList.class, read.ints());
+        Assertions.assertInstanceOf(LongOpenHashSet.class, read.longs());
+    }
+
+    @Test
+    public void testReadIntoPrimitiveCollections() {
+        PrimitiveCollectionSpec spec = populatedSpec();
+        BinaryData data = SpecIO.write(spec);
+
+        PrimitiveCollectionSpec target = (PrimitiveCollectionSpec) SpecIO.read(data, PrimitiveCollectionSpec.class);
+        LongOpenHashSet longs = target.longs();
+
+        spec.longs().add(7L);
+        SpecIO.readInto(SpecIO.write(spec), target);
+
+        Assertions.assertSame(longs, target.longs());
+        SpecTypesTest.testEquality(spec, target);
+    }
+
+}
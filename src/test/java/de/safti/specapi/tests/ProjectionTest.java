@@ -0,0 +1,97 @@
+package de.safti.specapi.tests;
+
+import de.safti.specapi.tests.specs.OptionalSpec;
+import de.safti.specapi.tests.specs.SpecWithAllTypes;
+import de.safti.specapi.tests.specs.StructureSpec;
+import de.safti.specs.SpecIO;
+import de.safti.specs.io.BinaryData;
+import de.safti.specs.layout.SpecLayout;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.OptionalInt;
+
+public class ProjectionTest {
+
+    @Test
+    public void testSkipsUnrequestedFields() {
+        SpecWithAllTypes spec = new SpecTypesTest().populatedSpec();
+        BinaryData data = SpecIO.write(spec);
+
+        SpecWithAllTypes read = (SpecWithAllTypes) SpecIO.read(data, SpecWithAllTypes.class, "intVal", "stringDynamicVal");
+        Assertions.assertEquals(spec.intVal(), read.intVal());
+        Assertions.assertEquals(spec.stringDynamicVal(), read.stringDynamicVal());
+
+        // skipped fields get the default of their type
+        Assertions.assertEquals(0, read.byteVal());
+        Assertions.assertNull(read.bigIntVal());
+        Assertions.assertNull(read.stringDynamicExternalVal());
+        Assertions.assertNull(read.stringFixedVal());
+        Assertions.assertNull(read.enumVal());
+    }
+
+    @Test
+    public void testReferencedFieldsAreDecoded() {
+        SpecWithAllTypes spec = new SpecTypesTest().populatedSpec();
+        BinaryData data = SpecIO.write(spec);
+
+        // skipping stringDynamicExternalVal requires externalLengthField
+        SpecWithAllTypes read = (SpecWithAllTypes) SpecIO.read(data, SpecWithAllTypes.class, "enumVal");
+        Assertions.assertEquals(spec.enumVal(), read.enumVal());
+        Assertions.assertEquals(spec.externalLengthField(), read.externalLengthField());
+        Assertions.assertNull(read.stringTerminatedVal());
+    }
+
+    @Test
+    public void testSkipStructures() {
+        StructureSpec spec = new StructureSpecsTest().populatedSpec();
+        BinaryData data = SpecIO.write(spec);
+
+        StructureSpec read = (StructureSpec) SpecIO.read(data, StructureSpec.class, "intListDynamic", "intSetDynamic");
+        Assertions.assertEquals(spec.intListDynamic(), read.intListDynamic());
+        Assertions.assertEquals(spec.intSetDynamic(), read.intSetDynamic());
+
+        // skipped fields get the default of their type
+        StructureSpec defaults = SpecIO.generate(StructureSpec.class);
+        Assertions.assertArrayEquals(defaults.ints3d(), read.ints3d());
+        Assertions.assertEquals(defaults.intSetFixed(), read.intSetFixed());
+    }
+
+    @Test
+    public void testSkippedFieldsGetDefaults() {
+        OptionalSpec spec = SpecIO.generate(OptionalSpec.class);
+        spec.setNullableString("text");
+        spec.setOptString(Optional.of("more text"));
+
+        BinaryData data = SpecIO.write(spec);
+        OptionalSpec read = (OptionalSpec) SpecIO.read(data, OptionalSpec.class, "nullableString");
+        Assertions.assertEquals(((OptionalSpec) SpecIO.read(data, OptionalSpec.class)).nullableString(), read.nullableString());
+        Assertions.assertEquals(Optional.empty(), read.optString());
+        Assertions.assertEquals(OptionalInt.empty(), read.optInt());
+    }
+
+    @Test
+    public void testReadField() {
+        SpecWithAllTypes spec = new SpecTypesTest().populatedSpec();
+        BinaryData data = SpecIO.write(spec);
+        SpecLayout layout = SpecIO.getLayout(SpecWithAllTypes.class);
+
+        // byte + short
+        Assertions.assertEquals(24, layout.getBitOffset("intVal"));
+        // the varint in front has no fixed size
+        Assertions.assertEquals(-1, layout.getBitOffset("uVarIntVal"));
+
+        Assertions.assertEquals(spec.intVal(), SpecIO.readField(data, SpecWithAllTypes.class, "intVal"));
+        Assertions.assertEquals(spec.bigIntVal(), SpecIO.readField(data, SpecWithAllTypes.class, "bigIntVal"));
+        Assertions.assertEquals(spec.stringDynamicExternalVal(), SpecIO.readField(data, SpecWithAllTypes.class, "stringDynamicExternalVal"));
+        Assertions.assertEquals(spec.enumVal(), layout.readField(data, layout.getField("enumVal")));
+    }
+
+    @Test
+    public void testUnknownField() {
+        BinaryData data = SpecIO.write(new SpecTypesTest().populatedSpec());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SpecIO.read(data, SpecWithAllTypes.class, "unknown"));
+    }
+
+}
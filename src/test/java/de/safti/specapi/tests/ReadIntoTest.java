@@ -0,0 +1,47 @@
+package de.safti.specapi.tests;
+
+import de.safti.specapi.tests.specs.SpecWithAllTypes;
+import de.safti.specapi.tests.specs.StructureSpec;
+import de.safti.specs.SpecIO;
+import de.safti.specs.io.BinaryData;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+public class ReadIntoTest {
+
+    @Test
+    public void testReadIntoReusesContainers() {
+        StructureSpec spec = new StructureSpecsTest().populatedSpec();
+        BinaryData data = SpecIO.write(spec);
+
+        StructureSpec target = (StructureSpec) SpecIO.read(data, StructureSpec.class);
+        int[][][] ints3d = target.ints3d();
+        List<Integer> list = target.intListDynamic();
+        Set<Integer> set = target.intSetFixed();
+
+        // decode a different spec into the same target
+        spec.ints3d()[1][2][3] = 1234;
+        spec.intListDynamic().add(7);
+        BinaryData changed = SpecIO.write(spec);
+
+        Assertions.assertSame(target, SpecIO.readInto(changed, target));
+        StructureSpecsTest.testEquality(spec, target);
+
+        Assertions.assertSame(ints3d, target.ints3d());
+        Assertions.assertSame(list, target.intListDynamic());
+        Assertions.assertSame(set, target.intSetFixed());
+    }
+
+    @Test
+    public void testReadIntoEmptyTarget() {
+        SpecWithAllTypes spec = new SpecTypesTest().populatedSpec();
+        SpecWithAllTypes target = SpecIO.generateEmpty(SpecWithAllTypes.class);
+
+        SpecIO.readInto(SpecIO.write(spec), target);
+        SpecTypesTest.testEquality(spec, target);
+    }
+
+}
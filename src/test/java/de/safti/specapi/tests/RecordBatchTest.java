@@ -0,0 +1,56 @@
+package de.safti.specapi.tests;
+
+import de.safti.specapi.tests.specs.EventSpec;
+import de.safti.specapi.tests.specs.EventSpecs;
+import de.safti.specs.SpecIO;
+import de.safti.specs.batch.RecordBatch;
+import de.safti.specs.io.BinaryData;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class RecordBatchTest {
+
+    @Test
+    public void testToSpecs() {
+        List<EventSpec> events = EventSpecs.events(100);
+        RecordBatch batch = SpecIO.readBatch(SpecIO.writeBatch(EventSpec.class, events, "host"), EventSpec.class);
+        Assertions.assertEquals(100, batch.size());
+
+        List<EventSpec> read = batch.toSpecs();
+        for (int i = 0; i < events.size(); i++) {
+            SpecTypesTest.testEquality(events.get(i), read.get(i));
+        }
+    }
+
+    @Test
+    public void testSharedInstances() {
+        List<EventSpec> events = EventSpecs.events(100);
+        RecordBatch batch = SpecIO.readBatch(SpecIO.writeBatch(EventSpec.class, events, "host"), EventSpec.class);
+        Assertions.assertArrayEquals(new String[]{"host-0", "host-1", "host-2", "host-3"}, batch.getDictionary("host"));
+        Assertions.assertNull(batch.getDictionary("status"));
+
+        List<EventSpec> read = batch.toSpecs();
+        Assertions.assertSame(read.get(0).host(), read.get(4).host());
+        Assertions.assertSame(read.get(1).host(), read.get(1 + 24 * EventSpecs.HOSTS).host());
+    }
+
+    @Test
+    public void testSmallerThanRecords() {
+        List<EventSpec> events = EventSpecs.events(100);
+        BinaryData plain = SpecIO.writeBatch(EventSpec.class, events);
+        BinaryData dictionary = SpecIO.writeBatch(EventSpec.class, events, "host");
+
+        Assertions.assertTrue(dictionary.bitLength() < plain.bitLength());
+        Assertions.assertEquals(100, SpecIO.readBatch(plain, EventSpec.class).toSpecs().size());
+    }
+
+    @Test
+    public void testNonStringField() {
+        List<EventSpec> events = EventSpecs.events(10);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SpecIO.writeBatch(EventSpec.class, events, "id"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SpecIO.writeBatch(EventSpec.class, events, "missing"));
+    }
+
+}
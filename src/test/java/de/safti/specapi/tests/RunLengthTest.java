@@ -0,0 +1,76 @@
+package de.safti.specapi.tests;
+
+import de.safti.specapi.tests.specs.EventSpec.Status;
+import de.safti.specapi.tests.specs.RunLengthSpec;
+import de.safti.specs.SpecIO;
+import de.safti.specs.io.BinaryData;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class RunLengthTest {
+
+    private RunLengthSpec populatedSpec(int count) {
+        byte[] occupancy = new byte[count];
+        double[] levels = new double[count];
+        Status[] states = new Status[count];
+        IntArrayList counters = new IntArrayList();
+        for (int i = 0; i < count; i++) {
+            occupancy[i] = (byte) (i % 50 < 5 ? 1 : 0);
+            levels[i] = i < count / 2 ? 0.5 : Double.NaN;
+            states[i] = i % 100 < 90 ? Status.OK : Status.ERROR;
+            counters.add(i / 25 - 3);
+        }
+
+        RunLengthSpec spec = SpecIO.generateEmpty(RunLengthSpec.class);
+        spec.setOccupancy(occupancy);
+        spec.setLevels(levels);
+        spec.setStates(states);
+        spec.setCounters(counters);
+        spec.setLabels(List.of("a", "a", "b", "a", "a", "a"));
+        return spec;
+    }
+
+    @Test
+    public void testRunLengthIO() {
+        RunLengthSpec spec = populatedSpec(1000);
+        RunLengthSpec read = (RunLengthSpec) SpecIO.read(SpecIO.write(spec), RunLengthSpec.class);
+
+        Assertions.assertArrayEquals(spec.occupancy(), read.occupancy());
+        Assertions.assertArrayEquals(spec.levels(), read.levels());
+        Assertions.assertArrayEquals(spec.states(), read.states());
+        Assertions.assertEquals(spec.counters(), read.counters());
+        Assertions.assertInstanceOf(IntArrayList.class, read.counters());
+        Assertions.assertEquals(spec.labels(), read.labels());
+    }
+
+    @Test
+    public void testEmpty() {
+        RunLengthSpec spec = populatedSpec(0);
+        spec.setLabels(List.of());
+
+        RunLengthSpec read = (RunLengthSpec) SpecIO.read(SpecIO.write(spec), RunLengthSpec.class);
+        Assertions.assertEquals(0, read.occupancy().length);
+        Assertions.assertEquals(0, read.states().length);
+        Assertions.assertTrue(read.counters().isEmpty());
+        Assertions.assertTrue(read.labels().isEmpty());
+    }
+
+    @Test
+    public void testSmallerThanElements() {
+        RunLengthSpec spec = populatedSpec(1000);
+        BinaryData data = SpecIO.write(spec);
+
+        // 8 + 64 + 2 bits per element without run length encoding
+        Assertions.assertTrue(data.bitLength() * 10 < 1000 * (8 + 64 + 2));
+    }
+
+    @Test
+    public void testSkip() {
+        RunLengthSpec spec = populatedSpec(500);
+        Assertions.assertEquals(spec.labels(), SpecIO.readField(SpecIO.write(spec), RunLengthSpec.class, "labels"));
+    }
+
+}
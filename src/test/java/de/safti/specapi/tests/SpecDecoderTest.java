@@ -0,0 +1,153 @@
+package de.safti.specapi.tests;
+
+import de.safti.specapi.tests.specs.EventSpec;
+import de.safti.specapi.tests.specs.EventSpecs;
+import de.safti.specs.SpecIO;
+import de.safti.specs.stream.SpecDecoder;
+import de.safti.specs.stream.SpecInputStream;
+import de.safti.specs.stream.SpecOutputStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+public class SpecDecoderTest {
+
+    private byte[] encode(List<EventSpec> events) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (SpecOutputStream specOut = new SpecOutputStream(out)) {
+            for (EventSpec event : events) {
+                specOut.write(event);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testInputStream() throws IOException {
+        List<EventSpec> events = EventSpecs.events(20);
+
+        try (SpecInputStream<EventSpec> in = new SpecInputStream<>(new ByteArrayInputStream(encode(events)), EventSpec.class)) {
+            for (EventSpec event : events) {
+                SpecTypesTest.testEquality(event, in.read());
+            }
+            Assertions.assertNull(in.read());
+        }
+    }
+
+    @Test
+    public void testChunkedDecoding() throws Exception {
+        List<EventSpec> events = EventSpecs.events(50);
+        byte[] bytes = encode(events);
+
+        List<EventSpec> received = new ArrayList<>();
+        CompletableFuture<Void> done = new CompletableFuture<>();
+
+        SpecDecoder<EventSpec> decoder = SpecIO.decoder(EventSpec.class);
+        decoder.subscribe(new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(EventSpec item) {
+                received.add(item);
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                done.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                done.complete(null);
+            }
+        });
+
+        // feed chunks of random size, frames span multiple chunks
+        try (SubmissionPublisher<ByteBuffer> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(decoder);
+
+            Random random = new Random(42);
+            int position = 0;
+            while (position < bytes.length) {
+                int length = Math.min(bytes.length - position, 1 + random.nextInt(7));
+                publisher.submit(ByteBuffer.wrap(bytes, position, length));
+                position += length;
+            }
+        }
+
+        done.get(10, TimeUnit.SECONDS);
+        Assertions.assertEquals(events.size(), received.size());
+        for (int i = 0; i < events.size(); i++) {
+            SpecTypesTest.testEquality(events.get(i), received.get(i));
+        }
+    }
+
+    @Test
+    public void testNonPositiveRequest() throws IOException {
+        byte[] bytes = encode(EventSpecs.events(5));
+        List<EventSpec> received = new ArrayList<>();
+        List<Throwable> errors = new ArrayList<>();
+        Flow.Subscription[] subscription = new Flow.Subscription[1];
+
+        SpecDecoder<EventSpec> decoder = SpecIO.decoder(EventSpec.class);
+        decoder.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription s) {
+                subscription[0] = s;
+                s.request(1);
+            }
+
+            @Override
+            public void onNext(EventSpec item) {
+                received.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                errors.add(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+
+        // upstream delivers everything at once and completes, leaving decoded specs without demand
+        decoder.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                decoder.onNext(ByteBuffer.wrap(bytes));
+                decoder.onComplete();
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+        Assertions.assertEquals(1, received.size());
+
+        subscription[0].request(0);
+        Assertions.assertEquals(1, errors.size());
+        Assertions.assertInstanceOf(IllegalArgumentException.class, errors.getFirst());
+        Assertions.assertEquals(1, received.size());
+    }
+
+}
@@ -0,0 +1,92 @@
+package de.safti.specapi.tests;
+
+import de.safti.specapi.tests.specs.CountedSpec;
+import de.safti.specapi.tests.specs.SpecWithAllTypes;
+import de.safti.specs.SpecIO;
+import de.safti.specs.io.BinaryData;
+import de.safti.specs.patch.SpecPatcher;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+public class SpecPatcherTest {
+
+    @Test
+    public void testPatchInPlace() {
+        SpecWithAllTypes spec = new SpecTypesTest().populatedSpec();
+        BinaryData data = SpecIO.write(spec);
+
+        // static offset
+        Assertions.assertSame(data, SpecIO.patch(data, SpecWithAllTypes.class, "intVal", 42));
+        // behind dynamic fields, same size
+        Assertions.assertSame(data, SpecIO.patch(data, SpecWithAllTypes.class, "enumVal", SpecWithAllTypes.TestEnum.TWO));
+
+        spec.setIntVal(42);
+        spec.setEnumVal(SpecWithAllTypes.TestEnum.TWO);
+        SpecTypesTest.testEquality(spec, SpecIO.read(data, SpecWithAllTypes.class));
+    }
+
+    @Test
+    public void testPatchResize() {
+        SpecWithAllTypes spec = new SpecTypesTest().populatedSpec();
+        BinaryData data = SpecIO.write(spec);
+
+        BinaryData patched = SpecIO.patch(data, SpecWithAllTypes.class, "stringDynamicVal", "A much longer dynamic string");
+        patched = SpecIO.patch(patched, SpecWithAllTypes.class, "varIntVal", 123456789L);
+
+        spec.setStringDynamicVal("A much longer dynamic string");
+        spec.setVarIntVal(123456789L);
+        SpecTypesTest.testEquality(spec, SpecIO.read(patched, SpecWithAllTypes.class));
+    }
+
+    @Test
+    public void testPatchBuffer() {
+        SpecWithAllTypes spec = new SpecTypesTest().populatedSpec();
+        byte[] bytes = SpecIO.write(spec).array();
+
+        // the spec is stored behind 3 other bytes
+        ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 3);
+        buffer.position(3);
+        buffer.put(bytes);
+
+        SpecPatcher patcher = new SpecPatcher(SpecWithAllTypes.class);
+        patcher.patch(buffer, 3 * 8, "shortVal", (short) -5);
+        patcher.patch(buffer, 3 * 8, "doubleVal", 0.5);
+
+        byte[] patched = new byte[bytes.length];
+        buffer.get(3, patched);
+        SpecWithAllTypes read = (SpecWithAllTypes) SpecIO.read(new BinaryData(patched, SpecIO.write(spec).padding()), SpecWithAllTypes.class);
+
+        spec.setShortVal((short) -5);
+        spec.setDoubleVal(0.5);
+        SpecTypesTest.testEquality(spec, read);
+
+        // behind a varint, so there is no static offset
+        Assertions.assertThrows(IllegalArgumentException.class, () -> patcher.patch(buffer, 3 * 8, "enumVal", SpecWithAllTypes.TestEnum.ONE));
+    }
+
+    @Test
+    public void testReferencedFields() {
+        BinaryData data = SpecIO.write(new SpecTypesTest().populatedSpec());
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SpecIO.patch(data, SpecWithAllTypes.class, "externalLengthField", 5));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SpecIO.patch(data, SpecWithAllTypes.class, "stringDynamicExternalVal", "abcde"));
+        Assertions.assertSame(data, SpecIO.patch(data, SpecWithAllTypes.class, "stringDynamicExternalVal", "xyz"));
+    }
+
+    @Test
+    public void testReferencedFieldsMustMatch() {
+        CountedSpec spec = new CountedSpec();
+        spec.count = 1;
+        spec.values = List.of(300L);
+        BinaryData data = SpecIO.write(spec);
+
+        // two one byte varints have the same size as a single two byte varint, but the count stays 1
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SpecIO.patch(data, CountedSpec.class, "values", List.of(1L, 2L)));
+        Assertions.assertSame(data, SpecIO.patch(data, CountedSpec.class, "values", List.of(400L)));
+        Assertions.assertEquals(List.of(400L), ((CountedSpec) SpecIO.read(data, CountedSpec.class)).values);
+    }
+
+}
@@ -0,0 +1,65 @@
+package de.safti.specapi.tests;
+
+import de.safti.specapi.tests.specs.EventSpec;
+import de.safti.specapi.tests.specs.EventSpecs;
+import de.safti.specapi.tests.specs.InterfaceSpec;
+import de.safti.specapi.tests.specs.SpecWithAllTypes;
+import de.safti.specs.SpecIO;
+import de.safti.specs.utils.StringCache;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public class StringCacheTest {
+
+    @Test
+    public void testCacheHit() {
+        StringCache cache = new StringCache(10);
+        Assertions.assertEquals(16, cache.capacity());
+
+        byte[] bytes = "__host-1__".getBytes(StandardCharsets.UTF_8);
+        String first = cache.get(bytes, 2, 6);
+        Assertions.assertEquals("host-1", first);
+        Assertions.assertSame(first, cache.get("host-1".getBytes(StandardCharsets.UTF_8), 0, 6));
+        Assertions.assertEquals("host-2", cache.get("host-2".getBytes(StandardCharsets.UTF_8), 0, 6));
+    }
+
+    @Test
+    public void testEviction() {
+        StringCache cache = new StringCache(1);
+        String first = cache.get("a".getBytes(StandardCharsets.UTF_8), 0, 1);
+        cache.get("b".getBytes(StandardCharsets.UTF_8), 0, 1);
+
+        String again = cache.get("a".getBytes(StandardCharsets.UTF_8), 0, 1);
+        Assertions.assertEquals(first, again);
+        Assertions.assertNotSame(first, again);
+    }
+
+    @Test
+    public void testDecodedStringsAreShared() {
+        List<EventSpec> events = EventSpecs.events(8);
+
+        // events 0 and 4 share the same host
+        EventSpec first = (EventSpec) SpecIO.read(SpecIO.write(events.get(0)), EventSpec.class);
+        EventSpec second = (EventSpec) SpecIO.read(SpecIO.write(events.get(4)), EventSpec.class);
+        Assertions.assertEquals("host-0", first.host());
+        Assertions.assertSame(first.host(), second.host());
+    }
+
+    @Test
+    public void testAlignedStrings() {
+        // the terminated string is the first field, so it is decoded from the array directly
+        InterfaceSpec spec = SpecIO.generateEmpty(InterfaceSpec.class);
+        spec.setName("safti");
+        spec.setNumber(67);
+        SpecTypesTest.testEquality(spec, SpecIO.read(SpecIO.write(spec), InterfaceSpec.class));
+
+        // unaligned strings
+        SpecWithAllTypes allTypes = new SpecTypesTest().populatedSpec();
+        allTypes.setStringFixedVal("12345\0\0\0\0\0");
+        SpecTypesTest.testEquality(allTypes, SpecIO.read(SpecIO.write(allTypes), SpecWithAllTypes.class));
+    }
+
+}
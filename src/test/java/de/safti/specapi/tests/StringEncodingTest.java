@@ -0,0 +1,89 @@
+package de.safti.specapi.tests;
+
+import de.safti.specapi.tests.specs.TextSpec;
+import de.safti.specs.SpecIO;
+import de.safti.specs.io.BinaryData;
+import de.safti.specs.io.BinaryReader;
+import de.safti.specs.io.BinaryWriter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+public class StringEncodingTest {
+    private static final String[] SAMPLES = {"", "ascii only", "Grüße, Ünïcödé", "日本語テキスト", "emoji 😀 pair", "lone \uD800 surrogate"};
+
+    @Test
+    public void testUtf8MatchesGetBytes() {
+        for (String sample : SAMPLES) {
+            byte[] expected = sample.getBytes(StandardCharsets.UTF_8);
+
+            BinaryWriter aligned = new BinaryWriter();
+            Assertions.assertEquals(expected.length, aligned.writeUtf8(sample));
+            Assertions.assertArrayEquals(expected, aligned.toByteArray(), sample);
+
+            // the same bytes, shifted by a single bit
+            BinaryWriter unaligned = new BinaryWriter();
+            unaligned.writeBoolean(true);
+            Assertions.assertEquals(expected.length, unaligned.writeUtf8(sample));
+
+            BinaryReader reader = new BinaryReader(unaligned.toBinaryData());
+            Assertions.assertTrue(reader.readBoolean());
+            for (byte b : expected) {
+                Assertions.assertEquals(b, reader.readByte(), sample);
+            }
+        }
+    }
+
+    @Test
+    public void testUtf8NeverSplitsCodePoints() {
+        BinaryWriter writer = new BinaryWriter();
+        // 'ü' takes two bytes and does not fit anymore
+        Assertions.assertEquals(2, writer.writeUtf8("abü", 3, 3));
+        Assertions.assertEquals(2, writer.getBitLength() / 8);
+    }
+
+    @Test
+    public void testMultiByteStringsIO() {
+        TextSpec spec = SpecIO.generateEmpty(TextSpec.class);
+        spec.setFlags((byte) 2);
+        spec.setTitle("Grüße 😀");
+        spec.setCode("äb");
+        spec.setBody("日本語");
+
+        BinaryData data = SpecIO.write(spec);
+        TextSpec read = (TextSpec) SpecIO.read(data, TextSpec.class);
+        SpecTypesTest.testEquality(spec, read);
+    }
+
+    @Test
+    public void testFixedStringPaddingAndSlicing() {
+        TextSpec spec = SpecIO.generateEmpty(TextSpec.class);
+        spec.setFlags((byte) 1);
+        spec.setTitle("t");
+        spec.setCode("much longer than eight chars");
+        spec.setBody("b");
+
+        TextSpec read = (TextSpec) SpecIO.read(SpecIO.write(spec), TextSpec.class);
+        Assertions.assertEquals("much lon", read.code());
+
+        spec.setCode("ab");
+        read = (TextSpec) SpecIO.read(SpecIO.write(spec), TextSpec.class);
+        Assertions.assertEquals("ab", read.code());
+    }
+
+    @Test
+    public void testOverwriteBits() {
+        BinaryWriter writer = new BinaryWriter();
+        writer.writeBits(0, 12);
+        writer.writeBits(0b101, 3);
+        writer.overwriteBits(2, 0x3FF, 10);
+        writer.overwriteBits(13, 0b10, 2);
+
+        BinaryReader reader = new BinaryReader(writer.toBinaryData());
+        Assertions.assertEquals(0, reader.readBits(2));
+        Assertions.assertEquals(0x3FF, reader.readBits(10));
+        Assertions.assertEquals(0b110, reader.readBits(3));
+    }
+
+}
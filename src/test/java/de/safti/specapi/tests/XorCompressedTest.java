@@ -0,0 +1,76 @@
+package de.safti.specapi.tests;
+
+import de.safti.specapi.tests.specs.SeriesSpec;
+import de.safti.specs.SpecIO;
+import de.safti.specs.io.BinaryData;
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class XorCompressedTest {
+
+    private SeriesSpec populatedSpec(int count) {
+        double[] temperatures = new double[count];
+        float[] loads = new float[count];
+        DoubleArrayList latencies = new DoubleArrayList();
+        double temperature = 21.5;
+        for (int i = 0; i < count; i++) {
+            if(i % 10 == 0) temperature += 0.25;
+            temperatures[i] = temperature;
+            loads[i] = (i / 20) * 0.5f;
+            latencies.add(i % 3 == 0 ? Double.NaN : -i * 1.5);
+        }
+
+        SeriesSpec spec = SpecIO.generateEmpty(SeriesSpec.class);
+        spec.setTemperatures(temperatures);
+        spec.setLoads(loads);
+        spec.setLatencies(latencies);
+        spec.setRatios(List.of(0.5f, 0.5f, -0.0f, Float.MAX_VALUE, Float.MIN_VALUE));
+        return spec;
+    }
+
+    @Test
+    public void testXorCompressedIO() {
+        SeriesSpec spec = populatedSpec(200);
+        SeriesSpec read = (SeriesSpec) SpecIO.read(SpecIO.write(spec), SeriesSpec.class);
+
+        Assertions.assertArrayEquals(spec.temperatures(), read.temperatures());
+        Assertions.assertArrayEquals(spec.loads(), read.loads());
+        Assertions.assertArrayEquals(spec.latencies().toDoubleArray(), read.latencies().toDoubleArray());
+        Assertions.assertInstanceOf(DoubleArrayList.class, read.latencies());
+        Assertions.assertEquals(spec.ratios(), read.ratios());
+    }
+
+    @Test
+    public void testEmptySeries() {
+        SeriesSpec spec = populatedSpec(0);
+        spec.setRatios(List.of());
+
+        SeriesSpec read = (SeriesSpec) SpecIO.read(SpecIO.write(spec), SeriesSpec.class);
+        Assertions.assertEquals(0, read.temperatures().length);
+        Assertions.assertEquals(0, read.loads().length);
+        Assertions.assertTrue(read.latencies().isEmpty());
+        Assertions.assertTrue(read.ratios().isEmpty());
+    }
+
+    @Test
+    public void testSlowlyChangingSeries() {
+        SeriesSpec spec = SpecIO.generateEmpty(SeriesSpec.class);
+        spec.setTemperatures(populatedSpec(1000).temperatures());
+        spec.setLoads(new float[0]);
+        spec.setLatencies(new DoubleArrayList());
+        spec.setRatios(List.of());
+        BinaryData data = SpecIO.write(spec);
+
+        Assertions.assertTrue(data.bitLength() * 10 < 1000 * 64);
+    }
+
+    @Test
+    public void testSkip() {
+        SeriesSpec spec = populatedSpec(100);
+        Assertions.assertEquals(spec.ratios(), SpecIO.readField(SpecIO.write(spec), SeriesSpec.class, "ratios"));
+    }
+
+}
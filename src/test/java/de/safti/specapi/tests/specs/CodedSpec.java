@@ -0,0 +1,47 @@
+package de.safti.specapi.tests.specs;
+
+import de.safti.specs.annotations.Spec;
+import de.safti.specs.annotations.Type;
+
+import java.util.Objects;
+
+public class CodedSpec implements Spec {
+
+    public CodedSpec() {
+    }
+
+    public CodedSpec(Level level, int code) {
+        this.level = level;
+        this.code = code;
+    }
+
+    @Type.Enum(value = Level.class, frequencies = {90, 8, 1, 1})
+    public Level level;
+
+    @Type.Int(value = 16, frequencies = {50, 30, 10, 10})
+    public int code;
+
+    public enum Level {
+        INFO, WARN, ERROR, FATAL
+    }
+
+    @Override
+    public String toString() {
+        return "CodedSpec{" +
+                "level=" + level +
+                ", code=" + code +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(o == null || getClass() != o.getClass()) return false;
+        CodedSpec that = (CodedSpec) o;
+        return code == that.code && level == that.level;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(level, code);
+    }
+}
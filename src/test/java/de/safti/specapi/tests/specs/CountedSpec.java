@@ -0,0 +1,24 @@
+package de.safti.specapi.tests.specs;
+
+import de.safti.specs.annotations.Spec;
+import de.safti.specs.annotations.Structure;
+import de.safti.specs.annotations.Type;
+
+import java.util.List;
+
+/**
+ * A list whose length is stored in another field, holding elements of varying size.
+ */
+public class CountedSpec implements Spec {
+
+    public CountedSpec() {
+    }
+
+    @Type.Int(8)
+    public int count;
+
+    @Structure.ListDynamic("count")
+    @Type.UVarInt
+    public List<Long> values;
+
+}
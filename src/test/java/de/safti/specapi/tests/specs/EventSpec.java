@@ -0,0 +1,59 @@
+package de.safti.specapi.tests.specs;
+
+import de.safti.specs.annotations.Field;
+import de.safti.specs.annotations.Spec;
+import de.safti.specs.annotations.Structure;
+import de.safti.specs.annotations.Type;
+
+import java.util.OptionalInt;
+
+public interface EventSpec extends Spec {
+
+    @Type.Int(32)
+    int id();
+
+    @Type.Int(63)
+    long timestamp();
+
+    @Type.Enum(Status.class)
+    Status status();
+
+    @Type.Double
+    double value();
+
+    @Type.StringDynamic(value = "@auto", cacheSize = 64)
+    String host();
+
+    @Type.Int(32)
+    @Structure.Optional
+    OptionalInt retries();
+
+
+    enum Status {
+        OK, WARN, ERROR
+    }
+
+
+    /*
+     * SETTERS
+     */
+
+    @Field.Setter("id")
+    void setId(int id);
+
+    @Field.Setter("timestamp")
+    void setTimestamp(long timestamp);
+
+    @Field.Setter("status")
+    void setStatus(Status status);
+
+    @Field.Setter("value")
+    void setValue(double value);
+
+    @Field.Setter("host")
+    void setHost(String host);
+
+    @Field.Setter("retries")
+    void setRetries(OptionalInt retries);
+
+}
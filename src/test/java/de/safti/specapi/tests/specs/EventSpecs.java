@@ -0,0 +1,45 @@
+package de.safti.specapi.tests.specs;
+
+import de.safti.specs.SpecIO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+
+/**
+ * Builds {@link EventSpec} test data shared by the batch and stream tests.
+ */
+public final class EventSpecs {
+    /**
+     * The amount of distinct hosts, event {@code i} has the host {@code "host-" + (i % HOSTS)}.
+     */
+    public static final int HOSTS = 4;
+
+    private EventSpecs() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated.");
+    }
+
+    /**
+     * Event {@code i} has the id {@code i}, a timestamp one second after the previous event,
+     * the status {@code i % 3}, the value {@code i * 0.5}, the host {@code i % HOSTS}
+     * and {@code i} retries if {@code i} is even, none otherwise.
+     *
+     * @param count The amount of events.
+     * @return The events.
+     */
+    public static List<EventSpec> events(int count) {
+        List<EventSpec> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            EventSpec spec = SpecIO.generateEmpty(EventSpec.class);
+            spec.setId(i);
+            spec.setTimestamp(1_700_000_000_000L + i * 1000L);
+            spec.setStatus(EventSpec.Status.values()[i % 3]);
+            spec.setValue(i * 0.5);
+            spec.setHost("host-" + (i % HOSTS));
+            spec.setRetries(i % 2 == 0 ? OptionalInt.of(i) : OptionalInt.empty());
+            events.add(spec);
+        }
+        return events;
+    }
+
+}
@@ -0,0 +1,41 @@
+package de.safti.specapi.tests.specs;
+
+import de.safti.specs.annotations.Field;
+import de.safti.specs.annotations.Spec;
+import de.safti.specs.annotations.Structure;
+import de.safti.specs.annotations.Type;
+
+import java.util.EnumSet;
+
+public interface FlagSpec extends Spec {
+
+    @Type.Enum(value = Flag.class, bits = 8)
+    Flag primary();
+
+    @Type.Enum(Flag.class)
+    @Structure.EnumSet
+    EnumSet<Flag> flags();
+
+    @Type.Int(8)
+    byte trailer();
+
+
+    enum Flag {
+        READ, WRITE, EXECUTE, HIDDEN, SYSTEM, ARCHIVE
+    }
+
+
+    /*
+     * SETTERS
+     */
+
+    @Field.Setter("primary")
+    void setPrimary(Flag flag);
+
+    @Field.Setter("flags")
+    void setFlags(EnumSet<Flag> flags);
+
+    @Field.Setter("trailer")
+    void setTrailer(byte trailer);
+
+}
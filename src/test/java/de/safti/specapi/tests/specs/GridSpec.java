@@ -0,0 +1,36 @@
+package de.safti.specapi.tests.specs;
+
+import de.safti.specs.annotations.Field;
+import de.safti.specs.annotations.Spec;
+import de.safti.specs.annotations.Structure;
+import de.safti.specs.annotations.Type;
+
+public interface GridSpec extends Spec {
+
+    @Structure.ArrayFixed({4, 3})
+    @Type.Double
+    double[][] heights();
+
+    @Structure.ArrayFixed({2, 2})
+    @Type.StringTerminated
+    String[][] labels();
+
+    @Structure.ArrayDynamic("@auto")
+    @Type.Int(5)
+    byte[] mask();
+
+
+    /*
+     * SETTERS
+     */
+
+    @Field.Setter("heights")
+    void setHeights(double[][] heights);
+
+    @Field.Setter("labels")
+    void setLabels(String[][] labels);
+
+    @Field.Setter("mask")
+    void setMask(byte[] mask);
+
+}
@@ -0,0 +1,43 @@
+package de.safti.specapi.tests.specs;
+
+import de.safti.specs.annotations.*;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+import java.util.List;
+
+public interface PackedSpec extends Spec {
+
+    @Structure.PackedList(deltaOfDelta = true, listType = ListType.FU_LONG)
+    @Type.Int(63)
+    LongArrayList timestamps();
+
+    @Structure.PackedList(blockSize = 16, listType = ListType.FU_INT)
+    @Type.Int(32)
+    IntArrayList ids();
+
+    @Structure.PackedList
+    @Type.VarInt
+    List<Long> values();
+
+    @Type.ZigZagVarInt
+    int offset();
+
+
+    /*
+     * SETTERS
+     */
+
+    @Field.Setter("timestamps")
+    void setTimestamps(LongArrayList timestamps);
+
+    @Field.Setter("ids")
+    void setIds(IntArrayList ids);
+
+    @Field.Setter("values")
+    void setValues(List<Long> values);
+
+    @Field.Setter("offset")
+    void setOffset(int offset);
+
+}
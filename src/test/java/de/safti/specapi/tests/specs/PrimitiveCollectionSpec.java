@@ -0,0 +1,44 @@
+package de.safti.specapi.tests.specs;
+
+import de.safti.specs.annotations.*;
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.shorts.ShortOpenHashSet;
+
+public interface PrimitiveCollectionSpec extends Spec {
+
+    @Structure.ListDynamic(value = "@auto", listType = ListType.FU_INT)
+    @Type.Int(20)
+    IntArrayList ints();
+
+    @Structure.ListFixed(value = 3, listType = ListType.FU_DOUBLE)
+    @Type.Double
+    DoubleArrayList doubles();
+
+    @Structure.SetDynamic(value = "@auto", setType = SetType.FU_LONG)
+    @Type.VarInt
+    LongOpenHashSet longs();
+
+    @Structure.SetFixed(value = 2, setType = SetType.FU_SHORT)
+    @Type.Int(16)
+    ShortOpenHashSet shorts();
+
+
+    /*
+     * SETTERS
+     */
+
+    @Field.Setter("ints")
+    void setInts(IntArrayList ints);
+
+    @Field.Setter("doubles")
+    void setDoubles(DoubleArrayList doubles);
+
+    @Field.Setter("longs")
+    void setLongs(LongOpenHashSet longs);
+
+    @Field.Setter("shorts")
+    void setShorts(ShortOpenHashSet shorts);
+
+}
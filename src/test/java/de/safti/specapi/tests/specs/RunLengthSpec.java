@@ -0,0 +1,50 @@
+package de.safti.specapi.tests.specs;
+
+import de.safti.specs.annotations.*;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+import java.util.List;
+
+public interface RunLengthSpec extends Spec {
+
+    @Structure.RunLength
+    @Type.Int(8)
+    byte[] occupancy();
+
+    @Structure.RunLength
+    @Type.Double
+    double[] levels();
+
+    @Structure.RunLength
+    @Type.Enum(EventSpec.Status.class)
+    EventSpec.Status[] states();
+
+    @Structure.RunLength(listType = ListType.FU_INT)
+    @Type.VarInt
+    IntArrayList counters();
+
+    @Structure.RunLength
+    @Type.StringTerminated
+    List<String> labels();
+
+
+    /*
+     * SETTERS
+     */
+
+    @Field.Setter("occupancy")
+    void setOccupancy(byte[] occupancy);
+
+    @Field.Setter("levels")
+    void setLevels(double[] levels);
+
+    @Field.Setter("states")
+    void setStates(EventSpec.Status[] states);
+
+    @Field.Setter("counters")
+    void setCounters(IntArrayList counters);
+
+    @Field.Setter("labels")
+    void setLabels(List<String> labels);
+
+}
@@ -0,0 +1,43 @@
+package de.safti.specapi.tests.specs;
+
+import de.safti.specs.annotations.Field;
+import de.safti.specs.annotations.Spec;
+import de.safti.specs.annotations.Structure;
+import de.safti.specs.annotations.Type;
+import de.safti.specs.offheap.OffHeapArray;
+
+public interface SampleSpec extends Spec {
+
+    @Type.Int(8)
+    byte channel();
+
+    @Structure.OffHeapArray("@auto")
+    @Type.Int(16)
+    OffHeapArray samples();
+
+    @Structure.OffHeapArray("@auto")
+    @Type.Double
+    OffHeapArray levels();
+
+    @Structure.OffHeapArray(value = "@auto", bitCount = 5)
+    @Type.Int(12)
+    OffHeapArray deltas();
+
+
+    /*
+     * SETTERS
+     */
+
+    @Field.Setter("channel")
+    void setChannel(byte channel);
+
+    @Field.Setter("samples")
+    void setSamples(OffHeapArray samples);
+
+    @Field.Setter("levels")
+    void setLevels(OffHeapArray levels);
+
+    @Field.Setter("deltas")
+    void setDeltas(OffHeapArray deltas);
+
+}
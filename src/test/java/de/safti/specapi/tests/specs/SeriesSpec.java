@@ -0,0 +1,43 @@
+package de.safti.specapi.tests.specs;
+
+import de.safti.specs.annotations.*;
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+
+import java.util.List;
+
+public interface SeriesSpec extends Spec {
+
+    @Structure.XorCompressed
+    @Type.Double
+    double[] temperatures();
+
+    @Structure.XorCompressed
+    @Type.Float
+    float[] loads();
+
+    @Structure.XorCompressed(listType = ListType.FU_DOUBLE)
+    @Type.Double
+    DoubleArrayList latencies();
+
+    @Structure.XorCompressed
+    @Type.Float
+    List<Float> ratios();
+
+
+    /*
+     * SETTERS
+     */
+
+    @Field.Setter("temperatures")
+    void setTemperatures(double[] temperatures);
+
+    @Field.Setter("loads")
+    void setLoads(float[] loads);
+
+    @Field.Setter("latencies")
+    void setLatencies(DoubleArrayList latencies);
+
+    @Field.Setter("ratios")
+    void setRatios(List<Float> ratios);
+
+}
@@ -0,0 +1,38 @@
+package de.safti.specapi.tests.specs;
+
+import de.safti.specs.annotations.Field;
+import de.safti.specs.annotations.Spec;
+import de.safti.specs.annotations.Type;
+
+public interface TextSpec extends Spec {
+
+    @Type.Int(3)
+    byte flags();
+
+    @Type.StringDynamic("@auto")
+    String title();
+
+    @Type.StringFixed(value = 8, cutPadding = true, slicing = true)
+    String code();
+
+    @Type.StringTerminated
+    String body();
+
+
+    /*
+     * SETTERS
+     */
+
+    @Field.Setter("flags")
+    void setFlags(byte flags);
+
+    @Field.Setter("title")
+    void setTitle(String title);
+
+    @Field.Setter("code")
+    void setCode(String code);
+
+    @Field.Setter("body")
+    void setBody(String body);
+
+}